@@ -0,0 +1,166 @@
+package com.checkmarx.sca.benchmark;
+
+import com.checkmarx.sca.ScaPlugin;
+import com.checkmarx.sca.standin.ScaStandIn;
+import com.checkmarx.sca.standin.ScaStandInServer;
+import org.artifactory.exception.CancelException;
+import org.artifactory.repo.RepoPath;
+import org.artifactory.repo.RepoPathFactory;
+import org.mockito.MockedStatic;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static java.lang.String.format;
+
+// Overhead added by the plugin to a single download, from ScaPlugin.beforeDownload down to the properties
+// written on the artifact. Artifactory is replaced by InMemoryArtifactory and the Sca API by a ScaStandInServer
+// without latency, so the numbers are the plugin's own cost plus a loopback HTTP round trip when a scan is needed.
+// Run with: mvn -P benchmark test-compile exec:exec   (allocations per call are reported by the gc profiler)
+@BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BeforeDownloadBenchmark {
+    private static final String RepoKey = "npm-remote";
+    private static final String VirtualRepoKey = "npm-virtual";
+    private static final String CleanArtifactPath = "lodash/-/lodash-4.17.21.tgz";
+    private static final String VulnerableArtifactPath = "lodash/-/lodash-0.2.1.tgz";
+
+    // Scan properties are recent: no Sca call, only the threshold and license checks.
+    @Benchmark
+    public void cacheFresh(FreshDownload download) {
+        download.beforeDownload();
+    }
+
+    // Scan properties are older than the expiration time: artifact information, risks and licenses are requested.
+    @Benchmark
+    public void cacheExpired(ExpiredDownload download) {
+        download.beforeDownload();
+    }
+
+    // Download through a virtual repository: members are resolved and the risks are written to each of them.
+    @Benchmark
+    public void virtualRepositoryFanOut(VirtualDownload download) {
+        download.beforeDownload();
+    }
+
+    // The artifact exceeds the security risk threshold and the download is cancelled.
+    @Benchmark
+    public void blockedArtifact(BlockedDownload download, Blackhole blackhole) {
+        try {
+            download.beforeDownload();
+        } catch (CancelException ex) {
+            blackhole.consume(ex);
+        }
+    }
+
+    // Each benchmark gets its own plugin, since creating a plugin closes the one created before it.
+    // The canonical artifact cache is disabled so that expired scans always request the artifact information.
+    public abstract static class DownloadState {
+        private final ScaPluginFixture _pluginFixture = new ScaPluginFixture();
+        private ScaStandInServer _standInServer;
+        private MockedStatic<RepoPathFactory> _repoPathFactory;
+        private ScaPlugin _plugin;
+        private RepoPath _artifact;
+
+        @Setup(Level.Trial)
+        public void setup() throws IOException {
+            _standInServer = new ScaStandInServer(ScaStandIn.withDefaultDataset().setLatency(Duration.ZERO, Duration.ZERO), 0).start();
+            _repoPathFactory = InMemoryArtifactory.mockRepoPathFactory();
+
+            var artifactory = new InMemoryArtifactory();
+            _artifact = addArtifacts(artifactory);
+            _plugin = _pluginFixture.createPlugin(_standInServer.getUrl(), artifactory.getRepositories(),
+                    "sca.security.risk.threshold=high", "sca.artifact-cache.enabled=false");
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            _pluginFixture.close();
+            _repoPathFactory.close();
+            _standInServer.close();
+        }
+
+        protected abstract RepoPath addArtifacts(InMemoryArtifactory artifactory);
+
+        void beforeDownload() {
+            _plugin.beforeDownload(_artifact);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class FreshDownload extends DownloadState {
+        @Override
+        protected RepoPath addArtifacts(InMemoryArtifactory artifactory) {
+            artifactory.addLocalRepository(RepoKey, "npm");
+            var artifact = artifactory.addArtifact(RepoKey, CleanArtifactPath);
+            artifactory.setScanProperties(artifact, Instant.now(), "0");
+            return artifact;
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ExpiredDownload extends DownloadState {
+        @Override
+        protected RepoPath addArtifacts(InMemoryArtifactory artifactory) {
+            artifactory.addLocalRepository(RepoKey, "npm");
+            var artifact = artifactory.addArtifact(RepoKey, CleanArtifactPath);
+            artifactory.setScanProperties(artifact, Instant.now().minus(30, ChronoUnit.DAYS), "0");
+            artifactory.setReadOnlyProperties(true);
+            return artifact;
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class VirtualDownload extends DownloadState {
+        @Param({"3"})
+        public int virtualRepositories;
+
+        @Override
+        protected RepoPath addArtifacts(InMemoryArtifactory artifactory) {
+            var memberRepositories = new ArrayList<String>();
+            for (var index = 0; index < virtualRepositories; index++) {
+                var memberKey = format("%s-%d", RepoKey, index);
+                memberRepositories.add(memberKey);
+                artifactory.addLocalRepository(memberKey, "npm");
+                var member = artifactory.addArtifact(memberKey, CleanArtifactPath);
+                artifactory.setScanProperties(member, Instant.now().minus(30, ChronoUnit.DAYS), "0");
+            }
+            artifactory.addVirtualRepository(VirtualRepoKey, "npm", List.copyOf(memberRepositories));
+            artifactory.setReadOnlyProperties(true);
+            return InMemoryArtifactory.createRepoPath(VirtualRepoKey, CleanArtifactPath);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class BlockedDownload extends DownloadState {
+        @Override
+        protected RepoPath addArtifacts(InMemoryArtifactory artifactory) {
+            artifactory.addLocalRepository(RepoKey, "npm");
+            var artifact = artifactory.addArtifact(RepoKey, VulnerableArtifactPath);
+            artifactory.setScanProperties(artifact, Instant.now(), "151");
+            return artifact;
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package com.checkmarx.sca.benchmark;
+
+import com.checkmarx.sca.PropertiesConstants;
+import org.artifactory.fs.FileLayoutInfo;
+import org.artifactory.md.Properties;
+import org.artifactory.repo.LocalRepositoryConfiguration;
+import org.artifactory.repo.RepoPath;
+import org.artifactory.repo.Repositories;
+import org.artifactory.repo.RepositoryConfiguration;
+import org.artifactory.repo.RepoPathFactory;
+import org.artifactory.repo.VirtualRepositoryConfiguration;
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+
+import javax.annotation.Nonnull;
+import java.lang.reflect.Proxy;
+import java.time.Instant;
+import java.util.AbstractMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.lang.String.format;
+
+// Repositories, repository configurations, paths and properties kept in maps, built with dynamic proxies
+// so the benchmarks do not pay for Mockito invocation recording. Only the calls made by the plugin are answered.
+public class InMemoryArtifactory {
+    private final Map<String, RepositoryConfiguration> _configurations = new ConcurrentHashMap<>();
+    private final Map<RepoPath, Map<String, String>> _properties = new ConcurrentHashMap<>();
+    private final Map<RepoPath, FileLayoutInfo> _layouts = new ConcurrentHashMap<>();
+    private final LongAdder _propertyReads = new LongAdder();
+    private final LongAdder _propertyWrites = new LongAdder();
+    private final FileLayoutInfo _invalidLayoutInfo = proxy(FileLayoutInfo.class, (method, args) -> {
+        if ("isValid".equals(method)) {
+            return false;
+        }
+        return null;
+    });
+    private final Repositories _repositories;
+
+    private volatile boolean _readOnlyProperties;
+
+    public InMemoryArtifactory() {
+        _repositories = proxy(Repositories.class, this::answerRepositories);
+    }
+
+    public Repositories getRepositories() {
+        return _repositories;
+    }
+
+    public void addLocalRepository(@Nonnull String repoKey, @Nonnull String packageType) {
+        _configurations.put(repoKey, proxy(LocalRepositoryConfiguration.class, (method, args) -> answerConfiguration(method, repoKey, packageType, List.of())));
+    }
+
+    public void addVirtualRepository(@Nonnull String repoKey, @Nonnull String packageType, @Nonnull List<String> repositories) {
+        _configurations.put(repoKey, proxy(VirtualRepositoryConfiguration.class, (method, args) -> answerConfiguration(method, repoKey, packageType, repositories)));
+    }
+
+    public RepoPath addArtifact(@Nonnull String repoKey, @Nonnull String path) {
+        var repoPath = createRepoPath(repoKey, path);
+        _properties.put(repoPath, new ConcurrentHashMap<>());
+        return repoPath;
+    }
+
+    // Artifacts of repositories with a valid layout, such as Maven, are identified through the layout information.
+    public RepoPath addArtifact(@Nonnull String repoKey, @Nonnull String path, @Nonnull String organization, @Nonnull String module, @Nonnull String revision) {
+        var repoPath = addArtifact(repoKey, path);
+        _layouts.put(repoPath, proxy(FileLayoutInfo.class, (method, args) -> {
+            switch (method) {
+                case "isValid":
+                    return true;
+                case "getOrganization":
+                    return organization;
+                case "getModule":
+                    return module;
+                case "getBaseRevision":
+                    return revision;
+                default:
+                    return null;
+            }
+        }));
+        return repoPath;
+    }
+
+    public void setProperty(@Nonnull RepoPath repoPath, @Nonnull String name, @Nonnull String value) {
+        _properties.get(repoPath).put(name, value);
+    }
+
+    // Properties left by a previous scan of the artifact.
+    public void setScanProperties(@Nonnull RepoPath repoPath, @Nonnull Instant lastScan, @Nonnull String highRisks) {
+        setProperty(repoPath, PropertiesConstants.TOTAL_RISKS_COUNT, highRisks);
+        setProperty(repoPath, PropertiesConstants.LOW_RISKS_COUNT, "0");
+        setProperty(repoPath, PropertiesConstants.MEDIUM_RISKS_COUNT, "0");
+        setProperty(repoPath, PropertiesConstants.HIGH_RISKS_COUNT, highRisks);
+        setProperty(repoPath, PropertiesConstants.RISK_SCORE, "0.0");
+        setProperty(repoPath, PropertiesConstants.RISK_LEVEL, "None");
+        setProperty(repoPath, PropertiesConstants.LAST_SCAN, lastScan.toString());
+        setProperty(repoPath, PropertiesConstants.LICENSE_NAMES, "MIT");
+    }
+
+    // Reads and writes of artifact properties made through Repositories.
+    public long getPropertyOperationsCount() {
+        return _propertyReads.sum() + _propertyWrites.sum();
+    }
+
+    public long getPropertyReadsCount() {
+        return _propertyReads.sum();
+    }
+
+    public long getPropertyWritesCount() {
+        return _propertyWrites.sum();
+    }
+
+    // Keeps the properties as they are, so every call of a scenario sees the same state.
+    public void setReadOnlyProperties(boolean readOnlyProperties) {
+        _readOnlyProperties = readOnlyProperties;
+    }
+
+    public static RepoPath createRepoPath(@Nonnull String repoKey, @Nonnull String path) {
+        var id = format("%s:%s", repoKey, path);
+        var name = path.substring(path.lastIndexOf('/') + 1);
+
+        return proxy(RepoPath.class, (method, args) -> {
+            switch (method) {
+                case "getRepoKey":
+                    return repoKey;
+                case "getPath":
+                    return path;
+                case "getName":
+                    return name;
+                case "getId":
+                case "toString":
+                    return id;
+                case "toPath":
+                    return format("%s/%s", repoKey, path);
+                case "isFile":
+                    return true;
+                case "isFolder":
+                case "isRoot":
+                    return false;
+                case "hashCode":
+                    return id.hashCode();
+                case "equals":
+                    return args[0] instanceof RepoPath && id.equals(((RepoPath) args[0]).getId());
+                default:
+                    throw new UnsupportedOperationException(method);
+            }
+        });
+    }
+
+    // Outside of Artifactory the factory has no implementation. Static mocks are thread local,
+    // so the stub has to be registered on every thread calling the plugin and closed by that thread.
+    public static MockedStatic<RepoPathFactory> mockRepoPathFactory() {
+        var repoPathFactory = Mockito.mockStatic(RepoPathFactory.class);
+        repoPathFactory.when(() -> RepoPathFactory.create(Mockito.anyString(), Mockito.anyString()))
+                .thenAnswer(invocation -> createRepoPath(invocation.getArgument(0), invocation.getArgument(1)));
+        return repoPathFactory;
+    }
+
+    private Object answerRepositories(String method, Object[] args) {
+        switch (method) {
+            case "getProperties":
+            case "hasProperty":
+            case "getProperty":
+                _propertyReads.increment();
+                break;
+            case "setProperty":
+                _propertyWrites.increment();
+                break;
+            default:
+                break;
+        }
+
+        switch (method) {
+            case "getRepositoryConfiguration":
+                return _configurations.get((String) args[0]);
+            case "exists":
+                return _properties.containsKey((RepoPath) args[0]);
+            case "getLayoutInfo":
+                return _layouts.getOrDefault((RepoPath) args[0], _invalidLayoutInfo);
+            case "getProperties":
+                var properties = _properties.get((RepoPath) args[0]);
+                return properties == null ? null : createProperties(new HashMap<>(properties));
+            case "hasProperty":
+                var artifactProperties = _properties.get((RepoPath) args[0]);
+                return artifactProperties != null && artifactProperties.containsKey((String) args[1]);
+            case "getProperty":
+                var values = _properties.get((RepoPath) args[0]);
+                return values == null ? null : values.get((String) args[1]);
+            case "setProperty":
+                if (!_readOnlyProperties) {
+                    setProperty((RepoPath) args[0], (String) args[1], ((String[]) args[2]).length == 0 ? "" : ((String[]) args[2])[0]);
+                }
+                return null;
+            case "hashCode":
+                return System.identityHashCode(_repositories);
+            case "equals":
+                return args[0] == _repositories;
+            case "toString":
+                return "InMemoryRepositories";
+            default:
+                throw new UnsupportedOperationException(method);
+        }
+    }
+
+    private static Object answerConfiguration(String method, String repoKey, String packageType, List<String> repositories) {
+        switch (method) {
+            case "getKey":
+            case "toString":
+                return repoKey;
+            case "getPackageType":
+                return packageType;
+            case "getRepositories":
+                return repositories;
+            case "hashCode":
+                return repoKey.hashCode();
+            case "equals":
+                return false;
+            default:
+                throw new UnsupportedOperationException(method);
+        }
+    }
+
+    private static Properties createProperties(Map<String, String> values) {
+        return proxy(Properties.class, (method, args) -> {
+            switch (method) {
+                case "size":
+                    return values.size();
+                case "isEmpty":
+                    return values.isEmpty();
+                case "containsKey":
+                    return values.containsKey((String) args[0]);
+                case "getFirst":
+                    return values.get((String) args[0]);
+                case "get":
+                    var value = values.get((String) args[0]);
+                    return value == null ? Set.of() : Set.of(value);
+                case "keySet":
+                    return values.keySet();
+                case "entries":
+                    var entries = new LinkedHashSet<Map.Entry<String, String>>();
+                    values.forEach((key, entryValue) -> entries.add(new AbstractMap.SimpleImmutableEntry<>(key, entryValue)));
+                    return entries;
+                case "hashCode":
+                    return values.hashCode();
+                case "equals":
+                    return Objects.equals(values, args[0]);
+                case "toString":
+                    return values.toString();
+                default:
+                    throw new UnsupportedOperationException(method);
+            }
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, Answer answer) {
+        return (T) Proxy.newProxyInstance(InMemoryArtifactory.class.getClassLoader(), new Class<?>[]{type},
+                (instance, method, args) -> answer.apply(method.getName(), args));
+    }
+
+    private interface Answer {
+        Object apply(String method, Object[] args);
+    }
+}
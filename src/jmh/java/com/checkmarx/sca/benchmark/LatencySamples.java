@@ -0,0 +1,47 @@
+package com.checkmarx.sca.benchmark;
+
+import javax.annotation.Nonnull;
+import java.util.Arrays;
+import java.util.Collection;
+
+import static java.lang.String.format;
+
+// Latencies in nanoseconds recorded by a single thread, merged and sorted once the run is over.
+public class LatencySamples {
+    private long[] _values = new long[1024];
+    private int _size;
+
+    public void add(long value) {
+        if (_size == _values.length) {
+            _values = Arrays.copyOf(_values, _size * 2);
+        }
+        _values[_size++] = value;
+    }
+
+    public static long[] merge(@Nonnull Collection<LatencySamples> samples) {
+        var merged = new long[samples.stream().mapToInt(sample -> sample._size).sum()];
+        var position = 0;
+        for (var sample : samples) {
+            System.arraycopy(sample._values, 0, merged, position, sample._size);
+            position += sample._size;
+        }
+
+        Arrays.sort(merged);
+        return merged;
+    }
+
+    // Latencies must be sorted.
+    public static String formatPercentiles(@Nonnull long[] latencies) {
+        if (latencies.length == 0) {
+            return "-";
+        }
+
+        return format("p50 %.2f, p95 %.2f, p99 %.2f, max %.2f",
+                percentile(latencies, 0.50), percentile(latencies, 0.95), percentile(latencies, 0.99), latencies[latencies.length - 1] / 1_000_000.0);
+    }
+
+    private static double percentile(long[] latencies, double quantile) {
+        var index = (int) Math.ceil(quantile * latencies.length) - 1;
+        return latencies[Math.max(index, 0)] / 1_000_000.0;
+    }
+}
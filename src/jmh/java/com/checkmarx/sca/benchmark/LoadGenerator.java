@@ -0,0 +1,246 @@
+package com.checkmarx.sca.benchmark;
+
+import com.checkmarx.sca.ScaPlugin;
+import com.checkmarx.sca.standin.ScaStandIn;
+import com.checkmarx.sca.standin.ScaStandInServer;
+import org.artifactory.exception.CancelException;
+import org.artifactory.repo.RepoPath;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static java.lang.String.format;
+
+// Simulates a build fleet: a number of threads send downloads and uploads to the plugin at the same time,
+// while the Sca API is a ScaStandInServer with latency. Reports throughput, latency percentiles, Sca calls
+// and property operations per download, so contention shows up before a rollout.
+// Run with: mvn -P benchmark test-compile exec:exec@load-test -Dload.threads=32 -Dload.duration=120
+// Arguments are name=value pairs; arguments starting with 'sca.' are written to the plugin configuration.
+public class LoadGenerator {
+    private static final String RemoteRepoKey = "npm-remote";
+    private static final String LocalRepoKey = "npm-local";
+    private static final String VirtualRepoKey = "npm-virtual";
+
+    private final Map<String, String> _arguments;
+    private final InMemoryArtifactory _artifactory = new InMemoryArtifactory();
+    private final List<RepoPath> _downloads = new ArrayList<>();
+    private final List<RepoPath> _virtualDownloads = new ArrayList<>();
+    private final List<RepoPath> _uploads = new ArrayList<>();
+    private final AtomicLong _replayPosition = new AtomicLong();
+    private final AtomicLong _blockedCount = new AtomicLong();
+    private final AtomicLong _errorCount = new AtomicLong();
+
+    private final double _virtualRatio;
+    private final double _uploadRatio;
+
+    private double[] _cumulativeWeights;
+    private volatile boolean _running = true;
+    private volatile boolean _measuring = false;
+
+    public LoadGenerator(@Nonnull Map<String, String> arguments) {
+        _arguments = arguments;
+        _virtualRatio = getDouble("virtualRatio", 0.2);
+        _uploadRatio = getDouble("uploadRatio", 0.05);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new LoadGenerator(ScaPluginFixture.parseArguments(args)).run();
+    }
+
+    public void run() throws Exception {
+        var threads = getInt("threads", 16);
+        var warmup = Duration.ofSeconds(getInt("warmup", 10));
+        var duration = Duration.ofSeconds(getInt("duration", 60));
+
+        var standIn = ScaStandIn.withDefaultDataset()
+                .setAnswerUnknownPackages(true)
+                .setLatency(Duration.ofMillis(getInt("latency", 50)), Duration.ofMillis(getInt("jitter", 20)))
+                .setErrorRate(getDouble("errorRate", 0), 500);
+
+        try (var standInServer = new ScaStandInServer(standIn, 0).start(); var pluginFixture = new ScaPluginFixture()) {
+            createWorkload();
+            var plugin = pluginFixture.createPlugin(standInServer.getUrl(), _artifactory.getRepositories(), ScaPluginFixture.getPluginProperties(_arguments));
+
+            var workers = new ArrayList<Worker>();
+            for (var index = 0; index < threads; index++) {
+                var worker = new Worker(plugin);
+                var thread = new Thread(worker, format("cxsca-load-%d", index + 1));
+                thread.setDaemon(true);
+                worker._thread = thread;
+                workers.add(worker);
+                thread.start();
+            }
+
+            System.out.printf("Load test: %d threads, %d s warmup, %d s measurement, %d distinct artifacts.%n",
+                    threads, warmup.toSeconds(), duration.toSeconds(), _downloads.size());
+
+            Thread.sleep(warmup.toMillis());
+            var scaRequestsAtStart = standIn.getRequestsCount();
+            var propertyOperationsAtStart = _artifactory.getPropertyOperationsCount();
+            _measuring = true;
+            var startTime = System.nanoTime();
+
+            Thread.sleep(duration.toMillis());
+            _measuring = false;
+            var elapsedNanos = System.nanoTime() - startTime;
+            var scaRequests = standIn.getRequestsCount() - scaRequestsAtStart;
+            var propertyOperations = _artifactory.getPropertyOperationsCount() - propertyOperationsAtStart;
+
+            _running = false;
+            for (var worker : workers) {
+                worker._thread.join();
+            }
+
+            var downloadLatencies = LatencySamples.merge(workers.stream().map(worker -> worker._downloadLatencies).collect(Collectors.toList()));
+            var uploadLatencies = LatencySamples.merge(workers.stream().map(worker -> worker._uploadLatencies).collect(Collectors.toList()));
+            report(elapsedNanos, downloadLatencies, uploadLatencies, scaRequests, propertyOperations);
+        }
+    }
+
+    private void createWorkload() throws IOException {
+        _artifactory.addLocalRepository(LocalRepoKey, "npm");
+        _artifactory.addLocalRepository(RemoteRepoKey, "npm");
+        _artifactory.addVirtualRepository(VirtualRepoKey, "npm", List.of(LocalRepoKey, RemoteRepoKey));
+
+        var pathsFile = _arguments.get("paths");
+        if (pathsFile != null) {
+            loadPaths(pathsFile);
+            return;
+        }
+
+        var artifacts = getInt("artifacts", 1000);
+        for (var index = 0; index < artifacts; index++) {
+            var path = format("load-test-%d/-/load-test-%d-1.0.%d.tgz", index, index, index % 10);
+            _downloads.add(_artifactory.addArtifact(RemoteRepoKey, path));
+            _virtualDownloads.add(InMemoryArtifactory.createRepoPath(VirtualRepoKey, path));
+            _uploads.add(_artifactory.addArtifact(LocalRepoKey, path));
+        }
+
+        // Zipf distribution over the artifacts, a skew of 0 means every artifact is equally popular.
+        var skew = getDouble("skew", 1.0);
+        _cumulativeWeights = new double[artifacts];
+        var total = 0.0;
+        for (var index = 0; index < artifacts; index++) {
+            total += 1.0 / Math.pow(index + 1, skew);
+            _cumulativeWeights[index] = total;
+        }
+    }
+
+    // One '<repoKey>/<path>' per line, replayed in order by all the threads; unknown repositories are created as local ones.
+    private void loadPaths(String pathsFile) throws IOException {
+        var packageType = _arguments.getOrDefault("packageType", "npm");
+        var repoKeys = new LinkedHashSet<String>();
+
+        for (var line : Files.readAllLines(Paths.get(pathsFile), StandardCharsets.UTF_8)) {
+            var separator = line.indexOf('/');
+            if (line.isBlank() || separator <= 0) {
+                continue;
+            }
+
+            var repoKey = line.substring(0, separator).trim();
+            if (repoKeys.add(repoKey) && !LocalRepoKey.equals(repoKey) && !RemoteRepoKey.equals(repoKey)) {
+                _artifactory.addLocalRepository(repoKey, packageType);
+            }
+
+            _downloads.add(_artifactory.addArtifact(repoKey, line.substring(separator + 1).trim()));
+        }
+
+        if (_downloads.isEmpty()) {
+            throw new IOException(format("No paths found in %s", pathsFile));
+        }
+    }
+
+    private RepoPath nextDownload(ThreadLocalRandom random) {
+        if (_cumulativeWeights == null) {
+            return _downloads.get((int) (_replayPosition.getAndIncrement() % _downloads.size()));
+        }
+
+        var index = Arrays.binarySearch(_cumulativeWeights, random.nextDouble() * _cumulativeWeights[_cumulativeWeights.length - 1]);
+        index = Math.min(index < 0 ? -index - 1 : index, _downloads.size() - 1);
+
+        return random.nextDouble() < _virtualRatio ? _virtualDownloads.get(index) : _downloads.get(index);
+    }
+
+    private void report(long elapsedNanos, long[] downloadLatencies, long[] uploadLatencies, long scaRequests, long propertyOperations) {
+        var seconds = elapsedNanos / 1_000_000_000.0;
+        var downloads = Math.max(downloadLatencies.length, 1);
+
+        System.out.printf("%nDownloads: %d (%.1f/s), blocked: %d, errors: %d%n", downloadLatencies.length, downloadLatencies.length / seconds, _blockedCount.get(), _errorCount.get());
+        System.out.printf("Download latency (ms): %s%n", LatencySamples.formatPercentiles(downloadLatencies));
+        System.out.printf("Uploads: %d (%.1f/s)%n", uploadLatencies.length, uploadLatencies.length / seconds);
+        System.out.printf("Upload latency (ms): %s%n", LatencySamples.formatPercentiles(uploadLatencies));
+        System.out.printf("Sca calls per download: %.3f (total %d)%n", scaRequests / (double) downloads, scaRequests);
+        System.out.printf("Property operations per download: %.2f (total %d)%n", propertyOperations / (double) downloads, propertyOperations);
+    }
+
+    private int getInt(String name, int defaultValue) {
+        var value = _arguments.get(name);
+        return value == null ? defaultValue : Integer.parseInt(value);
+    }
+
+    private double getDouble(String name, double defaultValue) {
+        var value = _arguments.get(name);
+        return value == null ? defaultValue : Double.parseDouble(value);
+    }
+
+    private final class Worker implements Runnable {
+        private final ScaPlugin _plugin;
+        private final LatencySamples _downloadLatencies = new LatencySamples();
+        private final LatencySamples _uploadLatencies = new LatencySamples();
+        private Thread _thread;
+
+        private Worker(ScaPlugin plugin) {
+            _plugin = plugin;
+        }
+
+        @Override
+        public void run() {
+            var random = ThreadLocalRandom.current();
+
+            try (var repoPathFactory = InMemoryArtifactory.mockRepoPathFactory()) {
+                while (_running) {
+                    var upload = !_uploads.isEmpty() && random.nextDouble() < _uploadRatio;
+                    var repoPath = upload ? _uploads.get(random.nextInt(_uploads.size())) : nextDownload(random);
+
+                    var blocked = false;
+                    var failed = false;
+                    var startTime = System.nanoTime();
+                    try {
+                        if (upload) {
+                            _plugin.beforeUpload(repoPath);
+                        } else {
+                            _plugin.beforeDownload(repoPath);
+                        }
+                    } catch (CancelException ex) {
+                        blocked = true;
+                    } catch (Exception ex) {
+                        failed = true;
+                    }
+                    var elapsedNanos = System.nanoTime() - startTime;
+
+                    if (_measuring) {
+                        (upload ? _uploadLatencies : _downloadLatencies).add(elapsedNanos);
+                        if (blocked) {
+                            _blockedCount.incrementAndGet();
+                        }
+                        if (failed) {
+                            _errorCount.incrementAndGet();
+                        }
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.checkmarx.sca.benchmark;
+
+import com.checkmarx.sca.ScaPlugin;
+import org.artifactory.repo.Repositories;
+import org.slf4j.helpers.NOPLogger;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static java.lang.String.format;
+
+// Creates plugins pointed to a stand-in server, each one with its own plugins directory,
+// so the canonical cache and the audit log files are not shared between runs. Closing the fixture closes the
+// plugins before their directories are deleted.
+public class ScaPluginFixture implements AutoCloseable {
+    private final List<Path> _pluginsDirectories = new ArrayList<>();
+    private final List<ScaPlugin> _plugins = new ArrayList<>();
+
+    public ScaPlugin createPlugin(@Nonnull String apiUrl, @Nonnull Repositories repositories, String... properties) throws IOException {
+        var pluginsDirectory = Files.createTempDirectory("cxsca-benchmark");
+        _pluginsDirectories.add(pluginsDirectory);
+
+        var lines = new ArrayList<String>();
+        lines.add(format("sca.api.url=%s", apiUrl));
+        lines.add("sca.log.summary-interval-seconds=0");
+        lines.addAll(List.of(properties));
+        Files.writeString(pluginsDirectory.resolve("cxsca-security-plugin.properties"), String.join(System.lineSeparator(), lines));
+
+        var plugin = new ScaPlugin(NOPLogger.NOP_LOGGER, pluginsDirectory.toFile(), repositories);
+        _plugins.add(plugin);
+        return plugin;
+    }
+
+    // The main methods take name=value pairs, an empty value leaves the default.
+    public static Map<String, String> parseArguments(@Nonnull String[] args) {
+        var arguments = new HashMap<String, String>();
+        for (var arg : args) {
+            var separator = arg.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException(format("Invalid argument '%s', expected name=value.", arg));
+            }
+
+            var value = arg.substring(separator + 1).trim();
+            if (!value.isEmpty()) {
+                arguments.put(arg.substring(0, separator).trim(), value);
+            }
+        }
+
+        return arguments;
+    }
+
+    // Arguments starting with 'sca.' are written to the plugin configuration.
+    public static String[] getPluginProperties(@Nonnull Map<String, String> arguments) {
+        return arguments.entrySet().stream()
+                .filter(argument -> argument.getKey().startsWith("sca."))
+                .map(argument -> format("%s=%s", argument.getKey(), argument.getValue()))
+                .toArray(String[]::new);
+    }
+
+    @Override
+    public void close() throws IOException {
+        _plugins.forEach(ScaPlugin::close);
+        _plugins.clear();
+
+        for (var pluginsDirectory : _pluginsDirectories) {
+            try (var files = Files.walk(pluginsDirectory)) {
+                for (var file : files.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+
+        _pluginsDirectories.clear();
+    }
+}
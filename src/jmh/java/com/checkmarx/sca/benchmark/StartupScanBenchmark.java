@@ -0,0 +1,230 @@
+package com.checkmarx.sca.benchmark;
+
+import com.checkmarx.sca.standin.ScaStandIn;
+import com.checkmarx.sca.standin.ScaStandInServer;
+import org.artifactory.repo.RepoPath;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+import static java.lang.String.format;
+
+// Runs ScaPlugin.scanExistingArtifacts over synthetic Artifactory instances of growing size and reports wall time,
+// peak heap, Sca calls and property reads per size. The model is generated from a fixed seed, so the scaling
+// curve can be reproduced and compared between changes.
+// Run with: mvn -P benchmark test-compile exec:exec@startup-scan -Dstartup.sizes=10000,100000,1000000
+// Arguments are name=value pairs; arguments starting with 'sca.' are written to the plugin configuration.
+public class StartupScanBenchmark {
+    private static final int WarmupArtifacts = 2_000;
+    private static final String CsvHeader = "artifacts,coordinates,repositories,wallMs,peakHeapMb,modelHeapMb,scaCalls,propertyReads,propertyWrites";
+
+    private final Map<String, String> _arguments;
+    private final int _repositories;
+    private final int _pathsPerCoordinate;
+    private final double _freshRatio;
+    private final double _staleRatio;
+    private final long _seed;
+    private final Map<String, Integer> _packageMix;
+
+    private int _generatedCoordinates;
+
+    public StartupScanBenchmark(@Nonnull Map<String, String> arguments) {
+        _arguments = arguments;
+        _repositories = Integer.parseInt(arguments.getOrDefault("repositories", "20"));
+        _pathsPerCoordinate = Integer.parseInt(arguments.getOrDefault("pathsPerCoordinate", "2"));
+        _freshRatio = Double.parseDouble(arguments.getOrDefault("freshRatio", "0.5"));
+        _staleRatio = Double.parseDouble(arguments.getOrDefault("staleRatio", "0.25"));
+        _seed = Long.parseLong(arguments.getOrDefault("seed", "42"));
+        _packageMix = parsePackageMix(arguments.getOrDefault("packageMix", "npm:40,maven:30,pypi:20,nuget:10"));
+    }
+
+    public static void main(String[] args) throws Exception {
+        new StartupScanBenchmark(ScaPluginFixture.parseArguments(args)).run();
+    }
+
+    public void run() throws Exception {
+        var standIn = ScaStandIn.withDefaultDataset()
+                .setAnswerUnknownPackages(true)
+                .setLatency(Duration.ofMillis(Integer.parseInt(_arguments.getOrDefault("latency", "0"))), Duration.ZERO);
+
+        var lines = new ArrayList<String>();
+        lines.add(CsvHeader);
+
+        try (var standInServer = new ScaStandInServer(standIn, 0).start()) {
+            scan(standInServer, WarmupArtifacts);
+
+            System.out.println(CsvHeader);
+            for (var size : _arguments.getOrDefault("sizes", "10000,100000").split(",")) {
+                var line = scan(standInServer, Integer.parseInt(size.trim()));
+                System.out.println(line);
+                lines.add(line);
+            }
+        }
+
+        var output = _arguments.get("output");
+        if (output != null) {
+            Files.write(Paths.get(output), lines, StandardCharsets.UTF_8);
+        }
+    }
+
+    private String scan(ScaStandInServer standInServer, int artifacts) throws IOException {
+        var artifactory = new InMemoryArtifactory();
+        var repoPaths = generate(artifactory, artifacts);
+
+        try (var pluginFixture = new ScaPluginFixture()) {
+            var plugin = pluginFixture.createPlugin(standInServer.getUrl(), artifactory.getRepositories(), ScaPluginFixture.getPluginProperties(_arguments));
+
+            var modelHeap = getHeapAfterCollection();
+            var heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+                    .filter(pool -> pool.getType() == MemoryType.HEAP)
+                    .toArray(MemoryPoolMXBean[]::new);
+            for (var pool : heapPools) {
+                pool.resetPeakUsage();
+            }
+
+            var scaRequestsAtStart = standInServer.getStandIn().getRequestsCount();
+            var startTime = System.nanoTime();
+
+            plugin.scanExistingArtifacts(repoPaths);
+
+            var elapsedMillis = (System.nanoTime() - startTime) / 1_000_000;
+            var scaRequests = standInServer.getStandIn().getRequestsCount() - scaRequestsAtStart;
+
+            // The peaks of the pools are not reached at the same time, so their sum is an upper bound.
+            var peakHeap = 0L;
+            for (var pool : heapPools) {
+                peakHeap += pool.getPeakUsage().getUsed();
+            }
+
+            return format("%d,%d,%d,%d,%d,%d,%d,%d,%d", repoPaths.size(), _generatedCoordinates, _repositories, elapsedMillis,
+                    peakHeap / (1024 * 1024), modelHeap / (1024 * 1024), scaRequests,
+                    artifactory.getPropertyReadsCount(), artifactory.getPropertyWritesCount());
+        }
+    }
+
+    // Every coordinate is stored in up to pathsPerCoordinate repositories of its package type, as remote caches
+    // and local copies do. Each path was scanned recently, scanned before the expiration time or never scanned.
+    private List<RepoPath> generate(InMemoryArtifactory artifactory, int artifacts) {
+        var random = new Random(_seed);
+        var repositoriesByType = createRepositories(artifactory);
+        var packageTypes = new ArrayList<>(repositoriesByType.keySet());
+        var totalWeight = _packageMix.values().stream().mapToInt(Integer::intValue).sum();
+
+        var now = Instant.now();
+        var stale = now.minus(30, ChronoUnit.DAYS);
+        var repoPaths = new ArrayList<RepoPath>(artifacts);
+
+        _generatedCoordinates = 0;
+        for (var coordinate = 0; repoPaths.size() < artifacts; coordinate++) {
+            _generatedCoordinates++;
+            var packageType = pickPackageType(packageTypes, random.nextInt(totalWeight));
+            var repoKeys = repositoriesByType.get(packageType);
+            var firstRepository = random.nextInt(repoKeys.size());
+            var copies = Math.min(_pathsPerCoordinate, repoKeys.size());
+
+            for (var copy = 0; copy < copies && repoPaths.size() < artifacts; copy++) {
+                var repoKey = repoKeys.get((firstRepository + copy) % repoKeys.size());
+                var repoPath = addArtifact(artifactory, packageType, repoKey, coordinate);
+
+                var freshness = random.nextDouble();
+                if (freshness < _freshRatio) {
+                    artifactory.setScanProperties(repoPath, now, "0");
+                } else if (freshness < _freshRatio + _staleRatio) {
+                    artifactory.setScanProperties(repoPath, stale, "0");
+                }
+
+                repoPaths.add(repoPath);
+            }
+        }
+
+        return repoPaths;
+    }
+
+    // Repositories are split between the package types in proportion to the mix, with at least one per type.
+    private Map<String, List<String>> createRepositories(InMemoryArtifactory artifactory) {
+        var totalWeight = _packageMix.values().stream().mapToInt(Integer::intValue).sum();
+        var repositoriesByType = new LinkedHashMap<String, List<String>>();
+
+        for (var packageMix : _packageMix.entrySet()) {
+            var count = Math.max(1, Math.round(_repositories * packageMix.getValue() / (float) totalWeight));
+            var repoKeys = new ArrayList<String>();
+            for (var index = 0; index < count; index++) {
+                var repoKey = format("%s-%d", packageMix.getKey(), index);
+                artifactory.addLocalRepository(repoKey, packageMix.getKey());
+                repoKeys.add(repoKey);
+            }
+            repositoriesByType.put(packageMix.getKey(), repoKeys);
+        }
+
+        return repositoriesByType;
+    }
+
+    private String pickPackageType(List<String> packageTypes, int weight) {
+        for (var packageType : packageTypes) {
+            weight -= _packageMix.get(packageType);
+            if (weight < 0) {
+                return packageType;
+            }
+        }
+
+        return packageTypes.get(packageTypes.size() - 1);
+    }
+
+    private static RepoPath addArtifact(InMemoryArtifactory artifactory, String packageType, String repoKey, int coordinate) {
+        var name = format("startup-%d", coordinate);
+        var version = format("1.%d.%d", coordinate % 7, coordinate % 13);
+
+        switch (packageType) {
+            case "maven":
+                var organization = format("com.example.group%d", coordinate % 100);
+                var path = format("%s/%s/%s/%s-%s.jar", organization.replace('.', '/'), name, version, name, version);
+                return artifactory.addArtifact(repoKey, path, organization, name, version);
+            case "pypi":
+                return artifactory.addArtifact(repoKey, format("%s/%s-%s.tar.gz", name, name, version));
+            case "nuget":
+                return artifactory.addArtifact(repoKey, format("%s.%s.nupkg", name, version));
+            case "npm":
+                return artifactory.addArtifact(repoKey, format("%s/-/%s-%s.tgz", name, name, version));
+            default:
+                throw new IllegalArgumentException(format("Package type '%s' is not supported by the benchmark.", packageType));
+        }
+    }
+
+    private static long getHeapAfterCollection() {
+        System.gc();
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    // "npm:40,maven:30" to the weight of each package type.
+    private static Map<String, Integer> parsePackageMix(String packageMix) {
+        var weights = new LinkedHashMap<String, Integer>();
+        for (var entry : packageMix.split(",")) {
+            var parts = entry.trim().split(":");
+            var weight = parts.length > 1 ? Integer.parseInt(parts[1].trim()) : 1;
+            if (weight > 0) {
+                weights.put(parts[0].trim().toLowerCase(Locale.ROOT), weight);
+            }
+        }
+
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException(format("Invalid package mix '%s'.", packageMix));
+        }
+
+        return weights;
+    }
+}
@@ -0,0 +1,211 @@
+package com.checkmarx.sca.benchmark;
+
+import com.checkmarx.sca.ScaPlugin;
+import com.checkmarx.sca.standin.ScaStandIn;
+import com.checkmarx.sca.standin.ScaStandInServer;
+import com.checkmarx.sca.traffic.TrafficEvent;
+import org.artifactory.exception.CancelException;
+import org.artifactory.repo.RepoPath;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+
+import static java.lang.String.format;
+
+// Feeds a trace written by the plugin's traffic recorder (sca.traffic.recording.enabled) back into a plugin backed by
+// InMemoryArtifactory and a ScaStandInServer, keeping the original pacing divided by 'speed'; a speed of 0 replays
+// as fast as the threads allow. Every repository of the trace is created as a local one, so virtual repository
+// fan-out is not reproduced.
+// Run with: mvn -P benchmark test-compile exec:exec@traffic-replay -Dreplay.trace=cxsca-traffic.tsv -Dreplay.speed=10
+// Arguments are name=value pairs; arguments starting with 'sca.' are written to the plugin configuration.
+public class TrafficReplay {
+    private final Map<String, String> _arguments;
+    private final InMemoryArtifactory _artifactory = new InMemoryArtifactory();
+    private final Map<String, RepoPath> _repoPaths = new HashMap<>();
+    private final ConcurrentLinkedQueue<ReplaySamples> _samples = new ConcurrentLinkedQueue<>();
+    private final ThreadLocal<ReplaySamples> _threadSamples = ThreadLocal.withInitial(() -> {
+        var samples = new ReplaySamples();
+        _samples.add(samples);
+        return samples;
+    });
+    private final AtomicLong _blockedCount = new AtomicLong();
+    private final AtomicLong _errorCount = new AtomicLong();
+
+    public TrafficReplay(@Nonnull Map<String, String> arguments) {
+        _arguments = arguments;
+    }
+
+    public static void main(String[] args) throws Exception {
+        new TrafficReplay(ScaPluginFixture.parseArguments(args)).run();
+    }
+
+    public void run() throws Exception {
+        var trace = _arguments.get("trace");
+        if (trace == null) {
+            throw new IllegalArgumentException("The trace argument is required.");
+        }
+
+        var speed = Double.parseDouble(_arguments.getOrDefault("speed", "1"));
+        var threads = Integer.parseInt(_arguments.getOrDefault("threads", "64"));
+        var events = loadTrace(trace);
+
+        var standIn = ScaStandIn.withDefaultDataset()
+                .setAnswerUnknownPackages(true)
+                .setLatency(Duration.ofMillis(Integer.parseInt(_arguments.getOrDefault("latency", "50"))),
+                        Duration.ofMillis(Integer.parseInt(_arguments.getOrDefault("jitter", "20"))))
+                .setErrorRate(Double.parseDouble(_arguments.getOrDefault("errorRate", "0")), 500);
+
+        try (var standInServer = new ScaStandInServer(standIn, 0).start(); var pluginFixture = new ScaPluginFixture()) {
+            var plugin = pluginFixture.createPlugin(standInServer.getUrl(), _artifactory.getRepositories(), ScaPluginFixture.getPluginProperties(_arguments));
+
+            var threadCount = new AtomicInteger();
+            var executorService = Executors.newFixedThreadPool(threads, runnable -> {
+                var thread = new Thread(runnable, format("cxsca-replay-%d", threadCount.incrementAndGet()));
+                thread.setDaemon(true);
+                return thread;
+            });
+
+            var traceDuration = events.get(events.size() - 1).getTimeMillis() - events.get(0).getTimeMillis();
+            System.out.printf("Replaying %d events (%d repositories, %d paths, %.1f s of traffic) at speed %s with %d threads.%n",
+                    events.size(), countRepositories(), _repoPaths.size(), traceDuration / 1000.0, speed == 0 ? "max" : speed, threads);
+
+            var firstEventTime = events.get(0).getTimeMillis();
+            var startTime = System.nanoTime();
+            for (var event : events) {
+                var dueTime = speed > 0 ? startTime + (long) ((event.getTimeMillis() - firstEventTime) * 1_000_000 / speed) : System.nanoTime();
+                var waitNanos = dueTime - System.nanoTime();
+                if (waitNanos > 0) {
+                    LockSupport.parkNanos(waitNanos);
+                }
+
+                executorService.execute(() -> replay(plugin, event, dueTime));
+            }
+
+            executorService.shutdown();
+            executorService.awaitTermination(1, TimeUnit.DAYS);
+            var elapsedNanos = System.nanoTime() - startTime;
+
+            report(elapsedNanos, standIn.getRequestsCount());
+        }
+    }
+
+    private List<TrafficEvent> loadTrace(String trace) throws IOException {
+        var events = new ArrayList<TrafficEvent>();
+        var invalidLines = 0;
+
+        for (var line : Files.readAllLines(Paths.get(trace), StandardCharsets.UTF_8)) {
+            if (line.isBlank()) {
+                continue;
+            }
+
+            try {
+                var event = TrafficEvent.parse(line);
+                addArtifact(event);
+                events.add(event);
+            } catch (Exception ex) {
+                invalidLines++;
+            }
+        }
+
+        if (invalidLines > 0) {
+            System.out.printf("Ignored %d invalid lines.%n", invalidLines);
+        }
+        if (events.isEmpty()) {
+            throw new IOException(format("No events found in %s", trace));
+        }
+
+        // Hook threads enqueue concurrently, so the trace is only ordered approximately.
+        events.sort(Comparator.comparingLong(TrafficEvent::getTimeMillis));
+        return events;
+    }
+
+    private void addArtifact(TrafficEvent event) {
+        var key = format("%s/%s", event.getRepoKey(), event.getPath());
+        if (_repoPaths.containsKey(key)) {
+            return;
+        }
+
+        var packageType = event.getPackageType() == null ? "generic" : event.getPackageType();
+        if (_artifactory.getRepositories().getRepositoryConfiguration(event.getRepoKey()) == null) {
+            _artifactory.addLocalRepository(event.getRepoKey(), packageType);
+        }
+
+        // Maven layout: <organization path>/<module>/<version>/<file>
+        var segments = event.getPath().split("/");
+        if (("maven".equals(packageType) || "gradle".equals(packageType)) && segments.length >= 4) {
+            var organization = String.join(".", List.of(segments).subList(0, segments.length - 3));
+            var repoPath = _artifactory.addArtifact(event.getRepoKey(), event.getPath(), organization, segments[segments.length - 3], segments[segments.length - 2]);
+            _repoPaths.put(key, repoPath);
+            return;
+        }
+
+        _repoPaths.put(key, _artifactory.addArtifact(event.getRepoKey(), event.getPath()));
+    }
+
+    private void replay(ScaPlugin plugin, TrafficEvent event, long dueTime) {
+        var samples = _threadSamples.get();
+        var repoPath = _repoPaths.get(format("%s/%s", event.getRepoKey(), event.getPath()));
+        var upload = TrafficEvent.UploadHook.equals(event.getHook());
+
+        var startTime = System.nanoTime();
+        samples._lag.add(Math.max(startTime - dueTime, 0));
+        try {
+            if (upload) {
+                plugin.beforeUpload(repoPath);
+            } else {
+                plugin.beforeDownload(repoPath);
+            }
+        } catch (CancelException ex) {
+            _blockedCount.incrementAndGet();
+        } catch (Exception ex) {
+            _errorCount.incrementAndGet();
+        }
+
+        (upload ? samples._uploads : samples._downloads).add(System.nanoTime() - startTime);
+    }
+
+    private void report(long elapsedNanos, long scaRequests) {
+        var seconds = elapsedNanos / 1_000_000_000.0;
+        var samples = new ArrayList<>(_samples);
+        var downloadLatencies = LatencySamples.merge(samples.stream().map(sample -> sample._downloads).collect(Collectors.toList()));
+        var uploadLatencies = LatencySamples.merge(samples.stream().map(sample -> sample._uploads).collect(Collectors.toList()));
+        var lags = LatencySamples.merge(samples.stream().map(sample -> sample._lag).collect(Collectors.toList()));
+        var downloads = Math.max(downloadLatencies.length, 1);
+        var propertyOperations = _artifactory.getPropertyOperationsCount();
+
+        System.out.printf("%nReplay time: %.1f s%n", seconds);
+        System.out.printf("Downloads: %d (%.1f/s), blocked: %d, errors: %d%n", downloadLatencies.length, downloadLatencies.length / seconds, _blockedCount.get(), _errorCount.get());
+        System.out.printf("Download latency (ms): %s%n", LatencySamples.formatPercentiles(downloadLatencies));
+        System.out.printf("Uploads: %d (%.1f/s)%n", uploadLatencies.length, uploadLatencies.length / seconds);
+        System.out.printf("Upload latency (ms): %s%n", LatencySamples.formatPercentiles(uploadLatencies));
+        System.out.printf("Start delay behind the trace (ms): %s%n", LatencySamples.formatPercentiles(lags));
+        System.out.printf("Sca calls per download: %.3f (total %d)%n", scaRequests / (double) downloads, scaRequests);
+        System.out.printf("Property operations per download: %.2f (total %d)%n", propertyOperations / (double) downloads, propertyOperations);
+    }
+
+    private long countRepositories() {
+        return _repoPaths.values().stream().map(RepoPath::getRepoKey).distinct().count();
+    }
+
+    private static final class ReplaySamples {
+        private final LatencySamples _downloads = new LatencySamples();
+        private final LatencySamples _uploads = new LatencySamples();
+        private final LatencySamples _lag = new LatencySamples();
+    }
+}
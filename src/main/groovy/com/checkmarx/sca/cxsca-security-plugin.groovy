@@ -11,13 +11,13 @@ scanExistingArtifacts()
 private void scanExistingArtifacts() {
     log.info("Initializing Security Plugin...")
 
+    // On a reload the previous instance still holds its threads and files.
+    ScaPlugin.closeActiveInstance()
+
     File pluginsDirectory = ctx.artifactoryHome.pluginsDir
     scaPlugin = new ScaPlugin(log, pluginsDirectory, repositories)
 
-    searches.artifactsByName('*').each { artifact ->
-        scaPlugin.checkArtifactsAlreadyPresent(artifact)
-        scaPlugin.checkArtifactsForSuggestionOnPrivatePackages(artifact)
-    }
+    scaPlugin.scanExistingArtifacts(searches.artifactsByName('*'))
 
     log.info("Initialization of Sca Security Plugin completed")
 }
@@ -32,4 +32,23 @@ upload {
     beforeUploadRequest { Request request, RepoPath repoPath ->
         scaPlugin.beforeUpload(repoPath)
     }
-}
\ No newline at end of file
+}
+
+jobs {
+    cxscaMarkSuggestedPackages(interval: 60000, delay: 60000) {
+        scaPlugin.markSuggestedPackages()
+    }
+}
+
+executions {
+    cxscaMetrics(httpMethod: 'GET') { params ->
+        String format = params?.get('format')?.getAt(0)
+        message = scaPlugin.getMetrics(format)
+        status = 200
+    }
+
+    cxscaStatus(httpMethod: 'GET') { params ->
+        message = scaPlugin.getStatus()
+        status = 200
+    }
+}
@@ -42,6 +42,32 @@ public enum PackageManager implements IPackageManager {
         return packageType;
     }
 
+    // Metrics are labelled by the CxSCA package type, so gradle, sbt and ivy downloads are counted as maven ones.
+    public String metricsLabel() {
+        return GetByScaPackageType(packageType).key();
+    }
+
+    // The package manager of a CxSCA package type; several Artifactory package types share "maven".
+    public static PackageManager GetByScaPackageType(String scaPackageType) {
+        if (scaPackageType == null) {
+            return NOTSUPPORTED;
+        }
+
+        var packageType = scaPackageType.trim().toLowerCase();
+        var packageManager = GetPackageType(packageType);
+        if (packageType.equals(packageManager.packageType())) {
+            return packageManager;
+        }
+
+        for (var value : values()) {
+            if (packageType.equals(value.packageType())) {
+                return value;
+            }
+        }
+
+        return NOTSUPPORTED;
+    }
+
     public static PackageManager GetPackageType(String packageType) {
 
         if (packageType == null) {
@@ -1,12 +1,32 @@
 package com.checkmarx.sca;
 
+import com.checkmarx.sca.audit.AuditRecord;
+import com.checkmarx.sca.audit.DecisionAuditLog;
+import com.checkmarx.sca.cache.CanonicalArtifactCache;
 import com.checkmarx.sca.communication.AccessControlClient;
+import com.checkmarx.sca.configuration.ConfigurationEntry;
 import com.checkmarx.sca.configuration.ConfigurationReader;
 import com.checkmarx.sca.configuration.PluginConfiguration;
+import com.checkmarx.sca.execution.IScanTask;
+import com.checkmarx.sca.execution.ScanExecutor;
+import com.checkmarx.sca.logging.LogEvent;
+import com.checkmarx.sca.logging.LogThrottle;
+import com.checkmarx.sca.metrics.MetricsRegistry;
+import com.checkmarx.sca.metrics.PipelineStage;
+import com.checkmarx.sca.metrics.PluginStatus;
+import com.checkmarx.sca.metrics.PolicyDecisionEvent;
 import com.checkmarx.sca.scan.ArtifactRisksFiller;
+import com.checkmarx.sca.scan.ArtifactScan;
 import com.checkmarx.sca.scan.LicenseAllowanceChecker;
+import com.checkmarx.sca.scan.PackagistMirror;
 import com.checkmarx.sca.scan.SecurityThresholdChecker;
 import com.checkmarx.sca.suggestion.PrivatePackageSuggestionHandler;
+import com.checkmarx.sca.suggestion.SuggestionOutbox;
+import com.checkmarx.sca.suggestion.SuggestionQueue;
+import com.checkmarx.sca.traffic.TrafficAnonymizer;
+import com.checkmarx.sca.traffic.TrafficEvent;
+import com.checkmarx.sca.traffic.TrafficRecorder;
+import com.google.gson.GsonBuilder;
 import com.google.inject.Guice;
 import com.google.inject.Injector;
 import org.artifactory.exception.CancelException;
@@ -14,16 +34,40 @@ import org.artifactory.repo.*;
 import org.slf4j.Logger;
 
 import javax.annotation.Nonnull;
+import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
-import static java.lang.String.format;
+// Artifactory reloads the plugin script without restarting, so the script closes the active instance before it
+// creates a new one; this releases the background threads and the files they write.
+public class ScaPlugin implements Closeable {
+    private static final String CanonicalArtifactsFileName = "cxsca-canonical-artifacts.jsonl";
+    private static final String SuggestionOutboxFileName = "cxsca-suggestion-outbox.jsonl";
+    private static final String AuditFileName = "cxsca-audit.jsonl";
+    private static final String TrafficFileName = "cxsca-traffic.tsv";
+    private static final AtomicReference<ScaPlugin> ActiveInstance = new AtomicReference<>();
+    private static final AtomicBoolean ShutdownHookRegistered = new AtomicBoolean();
 
-public class ScaPlugin {
     private final Injector _injector;
     private final Logger _logger;
     private final Repositories _repositories;
+    private final ScanExecutor _scanExecutor;
+    private final MetricsRegistry _metrics;
+    private final LogThrottle _logThrottle;
+    private final DecisionAuditLog _auditLog;
+    private final TrafficRecorder _trafficRecorder;
+    private final PluginStatus _status;
+    private final AccessControlClient _accessControlClient;
+    private final CanonicalArtifactCache _canonicalArtifactCache;
+    private final AtomicBoolean _closed = new AtomicBoolean();
 
     public ScaPlugin(@Nonnull Logger logger,
                      @Nonnull File pluginsDirectory,
@@ -33,20 +77,152 @@ public class ScaPlugin {
             var configuration = ConfigurationReader.loadConfiguration(pluginsDirectory, logger);
             configuration.validate();
 
-            var accessControlClient = tryToAuthenticate(configuration, logger);
+            _accessControlClient = tryToAuthenticate(configuration, logger);
 
             _repositories = repositories;
-            var risksFiller = new ArtifactRisksFiller(repositories);
+            _scanExecutor = new ScanExecutor(configuration, logger);
+            _canonicalArtifactCache = createCanonicalArtifactCache(configuration, pluginsDirectory, logger);
+            var risksFiller = new ArtifactRisksFiller(repositories, _canonicalArtifactCache);
             var securityThresholdChecker = new SecurityThresholdChecker(repositories);
             var licenseAllowanceChecker = new LicenseAllowanceChecker(repositories);
             var privatePackageSuggestionHandler = new PrivatePackageSuggestionHandler(repositories, configuration.hasAuthConfiguration());
-            var appInjector = new AppInjector(_logger, accessControlClient, risksFiller, configuration, securityThresholdChecker, licenseAllowanceChecker, privatePackageSuggestionHandler);
+            var appInjector = new AppInjector(_logger, _accessControlClient, risksFiller, configuration, securityThresholdChecker, licenseAllowanceChecker, privatePackageSuggestionHandler);
 
             _injector = Guice.createInjector(appInjector);
+            _injector.getInstance(PackagistMirror.class);
+            _metrics = _injector.getInstance(MetricsRegistry.class);
+            _logThrottle = _injector.getInstance(LogThrottle.class);
+            _auditLog = createAuditLog(configuration, pluginsDirectory, logger);
+            _trafficRecorder = createTrafficRecorder(configuration, pluginsDirectory, logger);
+            _status = _injector.getInstance(PluginStatus.class);
+            useSuggestionOutbox(configuration, pluginsDirectory, logger);
         } catch (Exception ex) {
             _logger.error("Sca plugin could not be initialized!");
             throw ex;
         }
+
+        activate();
+    }
+
+    public static void closeActiveInstance() {
+        closeActiveInstance(true);
+    }
+
+    private static void closeActiveInstance(boolean markSuggestedPaths) {
+        var activeInstance = ActiveInstance.getAndSet(null);
+        if (activeInstance != null) {
+            activeInstance.close(markSuggestedPaths);
+        }
+    }
+
+    @Override
+    public void close() {
+        close(true);
+    }
+
+    // Pending suggestions are sent first, while the access token is still refreshed. The shutdown hook does not mark
+    // the accepted paths, its thread has no Artifactory request context; they are suggested again after the restart.
+    private void close(boolean markSuggestedPaths) {
+        if (!_closed.compareAndSet(false, true)) {
+            return;
+        }
+
+        ActiveInstance.compareAndSet(this, null);
+        _logger.info("Closing the Sca Security Plugin...");
+
+        _injector.getInstance(SuggestionQueue.class).close();
+        if (markSuggestedPaths) {
+            _injector.getInstance(PrivatePackageSuggestionHandler.class).markSuggestedPaths();
+        }
+        if (_accessControlClient != null) {
+            _accessControlClient.close();
+        }
+        if (_trafficRecorder != null) {
+            _trafficRecorder.close();
+        }
+        if (_auditLog != null) {
+            _auditLog.close();
+        }
+        if (_canonicalArtifactCache != null) {
+            _canonicalArtifactCache.close();
+        }
+    }
+
+    private void activate() {
+        var previousInstance = ActiveInstance.getAndSet(this);
+        if (previousInstance != null) {
+            previousInstance.close();
+        }
+
+        if (ShutdownHookRegistered.compareAndSet(false, true)) {
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> closeActiveInstance(false), "cxsca-shutdown"));
+        }
+    }
+
+    private CanonicalArtifactCache createCanonicalArtifactCache(@Nonnull PluginConfiguration configuration, @Nonnull File pluginsDirectory, @Nonnull Logger logger) {
+        var enabled = configuration.getPropertyOrDefault(ConfigurationEntry.ARTIFACT_CACHE_ENABLED);
+        if (!Boolean.parseBoolean(enabled.trim())) {
+            return null;
+        }
+
+        var maxSize = getNumber(configuration, ConfigurationEntry.ARTIFACT_CACHE_MAX_SIZE);
+
+        return new CanonicalArtifactCache(new File(pluginsDirectory, CanonicalArtifactsFileName).toPath(), logger, maxSize);
+    }
+
+    private DecisionAuditLog createAuditLog(@Nonnull PluginConfiguration configuration, @Nonnull File pluginsDirectory, @Nonnull Logger logger) {
+        var enabled = configuration.getPropertyOrDefault(ConfigurationEntry.AUDIT_ENABLED);
+        if (!Boolean.parseBoolean(enabled.trim())) {
+            return null;
+        }
+
+        var queueCapacity = getNumber(configuration, ConfigurationEntry.AUDIT_QUEUE_CAPACITY);
+        var maxFileBytes = getNumber(configuration, ConfigurationEntry.AUDIT_MAX_FILE_SIZE) * 1024L * 1024L;
+        var maxFiles = getNumber(configuration, ConfigurationEntry.AUDIT_MAX_FILES);
+
+        return new DecisionAuditLog(new File(pluginsDirectory, AuditFileName).toPath(), logger, queueCapacity, maxFileBytes, maxFiles);
+    }
+
+    private TrafficRecorder createTrafficRecorder(@Nonnull PluginConfiguration configuration, @Nonnull File pluginsDirectory, @Nonnull Logger logger) {
+        var enabled = configuration.getPropertyOrDefault(ConfigurationEntry.TRAFFIC_RECORDING_ENABLED);
+        if (!Boolean.parseBoolean(enabled.trim())) {
+            return null;
+        }
+
+        TrafficAnonymizer anonymizer = null;
+        var anonymize = configuration.getPropertyOrDefault(ConfigurationEntry.TRAFFIC_RECORDING_ANONYMIZE);
+        if (Boolean.parseBoolean(anonymize.trim())) {
+            // Without a configured salt the replacements are only consistent until the next restart.
+            var salt = configuration.getPropertyOrDefault(ConfigurationEntry.TRAFFIC_RECORDING_SALT);
+            anonymizer = new TrafficAnonymizer(salt == null || salt.isBlank() ? UUID.randomUUID().toString() : salt);
+        }
+
+        var queueCapacity = getNumber(configuration, ConfigurationEntry.TRAFFIC_RECORDING_QUEUE_CAPACITY);
+        var maxFileBytes = getNumber(configuration, ConfigurationEntry.TRAFFIC_RECORDING_MAX_FILE_SIZE) * 1024L * 1024L;
+        var file = new File(pluginsDirectory, TrafficFileName).toPath();
+
+        logger.info("Traffic recording enabled. Trace: {}", file);
+        return new TrafficRecorder(file, logger, queueCapacity, maxFileBytes, anonymizer);
+    }
+
+    private static int getNumber(PluginConfiguration configuration, ConfigurationEntry entry) {
+        try {
+            return Integer.parseInt(configuration.getPropertyOrDefault(entry).trim());
+        } catch (Exception ex) {
+            return Integer.parseInt(entry.defaultValue());
+        }
+    }
+
+    private void useSuggestionOutbox(@Nonnull PluginConfiguration configuration, @Nonnull File pluginsDirectory, @Nonnull Logger logger) {
+        var enabled = configuration.getPropertyOrDefault(ConfigurationEntry.SUGGESTION_OUTBOX_ENABLED);
+        if (!configuration.hasAuthConfiguration() || !Boolean.parseBoolean(enabled.trim())) {
+            return;
+        }
+
+        var maxSize = getNumber(configuration, ConfigurationEntry.SUGGESTION_OUTBOX_MAX_SIZE);
+        var outbox = new SuggestionOutbox(new File(pluginsDirectory, SuggestionOutboxFileName).toPath(), logger, maxSize);
+        _injector.getInstance(SuggestionQueue.class).useOutbox(outbox);
+        _injector.getInstance(PrivatePackageSuggestionHandler.class).trackQueuedSuggestions(outbox);
     }
 
     private AccessControlClient tryToAuthenticate(@Nonnull PluginConfiguration configuration, @Nonnull Logger logger) {
@@ -65,46 +241,186 @@ public class ScaPlugin {
         return accessControlClient;
     }
 
-    public void checkArtifactsAlreadyPresent(RepoPath repoPath) {
-        var nonVirtualRepoPaths = getNonVirtualRepoPaths(repoPath);
+    public void scanExistingArtifacts(@Nonnull Iterable<RepoPath> artifacts) {
+        var suggestionHandler = _injector.getInstance(PrivatePackageSuggestionHandler.class);
 
-        addPackageRisks(repoPath, nonVirtualRepoPaths);
-    }
+        _status.backfillStarted(artifacts instanceof Collection ? ((Collection<?>) artifacts).size() : -1);
+        try {
+            _scanExecutor.executeAll(artifacts, artifact -> new ExistingArtifactScan(artifact, suggestionHandler));
+        } finally {
+            _status.backfillFinished();
+        }
 
+        suggestionHandler.markSuggestedPaths();
+    }
 
-    public void checkArtifactsForSuggestionOnPrivatePackages(RepoPath repoPath) {
-        var nonVirtualRepoPaths = getNonVirtualRepoPaths(repoPath);
+    public void checkArtifactsAlreadyPresent(RepoPath repoPath) {
+        var repoConfiguration = _repositories.getRepositoryConfiguration(repoPath.getRepoKey());
+        var nonVirtualRepoPaths = getNonVirtualRepoPaths(repoPath, repoConfiguration);
 
-        var suggestion = _injector.getInstance(PrivatePackageSuggestionHandler.class);
+        addPackageRisks(repoPath, nonVirtualRepoPaths, repoConfiguration);
+    }
 
-        for (var artifact : nonVirtualRepoPaths) {
-            suggestion.suggestPrivatePackage(artifact, nonVirtualRepoPaths);
+    public void beforeDownload(RepoPath repoPath) {
+        if (_closed.get()) {
+            var activeInstance = getActiveInstanceOnceClosed("download", repoPath);
+            if (activeInstance != null) {
+                activeInstance.beforeDownload(repoPath);
+            }
+            return;
         }
+
+        // The repository configuration is read once per hook and shared by every step of the verification.
+        var repoConfiguration = _repositories.getRepositoryConfiguration(repoPath.getRepoKey());
+        recordTraffic(TrafficEvent.DownloadHook, repoPath, repoConfiguration);
+        _scanExecutor.execute(() -> verifyDownload(repoPath, repoConfiguration));
     }
 
-    public void beforeDownload(RepoPath repoPath) {
-        var nonVirtualRepoPaths = getNonVirtualRepoPaths(repoPath);
+    private void verifyDownload(RepoPath repoPath, RepositoryConfiguration repoConfiguration) {
+        var packageManager = getPackageManagerLabel(repoConfiguration);
+        var decisionEvent = new PolicyDecisionEvent();
+        decisionEvent.begin();
+        var decision = "not_verified";
+        var downloadStartTime = System.nanoTime();
+        try {
+            var startTime = System.nanoTime();
+            var nonVirtualRepoPaths = getNonVirtualRepoPaths(repoPath, repoConfiguration);
+            _metrics.recordStage(PipelineStage.VIRTUAL_RESOLUTION, packageManager, System.nanoTime() - startTime);
+
+            var riskAddedSuccessfully = addPackageRisks(repoPath, nonVirtualRepoPaths, repoConfiguration);
 
-        var riskAddedSuccessfully = addPackageRisks(repoPath, nonVirtualRepoPaths);
+            if (riskAddedSuccessfully) {
+                startTime = System.nanoTime();
+                try {
+                    checkRiskThreshold(repoPath, nonVirtualRepoPaths, packageManager);
+                } catch (CancelException ex) {
+                    decision = "blocked_security_threshold";
+                    throw ex;
+                } finally {
+                    _metrics.recordStage(PipelineStage.SECURITY_THRESHOLD, packageManager, System.nanoTime() - startTime);
+                }
 
-        if (riskAddedSuccessfully) {
-            checkRiskThreshold(repoPath, nonVirtualRepoPaths);
-            checkLicenseAllowance(repoPath, nonVirtualRepoPaths);
+                startTime = System.nanoTime();
+                try {
+                    checkLicenseAllowance(repoPath, nonVirtualRepoPaths, packageManager);
+                } catch (CancelException ex) {
+                    decision = "blocked_license_allowance";
+                    throw ex;
+                } finally {
+                    _metrics.recordStage(PipelineStage.LICENSE_ALLOWANCE, packageManager, System.nanoTime() - startTime);
+                }
+
+                decision = "allowed";
+            }
+        } finally {
+            _metrics.recordStage(PipelineStage.BEFORE_DOWNLOAD, packageManager, System.nanoTime() - downloadStartTime);
+
+            decisionEvent.end();
+            if (decisionEvent.shouldCommit()) {
+                decisionEvent.repoKey = repoPath.getRepoKey();
+                decisionEvent.packageType = packageManager;
+                decisionEvent.path = repoPath.getPath();
+                decisionEvent.decision = decision;
+                decisionEvent.commit();
+            }
+
+            if (_auditLog != null) {
+                _auditLog.record(new AuditRecord(Instant.now(), repoPath.getRepoKey(), repoPath.getPath(), packageManager, decision));
+            }
         }
     }
 
     public void beforeUpload(RepoPath repoPath) {
-        var nonVirtualRepoPaths = getNonVirtualRepoPaths(repoPath);
+        if (_closed.get()) {
+            var activeInstance = getActiveInstanceOnceClosed("upload", repoPath);
+            if (activeInstance != null) {
+                activeInstance.beforeUpload(repoPath);
+            }
+            return;
+        }
+
+        var repoConfiguration = _repositories.getRepositoryConfiguration(repoPath.getRepoKey());
+        recordTraffic(TrafficEvent.UploadHook, repoPath, repoConfiguration);
+
+        var nonVirtualRepoPaths = getNonVirtualRepoPaths(repoPath, repoConfiguration);
 
         var suggestionHandler = _injector.getInstance(PrivatePackageSuggestionHandler.class);
 
         suggestionHandler.suggestPrivatePackage(repoPath, nonVirtualRepoPaths);
     }
 
-    private ArrayList<RepoPath> getNonVirtualRepoPaths(RepoPath repoPath) {
-        var repositoryKey = repoPath.getRepoKey();
-        var repoConfiguration = _repositories.getRepositoryConfiguration(repositoryKey);
+    // Writes the suggested property of the accepted private packages, from a thread with an Artifactory context.
+    public void markSuggestedPackages() {
+        _injector.getInstance(PrivatePackageSuggestionHandler.class).markSuggestedPaths();
+    }
+
+    public void flushSuggestions() {
+        _injector.getInstance(SuggestionQueue.class).flush();
+        _injector.getInstance(PrivatePackageSuggestionHandler.class).markSuggestedPaths();
+    }
+
+    public String getMetrics(String format) {
+        if ("prometheus".equalsIgnoreCase(format)) {
+            return _metrics.toPrometheus();
+        }
+
+        return _metrics.toJson();
+    }
+
+    public String getStatus() {
+        var suggestionQueue = _injector.getInstance(SuggestionQueue.class);
+
+        var authentication = new LinkedHashMap<String, Object>();
+        authentication.put("configured", _accessControlClient != null);
+        if (_accessControlClient != null) {
+            authentication.put("tokenExpiresInSeconds", _accessControlClient.getTokenExpiresInSeconds());
+            authentication.put("refreshFailures", _accessControlClient.getRefreshFailureCount());
+        }
+
+        var caches = new LinkedHashMap<String, Object>();
+        caches.put("canonicalArtifacts", _canonicalArtifactCache == null ? 0 : _canonicalArtifactCache.size());
+        caches.put("pendingSuggestions", suggestionQueue.getPendingCount());
+        caches.put("suggestionOutbox", suggestionQueue.getOutboxSize());
+
+        var status = _status.toMap();
+        status.put("authentication", authentication);
+        status.put("caches", caches);
+        status.put("auditDroppedRecords", _auditLog == null ? 0 : _auditLog.getDroppedCount());
+        status.put("trafficRecording", _trafficRecorder != null && _trafficRecorder.isRecording());
+
+        return new GsonBuilder().setPrettyPrinting().create().toJson(status);
+    }
+
+    // A hook still bound to a closed instance is handed to the one that replaced it, if the plugin was reloaded.
+    private ScaPlugin getActiveInstanceOnceClosed(String hook, RepoPath repoPath) {
+        var activeInstance = ActiveInstance.get();
+        if (activeInstance == null || activeInstance == this) {
+            _logger.warn("The Sca Security Plugin is closed, the {} was not verified. Artifact name: {}", hook, repoPath.getName());
+            return null;
+        }
+
+        return activeInstance;
+    }
+
+    // The trace keeps the Artifactory package type, so a replay creates the same kind of repository.
+    private void recordTraffic(String hook, RepoPath repoPath, RepositoryConfiguration repoConfiguration) {
+        if (_trafficRecorder == null || !_trafficRecorder.isRecording()) {
+            return;
+        }
+
+        var packageType = repoConfiguration == null ? null : PackageManager.GetPackageType(repoConfiguration.getPackageType()).key();
+        _trafficRecorder.record(hook, repoPath.getRepoKey(), packageType, repoPath.getPath());
+    }
 
+    private static String getPackageManagerLabel(RepositoryConfiguration repoConfiguration) {
+        if (repoConfiguration == null) {
+            return null;
+        }
+
+        return PackageManager.GetPackageType(repoConfiguration.getPackageType()).metricsLabel();
+    }
+
+    private ArrayList<RepoPath> getNonVirtualRepoPaths(RepoPath repoPath, RepositoryConfiguration repoConfiguration) {
         var nonVirtualRepoPaths = new ArrayList<RepoPath>();
         if (repoConfiguration instanceof VirtualRepositoryConfiguration) {
             setNonVirtualRepoPathsRepoPathsOfVirtualRepository(nonVirtualRepoPaths, repoConfiguration, repoPath.getPath());
@@ -125,7 +441,7 @@ public class ScaPlugin {
         }
     }
 
-    private boolean addPackageRisks(@Nonnull RepoPath repoPath, @Nonnull ArrayList<RepoPath> nonVirtualRepoPaths){
+    private boolean addPackageRisks(@Nonnull RepoPath repoPath, @Nonnull ArrayList<RepoPath> nonVirtualRepoPaths, RepositoryConfiguration repoConfiguration){
         try {
             var path = repoPath.getPath();
             if (path == null) {
@@ -135,34 +451,86 @@ public class ScaPlugin {
 
             var artifactChecker = _injector.getInstance(ArtifactRisksFiller.class);
 
-            return artifactChecker.addArtifactRisks(repoPath, nonVirtualRepoPaths);
+            return artifactChecker.addArtifactRisks(repoPath, nonVirtualRepoPaths, repoConfiguration);
         } catch (Exception ex) {
-            _logger.error(format("SCA was unable to complete verification of: %s.\nException message: %s", repoPath.getName(), ex.getMessage()));
+            _logger.error("SCA was unable to complete verification of: {}.\nException message: {}", repoPath.getName(), ex.getMessage());
             return false;
         }
     }
 
-    private void checkRiskThreshold(@Nonnull RepoPath repoPath, @Nonnull ArrayList<RepoPath> nonVirtualRepoPaths){
+    private void checkRiskThreshold(@Nonnull RepoPath repoPath, @Nonnull ArrayList<RepoPath> nonVirtualRepoPaths, String packageManager){
         try {
             var thresholdChecker = _injector.getInstance(SecurityThresholdChecker.class);
             thresholdChecker.checkSecurityRiskThreshold(repoPath, nonVirtualRepoPaths);
         } catch (CancelException ex) {
-            _logger.info(format("The download was blocked by security threshold configuration. Artifact Name: %s", repoPath.getName()));
+            _metrics.countBlock("security_threshold", packageManager);
+            if (_logThrottle.shouldLog(LogEvent.DOWNLOAD_BLOCKED)) {
+                _logger.info("The download was blocked by security threshold configuration. Artifact Name: {}", repoPath.getName());
+            }
             throw ex;
         } catch (Exception ex) {
-            _logger.error(format("SCA was unable to complete the security risk threshold verification for the Artifact: %s.\nException: %s", repoPath.getName(), ex));
+            _logger.error("SCA was unable to complete the security risk threshold verification for the Artifact: {}.\nException: {}", repoPath.getName(), ex.toString());
         }
     }
 
-    private void checkLicenseAllowance(@Nonnull RepoPath repoPath, @Nonnull ArrayList<RepoPath> nonVirtualRepoPaths){
+    private void checkLicenseAllowance(@Nonnull RepoPath repoPath, @Nonnull ArrayList<RepoPath> nonVirtualRepoPaths, String packageManager){
         try {
             var licenseAllowanceChecker = _injector.getInstance(LicenseAllowanceChecker.class);
             licenseAllowanceChecker.checkLicenseAllowance(repoPath, nonVirtualRepoPaths);
         } catch (CancelException ex) {
-            _logger.info(format("The download was blocked by license allowance configuration. Artifact Name: %s", repoPath.getName()));
+            _metrics.countBlock("license_allowance", packageManager);
+            if (_logThrottle.shouldLog(LogEvent.DOWNLOAD_BLOCKED)) {
+                _logger.info("The download was blocked by license allowance configuration. Artifact Name: {}", repoPath.getName());
+            }
             throw ex;
         } catch (Exception ex) {
-            _logger.error(format("SCA was unable to complete the license allowance verification for the Artifact: %s.\nException: %s", repoPath.getName(), ex));
+            _logger.error("SCA was unable to complete the license allowance verification for the Artifact: {}.\nException: {}", repoPath.getName(), ex.toString());
+        }
+    }
+
+    // Only fetch runs on the scan threads, the Repositories calls stay on the thread that runs the startup scan.
+    private final class ExistingArtifactScan implements IScanTask {
+        private final RepoPath _artifact;
+        private final PrivatePackageSuggestionHandler _suggestionHandler;
+        private final ArtifactRisksFiller _artifactChecker;
+        private ArtifactScan _scan;
+
+        private ExistingArtifactScan(RepoPath artifact, PrivatePackageSuggestionHandler suggestionHandler) {
+            _artifact = artifact;
+            _suggestionHandler = suggestionHandler;
+            _artifactChecker = _injector.getInstance(ArtifactRisksFiller.class);
+        }
+
+        @Override
+        public boolean prepare() {
+            if (_artifact.getPath() == null) {
+                _logger.error("SCA was unable to complete verification. The path was not provided.");
+                return false;
+            }
+
+            var repoConfiguration = _repositories.getRepositoryConfiguration(_artifact.getRepoKey());
+            _scan = _artifactChecker.prepareArtifactScan(_artifact, getNonVirtualRepoPaths(_artifact, repoConfiguration), repoConfiguration);
+            return _scan.isPending();
+        }
+
+        @Override
+        public void fetch() {
+            _artifactChecker.fetchArtifactRisks(_scan);
+        }
+
+        @Override
+        public void complete() {
+            try {
+                if (_scan != null) {
+                    _artifactChecker.completeArtifactScan(_scan);
+                }
+
+                if (_suggestionHandler.isSuggestionCandidate(_artifact)) {
+                    _suggestionHandler.suggestPrivatePackage(_artifact, new ArrayList<>(List.of(_artifact)));
+                }
+            } finally {
+                _status.backfillProcessed();
+            }
         }
     }
 }
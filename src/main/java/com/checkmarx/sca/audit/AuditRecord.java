@@ -0,0 +1,47 @@
+package com.checkmarx.sca.audit;
+
+import com.google.gson.annotations.SerializedName;
+
+import javax.annotation.Nonnull;
+import java.time.Instant;
+
+public class AuditRecord {
+    @SerializedName("time")
+    private final String _time;
+
+    @SerializedName("repoKey")
+    private final String _repoKey;
+
+    @SerializedName("path")
+    private final String _path;
+
+    @SerializedName("packageType")
+    private final String _packageType;
+
+    @SerializedName("decision")
+    private final String _decision;
+
+    public AuditRecord(@Nonnull Instant time, String repoKey, String path, String packageType, @Nonnull String decision) {
+        _time = time.toString();
+        _repoKey = repoKey;
+        _path = path;
+        _packageType = packageType;
+        _decision = decision;
+    }
+
+    public String getRepoKey() {
+        return _repoKey;
+    }
+
+    public String getPath() {
+        return _path;
+    }
+
+    public String getPackageType() {
+        return _packageType;
+    }
+
+    public String getDecision() {
+        return _decision;
+    }
+}
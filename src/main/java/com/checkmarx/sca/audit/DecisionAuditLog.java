@@ -0,0 +1,178 @@
+package com.checkmarx.sca.audit;
+
+import com.google.gson.Gson;
+import org.slf4j.Logger;
+
+import javax.annotation.Nonnull;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.lang.String.format;
+
+// Allow/block decisions appended to a rolling JSON lines file by a background writer.
+// Records are dropped and counted when the queue is full, so the download thread never waits on disk.
+public class DecisionAuditLog implements Closeable {
+    private static final int MaxBatchSize = 512;
+
+    private final Path _file;
+    private final Logger _logger;
+    private final long _maxFileBytes;
+    private final int _maxFiles;
+    private final Gson _gson = new Gson();
+    private final BlockingQueue<AuditRecord> _queue;
+    private final LongAdder _droppedRecords = new LongAdder();
+    private final Thread _writerThread;
+
+    private volatile boolean _closed;
+    private BufferedWriter _writer;
+    private long _fileBytes;
+    private long _reportedDrops;
+
+    public DecisionAuditLog(@Nonnull Path file, @Nonnull Logger logger, int queueCapacity, long maxFileBytes, int maxFiles) {
+        _file = file;
+        _logger = logger;
+        _maxFileBytes = maxFileBytes;
+        _maxFiles = Math.max(maxFiles, 1);
+        _queue = new ArrayBlockingQueue<>(Math.max(queueCapacity, 1));
+
+        _writerThread = new Thread(this::writeRecords, "cxsca-audit-writer");
+        _writerThread.setDaemon(true);
+        _writerThread.start();
+    }
+
+    public boolean record(@Nonnull AuditRecord record) {
+        if (_closed || !_queue.offer(record)) {
+            _droppedRecords.increment();
+            return false;
+        }
+
+        return true;
+    }
+
+    public long getDroppedCount() {
+        return _droppedRecords.sum();
+    }
+
+    // Stops accepting records and waits for the queued ones to be written.
+    @Override
+    public void close() {
+        _closed = true;
+
+        try {
+            _writerThread.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void writeRecords() {
+        var batch = new ArrayList<AuditRecord>(MaxBatchSize);
+
+        while (!_closed || !_queue.isEmpty()) {
+            try {
+                var record = _queue.poll(1, TimeUnit.SECONDS);
+                if (record == null) {
+                    continue;
+                }
+
+                batch.add(record);
+            } catch (InterruptedException ex) {
+                break;
+            }
+
+            _queue.drainTo(batch, MaxBatchSize - 1);
+            writeBatch(batch);
+            batch.clear();
+
+            reportDrops();
+        }
+
+        closeWriter();
+    }
+
+    // One flush per batch, so concurrent decisions share a single write.
+    private void writeBatch(List<AuditRecord> batch) {
+        try {
+            if (_writer == null) {
+                openWriter();
+            }
+
+            for (var record : batch) {
+                var line = _gson.toJson(record);
+                _writer.write(line);
+                _writer.newLine();
+                _fileBytes += line.getBytes(StandardCharsets.UTF_8).length + System.lineSeparator().length();
+            }
+            _writer.flush();
+
+            if (_fileBytes >= _maxFileBytes) {
+                roll();
+            }
+        } catch (IOException ex) {
+            _droppedRecords.add(batch.size());
+            _logger.warn("Failed to write the decision audit log: {}. Exception Message: {}.", _file, ex.getMessage());
+            closeWriter();
+        }
+    }
+
+    private void openWriter() throws IOException {
+        _writer = Files.newBufferedWriter(_file, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        _fileBytes = Files.size(_file);
+    }
+
+    private void closeWriter() {
+        if (_writer == null) {
+            return;
+        }
+
+        try {
+            _writer.close();
+        } catch (IOException ex) {
+            _logger.debug("Failed to close the decision audit log.", ex);
+        }
+        _writer = null;
+    }
+
+    // cxsca-audit.jsonl becomes cxsca-audit.jsonl.1, the oldest file is deleted.
+    private void roll() throws IOException {
+        closeWriter();
+
+        Files.deleteIfExists(getRolledFile(_maxFiles - 1));
+        for (var index = _maxFiles - 2; index >= 1; index--) {
+            var rolledFile = getRolledFile(index);
+            if (Files.exists(rolledFile)) {
+                Files.move(rolledFile, getRolledFile(index + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+
+        if (_maxFiles > 1) {
+            Files.move(_file, getRolledFile(1), StandardCopyOption.REPLACE_EXISTING);
+        } else {
+            Files.deleteIfExists(_file);
+        }
+    }
+
+    private Path getRolledFile(int index) {
+        return _file.resolveSibling(format("%s.%d", _file.getFileName(), index));
+    }
+
+    private void reportDrops() {
+        var dropped = _droppedRecords.sum();
+        if (dropped > _reportedDrops) {
+            _logger.warn("{} decision audit records were dropped.", dropped - _reportedDrops);
+            _reportedDrops = dropped;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.checkmarx.sca.cache;
+
+import com.checkmarx.sca.configuration.ConfigurationEntry;
+import com.checkmarx.sca.configuration.PluginConfiguration;
+import com.checkmarx.sca.models.ArtifactId;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+
+import javax.annotation.Nonnull;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Hands out one shared instance per artifact id, so the ids kept by the caches and queues for a popular package
+// are the same object and map lookups mostly end at the reference check of equals.
+// Equal ids can be spelled differently and the spelling is what is sent to CxSCA, so the pooled instance is only
+// returned for the exact same spelling; other spellings are returned as given.
+// The pool is cleared when it reaches its maximum size; a size of 0 disables it.
+@Singleton
+public class ArtifactIdPool {
+    private final int _maxSize;
+    private final ConcurrentHashMap<ArtifactId, ArtifactId> _artifactIds = new ConcurrentHashMap<>();
+
+    @Inject
+    public ArtifactIdPool(@Nonnull PluginConfiguration configuration) {
+        this(getNumber(configuration));
+    }
+
+    public ArtifactIdPool(int maxSize) {
+        _maxSize = Math.max(maxSize, 0);
+    }
+
+    public ArtifactId intern(@Nonnull ArtifactId artifactId) {
+        if (_maxSize == 0 || artifactId.isInvalid()) {
+            return artifactId;
+        }
+
+        var pooled = _artifactIds.get(artifactId);
+        if (pooled == null) {
+            if (_artifactIds.size() >= _maxSize) {
+                _artifactIds.clear();
+            }
+
+            pooled = _artifactIds.putIfAbsent(artifactId, artifactId);
+            if (pooled == null) {
+                return artifactId;
+            }
+        }
+
+        return isSameSpelling(pooled, artifactId) ? pooled : artifactId;
+    }
+
+    public int size() {
+        return _artifactIds.size();
+    }
+
+    private static boolean isSameSpelling(ArtifactId artifactId, ArtifactId otherArtifactId) {
+        return artifactId.Name.equals(otherArtifactId.Name)
+                && artifactId.Version.equals(otherArtifactId.Version)
+                && artifactId.PackageType.equals(otherArtifactId.PackageType);
+    }
+
+    private static int getNumber(PluginConfiguration configuration) {
+        try {
+            return Integer.parseInt(configuration.getPropertyOrDefault(ConfigurationEntry.ARTIFACT_ID_POOL_MAX_SIZE).trim());
+        } catch (Exception ex) {
+            return Integer.parseInt(ConfigurationEntry.ARTIFACT_ID_POOL_MAX_SIZE.defaultValue());
+        }
+    }
+}
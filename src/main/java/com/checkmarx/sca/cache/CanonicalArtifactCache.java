@@ -0,0 +1,254 @@
+package com.checkmarx.sca.cache;
+
+import com.checkmarx.sca.configuration.ConfigurationEntry;
+import com.checkmarx.sca.models.ArtifactId;
+import com.checkmarx.sca.models.ArtifactInfo;
+import com.google.gson.Gson;
+import com.google.gson.annotations.SerializedName;
+import org.slf4j.Logger;
+
+import javax.annotation.Nonnull;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+
+// Maps the artifact id built from a repository path to the artifact as CxSCA identifies it.
+// The mapping never changes, so entries are appended to a JSON lines file and never expire. Entries are keyed by
+// the artifact id itself, so ids that only differ in the spelling CxSCA normalizes share one entry.
+// At most maxSize entries are kept, the least recently used one is evicted first. Once the file holds twice as
+// many lines it is rewritten with the entries still in memory, so startup reads a bounded file.
+// New entries are appended and the file is compacted by a background writer, so the download thread never waits on
+// disk; an entry that does not fit in the queue is only kept in memory.
+public class CanonicalArtifactCache implements Closeable {
+    private static final int MaxQueuedLines = 10_000;
+    private static final int MaxBatchSize = 512;
+
+    private final Logger _logger;
+    private final Path _file;
+    private final int _maxSize;
+    private final Gson _gson = new Gson();
+    private final LinkedHashMap<ArtifactId, ArtifactInfo> _artifacts;
+    private final BlockingQueue<String> _queue = new LinkedBlockingQueue<>(MaxQueuedLines);
+    private final Thread _writerThread;
+
+    private volatile boolean _closed;
+    private BufferedWriter _writer;
+    private long _fileLines;
+
+    public CanonicalArtifactCache(@Nonnull Path file, @Nonnull Logger logger) {
+        this(file, logger, Integer.parseInt(ConfigurationEntry.ARTIFACT_CACHE_MAX_SIZE.defaultValue()));
+    }
+
+    public CanonicalArtifactCache(@Nonnull Path file, @Nonnull Logger logger, int maxSize) {
+        _file = file;
+        _logger = logger;
+        _maxSize = Math.max(maxSize, 1);
+        _artifacts = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<ArtifactId, ArtifactInfo> eldest) {
+                return size() > _maxSize;
+            }
+        };
+
+        load();
+        compactIfNeeded();
+
+        _writerThread = new Thread(this::writeLines, "cxsca-artifact-cache-writer");
+        _writerThread.setDaemon(true);
+        _writerThread.start();
+    }
+
+    public ArtifactInfo get(@Nonnull ArtifactId artifactId) {
+        synchronized (_artifacts) {
+            return _artifacts.get(artifactId);
+        }
+    }
+
+    public void put(@Nonnull ArtifactId artifactId, @Nonnull ArtifactInfo artifactInfo) {
+        synchronized (_artifacts) {
+            if (_artifacts.putIfAbsent(artifactId, artifactInfo) != null) {
+                return;
+            }
+        }
+
+        var line = _gson.toJson(new Entry(artifactId.toString(), artifactInfo));
+        if (_closed || !_queue.offer(line)) {
+            _logger.debug("The canonical artifact was not persisted. Artifact: {}", artifactId);
+        }
+    }
+
+    public int size() {
+        synchronized (_artifacts) {
+            return _artifacts.size();
+        }
+    }
+
+    // Stops persisting new entries and waits for the queued ones to be written.
+    @Override
+    public void close() {
+        _closed = true;
+
+        try {
+            _writerThread.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void writeLines() {
+        var batch = new ArrayList<String>(MaxBatchSize);
+
+        while (!_closed || !_queue.isEmpty()) {
+            try {
+                var line = _queue.poll(1, TimeUnit.SECONDS);
+                if (line == null) {
+                    continue;
+                }
+
+                batch.add(line);
+            } catch (InterruptedException ex) {
+                break;
+            }
+
+            _queue.drainTo(batch, MaxBatchSize - 1);
+            writeBatch(batch);
+            batch.clear();
+
+            compactIfNeeded();
+        }
+
+        closeWriter();
+    }
+
+    private void writeBatch(List<String> batch) {
+        try {
+            if (_writer == null) {
+                _writer = Files.newBufferedWriter(_file, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            }
+
+            for (var line : batch) {
+                _writer.write(line);
+                _writer.newLine();
+            }
+            _writer.flush();
+            _fileLines += batch.size();
+        } catch (IOException ex) {
+            _logger.warn("Failed to persist {} canonical artifacts: {}. Exception Message: {}.", batch.size(), _file, ex.getMessage());
+            closeWriter();
+        }
+    }
+
+    private void closeWriter() {
+        if (_writer == null) {
+            return;
+        }
+
+        try {
+            _writer.close();
+        } catch (IOException ex) {
+            _logger.debug("Failed to close the canonical artifacts cache.", ex);
+        }
+        _writer = null;
+    }
+
+    private void load() {
+        if (!Files.exists(_file)) {
+            return;
+        }
+
+        try (var lines = Files.lines(_file, StandardCharsets.UTF_8)) {
+            lines.forEach(this::loadLine);
+        } catch (Exception ex) {
+            _logger.warn("Failed to load the canonical artifacts cache: {}. Exception Message: {}.", _file, ex.getMessage());
+        }
+
+        _logger.info("Canonical artifacts cache loaded. Artifacts: {}", size());
+    }
+
+    private void loadLine(String line) {
+        _fileLines++;
+        if (line.isBlank()) {
+            return;
+        }
+
+        try {
+            var entry = _gson.fromJson(line, Entry.class);
+            if (entry == null || entry.key == null || entry.artifact == null) {
+                return;
+            }
+
+            var artifactId = parseKey(entry.key);
+            if (artifactId != null) {
+                synchronized (_artifacts) {
+                    _artifacts.put(artifactId, entry.artifact);
+                }
+            }
+        } catch (Exception ex) {
+            _logger.debug("Ignoring invalid canonical artifacts cache line: {}", line);
+        }
+    }
+
+    // Rewrites the file with the entries kept in memory, least recently used first so a reload keeps the order.
+    private void compactIfNeeded() {
+        if (_fileLines < 2L * _maxSize) {
+            return;
+        }
+
+        closeWriter();
+
+        var lines = new ArrayList<String>();
+        synchronized (_artifacts) {
+            for (var artifact : _artifacts.entrySet()) {
+                lines.add(_gson.toJson(new Entry(artifact.getKey().toString(), artifact.getValue())));
+            }
+        }
+
+        var compactedFile = _file.resolveSibling(_file.getFileName() + ".tmp");
+        try {
+            Files.write(compactedFile, lines, StandardCharsets.UTF_8);
+            Files.move(compactedFile, _file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            _logger.debug("Canonical artifacts cache compacted from {} to {} lines.", _fileLines, lines.size());
+            _fileLines = lines.size();
+        } catch (IOException ex) {
+            _logger.warn("Failed to compact the canonical artifacts cache: {}. Exception Message: {}.", _file, ex.getMessage());
+        }
+    }
+
+    // "packageType:name:version", where maven like names contain ':' themselves.
+    private static ArtifactId parseKey(String key) {
+        var typeEnd = key.indexOf(':');
+        var versionStart = key.lastIndexOf(':');
+        if (typeEnd <= 0 || versionStart <= typeEnd + 1) {
+            return null;
+        }
+
+        var artifactId = new ArtifactId(key.substring(0, typeEnd), key.substring(typeEnd + 1, versionStart), key.substring(versionStart + 1));
+        return artifactId.isInvalid() ? null : artifactId;
+    }
+
+    private static final class Entry {
+        @SerializedName("key")
+        private final String key;
+
+        @SerializedName("artifact")
+        private final ArtifactInfo artifact;
+
+        private Entry(String key, ArtifactInfo artifact) {
+            this.key = key;
+            this.artifact = artifact;
+        }
+    }
+}
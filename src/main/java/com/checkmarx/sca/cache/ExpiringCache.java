@@ -0,0 +1,94 @@
+package com.checkmarx.sca.cache;
+
+import com.checkmarx.sca.configuration.ConfigurationEntry;
+import com.checkmarx.sca.configuration.PluginConfiguration;
+
+import javax.annotation.Nonnull;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+public class ExpiringCache<K, V> {
+    private final int _maxSize;
+    private final long _ttlNanos;
+    private final LongSupplier _clock;
+    private final LinkedHashMap<K, Entry<V>> _entries;
+
+    public ExpiringCache(int maxSize, @Nonnull Duration ttl) {
+        this(maxSize, ttl, System::nanoTime);
+    }
+
+    ExpiringCache(int maxSize, @Nonnull Duration ttl, @Nonnull LongSupplier clock) {
+        _maxSize = Math.max(maxSize, 0);
+        _ttlNanos = ttl.isNegative() ? 0 : ttl.toNanos();
+        _clock = clock;
+        _entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                return size() > _maxSize;
+            }
+        };
+    }
+
+    public static <K, V> ExpiringCache<K, V> fromConfiguration(@Nonnull PluginConfiguration configuration,
+                                                               @Nonnull ConfigurationEntry maxSizeEntry,
+                                                               @Nonnull ConfigurationEntry ttlEntry) {
+        var maxSize = getNumber(configuration, maxSizeEntry);
+        var ttl = getNumber(configuration, ttlEntry);
+
+        return new ExpiringCache<>(maxSize, Duration.ofSeconds(ttl));
+    }
+
+    public boolean isEnabled() {
+        return _maxSize > 0 && _ttlNanos > 0;
+    }
+
+    public synchronized V get(@Nonnull K key) {
+        var entry = _entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+
+        if (_clock.getAsLong() - entry.createdAt >= _ttlNanos) {
+            _entries.remove(key);
+            return null;
+        }
+
+        return entry.value;
+    }
+
+    public synchronized void put(@Nonnull K key, @Nonnull V value) {
+        if (!isEnabled()) {
+            return;
+        }
+
+        _entries.put(key, new Entry<>(value, _clock.getAsLong()));
+    }
+
+    public synchronized void invalidate(@Nonnull K key) {
+        _entries.remove(key);
+    }
+
+    public synchronized int size() {
+        return _entries.size();
+    }
+
+    private static int getNumber(PluginConfiguration configuration, ConfigurationEntry entry) {
+        try {
+            return Integer.parseInt(configuration.getPropertyOrDefault(entry).trim());
+        } catch (Exception ex) {
+            return Integer.parseInt(entry.defaultValue());
+        }
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long createdAt;
+
+        private Entry(V value, long createdAt) {
+            this.value = value;
+            this.createdAt = createdAt;
+        }
+    }
+}
@@ -7,38 +7,52 @@ import com.checkmarx.sca.communication.exceptions.UserIsNotAuthenticatedExceptio
 import com.checkmarx.sca.communication.models.AccessControlCredentials;
 import com.checkmarx.sca.communication.models.AccessControlToken;
 import com.checkmarx.sca.communication.models.AuthenticationHeader;
+import com.checkmarx.sca.communication.models.TokenClaims;
 import com.checkmarx.sca.configuration.ConfigurationEntry;
 import com.checkmarx.sca.configuration.PluginConfiguration;
 import com.google.gson.Gson;
-import com.google.gson.JsonObject;
 import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 
 import javax.annotation.Nonnull;
+import java.io.Closeable;
 import java.net.URI;
 import java.net.URLEncoder;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
-import java.util.Base64;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Collectors;
 
 import static java.lang.String.format;
 
-public class AccessControlClient {
+public class AccessControlClient implements Closeable {
     private final String TokenEndpointPath = "identity/connect/token";
     private final String ClientId = "sca_resource_owner";
     private final String OAuthScope = "sca_api";
+    private final long MinimumRefreshAheadSeconds = 60;
+    private final long RefreshRetrySeconds = 30;
     private final Logger _logger;
 
     private final HttpClient _httpClient;
     private final String _authenticationUrl;
-    private AccessControlToken _accessControlToken;
-    private AccessControlCredentials _accessControlCredentials;
+    private final ScheduledThreadPoolExecutor _refreshScheduler;
+    private final AtomicReference<AccessControlToken> _accessControlToken = new AtomicReference<>();
+    private final AtomicReference<TokenClaims> _tokenClaims = new AtomicReference<>();
+    private final AtomicReference<CompletableFuture<AccessControlToken>> _tokenRefresh = new AtomicReference<>();
+    private final AtomicReference<ScheduledFuture<?>> _scheduledRefresh = new AtomicReference<>();
+    private final LongAdder _refreshFailures = new LongAdder();
+    private volatile AccessControlCredentials _accessControlCredentials;
 
     public AccessControlClient(@Nonnull PluginConfiguration configuration, @Nonnull Logger logger)
     {
@@ -50,6 +64,15 @@ public class AccessControlClient {
 
         _authenticationUrl = authenticationUrl;
         _httpClient = HttpClient.newHttpClient();
+
+        _refreshScheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+            var thread = new Thread(runnable, "cxsca-token-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        _refreshScheduler.setKeepAliveTime(1, TimeUnit.MINUTES);
+        _refreshScheduler.allowCoreThreadTimeOut(true);
+        _refreshScheduler.setRemoveOnCancelPolicy(true);
     }
 
     public boolean Authenticate(@NotNull AccessControlCredentials accessControlCredentials)
@@ -57,10 +80,11 @@ public class AccessControlClient {
         try{
             _accessControlCredentials = accessControlCredentials;
 
-            AuthenticateResourceOwner();
+            AuthenticateResourceOwner().join();
         } catch (Exception ex) {
+            var cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
             _logger.info("Authentication failed. Working without authentication.");
-            _logger.error(ex.getMessage(), ex);
+            _logger.error(cause.getMessage(), cause);
             return false;
         }
 
@@ -70,76 +94,92 @@ public class AccessControlClient {
 
     public AuthenticationHeader<String, String> GetAuthorizationHeader()
     {
-        if(_accessControlToken == null) {
-            throw new UserIsNotAuthenticatedException();
-        }
-
-        if (_accessControlToken.isActive())
-            return GenerateTokenAuthorizationHeader();
-
-        var success = RefreshTokenAsync();
-        if (!success) {
-            throw new FailedToRefreshTokenException();
-        }
-
-        return GenerateTokenAuthorizationHeader();
+        return GenerateTokenAuthorizationHeader(GetActiveToken());
     }
 
     public String GetAuthorizationToken()
     {
-        if(_accessControlToken == null) {
-            throw new UserIsNotAuthenticatedException();
-        }
+        return GetActiveToken().getAccessToken();
+    }
+
+    public String getTenantId(){
+        return getTokenClaims().getTenantId();
+    }
 
-        if (_accessControlToken.isActive())
-            return _accessControlToken.getAccessToken();
+    public TokenClaims getTokenClaims() {
+        var accessToken = GetAuthorizationToken();
 
-        var success = RefreshTokenAsync();
-        if (!success) {
-            throw new FailedToRefreshTokenException();
+        var tokenClaims = _tokenClaims.get();
+        if (tokenClaims != null && tokenClaims.isFor(accessToken)) {
+            return tokenClaims;
         }
 
-        return _accessControlToken.getAccessToken();
-    }
+        tokenClaims = TokenClaims.parse(accessToken);
+        _tokenClaims.set(tokenClaims);
 
-    public String getTenantId(){
-        return getDataStringFromToken("tenant_id");
+        return tokenClaims;
     }
 
-    private String getDataStringFromToken (String field){
-        JsonObject contentObject = getJsonObjectFromToken();
-        return contentObject.get(field).getAsString();
+    // -1 when there is no token yet.
+    public long getTokenExpiresInSeconds() {
+        var accessControlToken = _accessControlToken.get();
+        return accessControlToken == null ? -1 : (long) accessControlToken.ExpiresIn();
     }
 
-    private JsonObject getJsonObjectFromToken() {
-        var token = GetAuthorizationToken();
-        var chunks = token.split("\\.");
-        var tokenContent = chunks[1];
-        var contentDecoded = Base64.getUrlDecoder().decode(tokenContent);
-        return new Gson().fromJson(String.valueOf(contentDecoded), JsonObject.class);
+    public long getRefreshFailureCount() {
+        return _refreshFailures.sum();
     }
 
-    private void AuthenticateResourceOwner() throws ExecutionException, InterruptedException {
-        var resourceOwnerGrantRequest = CreateResourceOwnerGrantRequest();
-
-        var responseFuture = _httpClient.sendAsync(resourceOwnerGrantRequest, HttpResponse.BodyHandlers.ofString());
+    // Stops refreshing the token ahead of its expiration; an expired token is still refreshed on demand.
+    @Override
+    public void close() {
+        _refreshScheduler.shutdownNow();
+    }
 
-        var authenticateResponse = responseFuture.get();
+    private AccessControlToken GetActiveToken()
+    {
+        var accessControlToken = _accessControlToken.get();
+        if (accessControlToken == null) {
+            throw new UserIsNotAuthenticatedException();
+        }
 
-        if (authenticateResponse.statusCode() != 200)
-            throw new AuthenticationFailedException(authenticateResponse.statusCode());
+        if (accessControlToken.isActive())
+            return accessControlToken;
 
-        AccessControlToken accessControlToken;
         try {
-            accessControlToken = new Gson().fromJson(authenticateResponse.body(), AccessControlToken.class);
-        } catch (Exception ex) {
-            throw new UnexpectedAuthenticationResponseException(authenticateResponse.body());
+            return RefreshTokenAsync().get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new FailedToRefreshTokenException();
+        } catch (ExecutionException ex) {
+            _logger.error(ex.getCause().getMessage(), ex.getCause());
+            throw new FailedToRefreshTokenException();
         }
+    }
+
+    private CompletableFuture<AccessControlToken> AuthenticateResourceOwner() {
+        var resourceOwnerGrantRequest = CreateResourceOwnerGrantRequest();
+
+        return _httpClient.sendAsync(resourceOwnerGrantRequest, HttpResponse.BodyHandlers.ofString())
+                .thenApply(authenticateResponse -> {
+                    if (authenticateResponse.statusCode() != 200)
+                        throw new AuthenticationFailedException(authenticateResponse.statusCode());
 
-        if (accessControlToken == null || !accessControlToken.isBearerToken())
-            throw new UnexpectedAuthenticationResponseException(authenticateResponse.body());
+                    AccessControlToken accessControlToken;
+                    try {
+                        accessControlToken = new Gson().fromJson(authenticateResponse.body(), AccessControlToken.class);
+                    } catch (Exception ex) {
+                        throw new UnexpectedAuthenticationResponseException(authenticateResponse.body());
+                    }
 
-        _accessControlToken = accessControlToken;
+                    if (accessControlToken == null || !accessControlToken.isBearerToken())
+                        throw new UnexpectedAuthenticationResponseException(authenticateResponse.body());
+
+                    _accessControlToken.set(accessControlToken);
+                    ScheduleTokenRefresh(accessControlToken);
+
+                    return accessControlToken;
+                });
     }
 
     private HttpRequest CreateResourceOwnerGrantRequest()
@@ -163,13 +203,84 @@ public class AccessControlClient {
                 .build();
     }
 
-    private boolean RefreshTokenAsync()
+    private CompletableFuture<AccessControlToken> RefreshTokenAsync()
+    {
+        while (true) {
+            var inFlightRefresh = _tokenRefresh.get();
+            if (inFlightRefresh != null) {
+                return inFlightRefresh;
+            }
+
+            var tokenRefresh = new CompletableFuture<AccessControlToken>();
+            if (!_tokenRefresh.compareAndSet(null, tokenRefresh)) {
+                continue;
+            }
+
+            CompletableFuture<AccessControlToken> authentication;
+            try {
+                authentication = AuthenticateResourceOwner();
+            } catch (Exception ex) {
+                authentication = CompletableFuture.failedFuture(ex);
+            }
+
+            authentication.whenComplete((accessControlToken, exception) -> {
+                _tokenRefresh.set(null);
+                if (exception != null) {
+                    _refreshFailures.increment();
+                    tokenRefresh.completeExceptionally(exception instanceof CompletionException ? exception.getCause() : exception);
+                } else {
+                    tokenRefresh.complete(accessControlToken);
+                }
+            });
+
+            return tokenRefresh;
+        }
+    }
+
+    private void ScheduleTokenRefresh(AccessControlToken accessControlToken)
+    {
+        var expiresIn = (long) accessControlToken.ExpiresIn();
+        if (expiresIn <= 0) {
+            return;
+        }
+
+        var refreshAhead = Math.max(expiresIn / 5, Math.min(MinimumRefreshAheadSeconds, expiresIn / 2));
+        ScheduleTokenRefresh(expiresIn - refreshAhead);
+    }
+
+    private void ScheduleTokenRefresh(long delaySeconds)
+    {
+        if (_refreshScheduler.isShutdown()) {
+            return;
+        }
+
+        var scheduledRefresh = _refreshScheduler.schedule(this::RefreshTokenAheadOfExpiration, delaySeconds, TimeUnit.SECONDS);
+
+        var previousRefresh = _scheduledRefresh.getAndSet(scheduledRefresh);
+        if (previousRefresh != null) {
+            previousRefresh.cancel(false);
+        }
+    }
+
+    private void RefreshTokenAheadOfExpiration()
     {
-        return Authenticate(_accessControlCredentials);
+        RefreshTokenAsync().whenComplete((accessControlToken, exception) -> {
+            if (exception == null) {
+                _logger.debug("Access token refreshed ahead of its expiration.");
+                return;
+            }
+
+            _logger.warn("Failed to refresh the access token ahead of its expiration. Exception Message: {}.", exception.getMessage());
+
+            var currentToken = _accessControlToken.get();
+            if (currentToken != null && currentToken.ExpiresIn() > RefreshRetrySeconds) {
+                ScheduleTokenRefresh(RefreshRetrySeconds);
+            }
+        });
     }
 
-    private AuthenticationHeader<String, String> GenerateTokenAuthorizationHeader()
+    private AuthenticationHeader<String, String> GenerateTokenAuthorizationHeader(AccessControlToken accessControlToken)
     {
-        return new AuthenticationHeader<>("Authorization", format("Bearer %s", _accessControlToken.getAccessToken()));
+        return new AuthenticationHeader<>("Authorization", format("Bearer %s", accessControlToken.getAccessToken()));
     }
 }
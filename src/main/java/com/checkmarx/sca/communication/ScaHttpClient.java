@@ -6,14 +6,22 @@ import com.checkmarx.sca.communication.exceptions.UnexpectedResponseCodeExceptio
 import com.checkmarx.sca.communication.exceptions.UserIsNotAuthenticatedException;
 import com.checkmarx.sca.models.ArtifactId;
 import com.checkmarx.sca.communication.fallbacks.PyPiFallback;
+import com.checkmarx.sca.communication.models.ScaResponse;
+import com.checkmarx.sca.communication.transport.HedgingTransport;
+import com.checkmarx.sca.communication.transport.HttpClientTransport;
+import com.checkmarx.sca.communication.transport.IScaTransport;
 import com.checkmarx.sca.configuration.ConfigurationEntry;
 import com.checkmarx.sca.configuration.PluginConfiguration;
+import com.checkmarx.sca.metrics.MetricsRegistry;
+import com.checkmarx.sca.metrics.PluginStatus;
+import com.checkmarx.sca.metrics.ScaRequestEvent;
 import com.checkmarx.sca.models.ArtifactInfo;
 import com.checkmarx.sca.models.PackageAnalysisAggregation;
 import com.checkmarx.sca.models.PackageLicensesModel;
 import com.google.gson.Gson;
 import com.google.gson.reflect.TypeToken;
 import com.google.inject.Inject;
+import com.google.inject.Singleton;
 import org.artifactory.exception.CancelException;
 import org.jetbrains.annotations.NotNull;
 
@@ -21,25 +29,35 @@ import javax.annotation.Nonnull;
 import java.lang.reflect.Type;
 import java.net.URI;
 import java.net.URLEncoder;
-import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Map;
 import java.util.MissingResourceException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static java.lang.String.format;
 
+@Singleton
 public class ScaHttpClient {
     private final String UserAgent = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/100.0.4896.92 Safari/537.36";
-    private final HttpClient _httpClient;
+    private final PluginConfiguration _configuration;
+    private IScaTransport _transport;
     private final String _apiUrl;
 
     @Inject
     private PyPiFallback _pyPiFallback;
 
+    @Inject
+    private MetricsRegistry _metrics;
+
+    @Inject
+    private PluginStatus _status;
+
     @Inject(optional = true)
     private AccessControlClient _accessControlClient;
 
@@ -51,86 +69,109 @@ public class ScaHttpClient {
         }
 
         _apiUrl = apiUrl;
-        _httpClient = HttpClient.newHttpClient();
+        _configuration = configuration;
+        _transport = HedgingTransport.decorate(new HttpClientTransport(), configuration);
     }
 
-    public ArtifactInfo getArtifactInformation(String packageType, String name, String version) throws ExecutionException, InterruptedException {
+    @Inject(optional = true)
+    public void setTransport(@Nonnull IScaTransport transport) {
+        _transport = HedgingTransport.decorate(transport, _configuration);
+    }
 
-        var artifactResponse = getArtifactInfoResponse(packageType, name, version);
+    public ArtifactInfo getArtifactInformation(String packageType, String name, String version) throws ExecutionException, InterruptedException {
+        return getArtifactInformation(packageType, name, version, null);
+    }
 
-        if (artifactResponse.statusCode() == 404) {
-            artifactResponse = TryToFallback(artifactResponse, packageType, name, version);
-        }
+    // The repository key is only used to tell which repository the requests were sent for.
+    public ArtifactInfo getArtifactInformation(String packageType, String name, String version, String repoKey) throws ExecutionException, InterruptedException {
+        return waitFor(getArtifactInformationAsync(packageType, name, version, repoKey));
+    }
 
-        if (artifactResponse.statusCode() != 200)
-            throw new UnexpectedResponseCodeException(artifactResponse.statusCode());
+    public CompletableFuture<ArtifactInfo> getArtifactInformationAsync(String packageType, String name, String version) {
+        return getArtifactInformationAsync(packageType, name, version, null);
+    }
 
-        ArtifactInfo artifactInfo;
+    public CompletableFuture<ArtifactInfo> getArtifactInformationAsync(String packageType, String name, String version, String repoKey) {
+        String requestName;
+        CompletableFuture<ScaResponse> responseFuture;
         try {
-            artifactInfo = new Gson().fromJson(artifactResponse.body(), ArtifactInfo.class);
+            requestName = getRequestName(packageType, name);
+            responseFuture = getArtifactInfoResponse(packageType, requestName, version, repoKey);
         } catch (Exception ex) {
-            throw new UnexpectedResponseBodyException(artifactResponse.body());
+            return CompletableFuture.failedFuture(ex);
         }
 
-        if (artifactInfo == null) {
-            throw new UnexpectedResponseBodyException("");
-        }
+        return responseFuture
+                .thenCompose(artifactResponse -> {
+                    if (artifactResponse.statusCode() == 404) {
+                        return TryToFallback(artifactResponse, packageType, name, requestName, version, repoKey);
+                    }
 
-        return artifactInfo;
+                    return CompletableFuture.completedFuture(artifactResponse);
+                })
+                .thenApply(this::parseArtifactInfo);
     }
 
     public PackageAnalysisAggregation getRiskAggregationOfArtifact(String packageType, String name, String version) throws ExecutionException, InterruptedException {
-        var request = getRiskAggregationArtifactRequest(packageType, name, version);
-
-        var responseFuture = _httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString());
-
-        var risksResponse = responseFuture.get();
-        if (risksResponse.statusCode() != 200)
-            throw new UnexpectedResponseCodeException(risksResponse.statusCode());
-
-        PackageAnalysisAggregation packageAnalysisAggregation;
-        try {
-            Type listType = new TypeToken<PackageAnalysisAggregation>() {
-            }.getType();
+        return getRiskAggregationOfArtifact(packageType, name, version, null);
+    }
 
-            packageAnalysisAggregation = new Gson().fromJson(risksResponse.body(), listType);
-        } catch (Exception ex) {
-            throw new UnexpectedResponseBodyException(risksResponse.body());
-        }
+    public PackageAnalysisAggregation getRiskAggregationOfArtifact(String packageType, String name, String version, String repoKey) throws ExecutionException, InterruptedException {
+        return waitFor(getRiskAggregationOfArtifactAsync(packageType, name, version, repoKey));
+    }
 
-        if (packageAnalysisAggregation == null) {
-            throw new UnexpectedResponseBodyException("");
-        }
+    public CompletableFuture<PackageAnalysisAggregation> getRiskAggregationOfArtifactAsync(String packageType, String name, String version) {
+        return getRiskAggregationOfArtifactAsync(packageType, name, version, null);
+    }
 
-        List<String> licenses = List.of();
+    public CompletableFuture<PackageAnalysisAggregation> getRiskAggregationOfArtifactAsync(String packageType, String name, String version, String repoKey) {
+        HttpRequest request;
         try {
-            var license = getPackageLicenseOfArtifact(packageType, name, version);
-            if (license.getIdentifiedLicenses() != null && license.getIdentifiedLicenses().size() > 0) {
-                licenses = license.getIdentifiedLicenses().stream()
-                        .map(identifiedLicense -> identifiedLicense.getLicense().getName())
-                        .collect(Collectors.toList());
-            }
+            request = getRiskAggregationArtifactRequest(packageType, name, version);
         } catch (Exception ex) {
-            licenses = List.of();
+            return CompletableFuture.failedFuture(ex);
         }
-        packageAnalysisAggregation.setLicenses(licenses);
 
-        return packageAnalysisAggregation;
+        // The licenses are only requested once the risks were received, a failed scan does not cost a second call.
+        return send("risk_aggregation", packageType, repoKey, request)
+                .thenApply(this::parseRiskAggregation)
+                .thenCompose(packageAnalysisAggregation -> getPackageLicenseOfArtifact(packageType, name, version, repoKey)
+                        .thenApply(this::getLicenseNames)
+                        .exceptionally(ex -> List.of())
+                        .thenApply(licenses -> {
+                            packageAnalysisAggregation.setLicenses(licenses);
+                            return packageAnalysisAggregation;
+                        }));
     }
 
     public Boolean suggestPrivatePackage(ArtifactId artifactId) throws ExecutionException, InterruptedException, MissingResourceException {
+        return waitFor(suggestPrivatePackageAsync(artifactId));
+    }
 
-        var request = getSuggestPrivatePackageRequest(artifactId);
-
-        var responseFuture = _httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString());
+    public CompletableFuture<Boolean> suggestPrivatePackageAsync(ArtifactId artifactId) {
+        return suggestPrivatePackagesAsync(List.of(artifactId));
+    }
 
-        var response = responseFuture.get();
+    public Boolean suggestPrivatePackages(List<ArtifactId> artifactIds) throws ExecutionException, InterruptedException, MissingResourceException {
+        return waitFor(suggestPrivatePackagesAsync(artifactIds));
+    }
 
-        if (response.statusCode() != 200) {
-            throw new UnexpectedResponseBodyException(response.body());
+    public CompletableFuture<Boolean> suggestPrivatePackagesAsync(List<ArtifactId> artifactIds) {
+        HttpRequest request;
+        try {
+            request = getSuggestPrivatePackageRequest(artifactIds);
+        } catch (Exception ex) {
+            return CompletableFuture.failedFuture(ex);
         }
 
-        return true;
+        return send("private_packages", null, null, request)
+                .thenApply(response -> {
+                    if (response.statusCode() != 200) {
+                        throw new UnexpectedResponseBodyException(response.body());
+                    }
+
+                    return true;
+                });
     }
 
     private HttpRequest getRiskAggregationArtifactRequest(String packageType, String name, String version) throws CancelException {
@@ -173,10 +214,12 @@ public class ScaHttpClient {
                 .build();
     }
 
-    private HttpRequest getSuggestPrivatePackageRequest(ArtifactId artifactId) throws CancelException {
+    private HttpRequest getSuggestPrivatePackageRequest(List<ArtifactId> artifactIds) throws CancelException {
 
-        var body = format("[{\"name\":\"%s\",\"packageManager\":\"%s\",\"version\":\"%s\",\"resolvedBy\":\"PrivateArtifactory\"}]",
-                artifactId.Name, artifactId.PackageType, artifactId.Version);
+        var body = artifactIds.stream()
+                .map(artifactId -> format("{\"name\":\"%s\",\"packageManager\":\"%s\",\"version\":\"%s\",\"resolvedBy\":\"PrivateArtifactory\"}",
+                        artifactId.Name, artifactId.PackageType, artifactId.Version))
+                .collect(Collectors.joining(",", "[", "]"));
 
         if (_accessControlClient == null) {
             throw new UserIsNotAuthenticatedException();
@@ -192,84 +235,209 @@ public class ScaHttpClient {
                 .build();
     }
 
-    private HttpResponse<String> TryToFallback(HttpResponse<String> previousResponse, String packageType, String name, String version) throws ExecutionException, InterruptedException {
+    private CompletableFuture<ScaResponse> TryToFallback(ScaResponse previousResponse, String packageType, String name, String requestName, String version, String repoKey) {
+        var fallbackNames = getFallbackNames(packageType, name, requestName);
 
-        String newName = null;
-        if (packageType.equals(PackageManager.PYPI.packageType())) {
-            newName = _pyPiFallback.applyFallback(name);
-        }
+        return sendWithFallbackNames(previousResponse, fallbackNames, fallbackName -> getArtifactInfoResponse(packageType, fallbackName, version, repoKey))
+                .thenApply(resolved -> {
+                    _pyPiFallback.recordResolvedName(name, resolved.getKey());
+                    return resolved.getValue();
+                });
+    }
 
-        if (newName == null) {
-            throw new UnexpectedResponseCodeException(previousResponse.statusCode());
-        }
+    // The license request is made with the canonical name returned by CxSCA, so nothing is learned from it.
+    private CompletableFuture<ScaResponse> TryToFallbackLicense(ScaResponse previousResponse, String packageType, String name, String version, String repoKey) {
+        var fallbackNames = getFallbackNames(packageType, name, name);
 
-        var artifactResponse = getArtifactInfoResponse(packageType, newName, version);
+        return sendWithFallbackNames(previousResponse, fallbackNames, fallbackName -> send("licenses", packageType, repoKey, getLicenceArtifactRequest(packageType, fallbackName, version)))
+                .thenApply(Map.Entry::getValue);
+    }
 
-        if (artifactResponse.statusCode() == 404) {
-            throw new UnexpectedResponseCodeException(artifactResponse.statusCode());
+    private CompletableFuture<Map.Entry<String, ScaResponse>> sendWithFallbackNames(ScaResponse previousResponse, List<String> fallbackNames, Function<String, CompletableFuture<ScaResponse>> sender) {
+        if (fallbackNames.isEmpty()) {
+            return CompletableFuture.failedFuture(new UnexpectedResponseCodeException(previousResponse.statusCode()));
         }
 
-        return artifactResponse;
+        var fallbackName = fallbackNames.get(0);
+        return sender.apply(fallbackName)
+                .thenCompose(response -> {
+                    if (response.statusCode() == 404) {
+                        return sendWithFallbackNames(response, fallbackNames.subList(1, fallbackNames.size()), sender);
+                    }
+
+                    return CompletableFuture.completedFuture(Map.entry(fallbackName, response));
+                });
     }
 
-    private HttpResponse<String> TryToFallbackLicense(HttpResponse<String> previousResponse, String packageType, String name, String version) throws ExecutionException, InterruptedException {
+    private List<String> getFallbackNames(String packageType, String name, String requestName) {
+        if (packageType.equals(PackageManager.PYPI.packageType())) {
+            return _pyPiFallback.getFallbackNames(name, requestName);
+        }
 
-        String newName = null;
+        return List.of();
+    }
+
+    // The name is sent as given unless another PyPI variant answered for it before.
+    private String getRequestName(String packageType, String name) {
         if (packageType.equals(PackageManager.PYPI.packageType())) {
-            newName = _pyPiFallback.applyFallback(name);
+            return _pyPiFallback.getPreferredName(name);
         }
 
-        if (newName == null) {
-            throw new UnexpectedResponseCodeException(previousResponse.statusCode());
+        return name;
+    }
+
+    private CompletableFuture<ScaResponse> getArtifactInfoResponse(String packageType, String name, String version, String repoKey) {
+        var request = getArtifactInfoRequest(packageType, name, version);
+
+        return send("artifact_info", packageType, repoKey, request);
+    }
+
+    private CompletableFuture<ScaResponse> send(String endpoint, String packageType, String repoKey, HttpRequest request) {
+        var event = new ScaRequestEvent();
+        event.begin();
+
+        CompletableFuture<ScaResponse> responseFuture;
+        try {
+            responseFuture = _transport.sendAsync(request);
+        } catch (Exception ex) {
+            responseFuture = CompletableFuture.failedFuture(ex);
         }
+        _status.scaRequestStarted();
 
-        var artifactRequest = getLicenceArtifactRequest(packageType, newName, version);
+        var packageManager = packageType == null ? null : PackageManager.GetByScaPackageType(packageType).key();
 
-        var artifactResponse = _httpClient.sendAsync(artifactRequest, HttpResponse.BodyHandlers.ofString()).get();
+        // Transport errors and timeouts are the slow calls worth seeing, so they are counted and recorded too.
+        return responseFuture.whenComplete((response, exception) -> {
+            _status.scaRequestFinished(exception == null && response.statusCode() < 500);
 
-        if (artifactResponse.statusCode() == 404) {
-            throw new UnexpectedResponseCodeException(artifactResponse.statusCode());
+            if (exception == null) {
+                _metrics.countScaResponse(endpoint, packageManager, response.statusCode());
+            } else {
+                _metrics.countScaResponse(endpoint, packageManager, MetricsRegistry.ErrorStatus);
+            }
+
+            event.end();
+            if (event.shouldCommit()) {
+                event.endpoint = endpoint;
+                event.packageType = packageType;
+                event.repoKey = repoKey;
+                event.method = request.method();
+                if (exception == null) {
+                    event.statusCode = response.statusCode();
+                    event.responseBytes = response.body() == null ? 0 : response.body().getBytes(StandardCharsets.UTF_8).length;
+                } else {
+                    event.error = getErrorName(exception);
+                }
+                event.commit();
+            }
+        });
+    }
+
+    private static String getErrorName(Throwable exception) {
+        var cause = exception instanceof CompletionException && exception.getCause() != null ? exception.getCause() : exception;
+        return cause.getClass().getSimpleName();
+    }
+
+    private CompletableFuture<PackageLicensesModel> getPackageLicenseOfArtifact(String packageType, String name, String version, String repoKey) {
+        HttpRequest request;
+        try {
+            request = getLicenceArtifactRequest(packageType, name, version);
+        } catch (Exception ex) {
+            return CompletableFuture.failedFuture(ex);
         }
 
-        return artifactResponse;
+        return send("licenses", packageType, repoKey, request)
+                .thenCompose(licenseResponse -> {
+                    if (licenseResponse.statusCode() == 404) {
+                        return TryToFallbackLicense(licenseResponse, packageType, name, version, repoKey);
+                    }
+
+                    return CompletableFuture.completedFuture(licenseResponse);
+                })
+                .thenApply(this::parsePackageLicenses);
     }
 
-    private HttpResponse<String> getArtifactInfoResponse(String packageType, String name, String version) throws ExecutionException, InterruptedException {
-        var request = getArtifactInfoRequest(packageType, name, version);
+    private ArtifactInfo parseArtifactInfo(ScaResponse artifactResponse) {
+        if (artifactResponse.statusCode() != 200)
+            throw new UnexpectedResponseCodeException(artifactResponse.statusCode());
 
-        var responseFuture = _httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString());
+        ArtifactInfo artifactInfo;
+        try {
+            artifactInfo = new Gson().fromJson(artifactResponse.body(), ArtifactInfo.class);
+        } catch (Exception ex) {
+            throw new UnexpectedResponseBodyException(artifactResponse.body());
+        }
+
+        if (artifactInfo == null) {
+            throw new UnexpectedResponseBodyException("");
+        }
 
-        return responseFuture.get();
+        return artifactInfo;
     }
 
-    private PackageLicensesModel getPackageLicenseOfArtifact(String packageType, String name, String version) throws ExecutionException, InterruptedException {
-        var request = getLicenceArtifactRequest(packageType, name, version);
+    private PackageAnalysisAggregation parseRiskAggregation(ScaResponse risksResponse) {
+        if (risksResponse.statusCode() != 200)
+            throw new UnexpectedResponseCodeException(risksResponse.statusCode());
 
-        var responseFuture = _httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString());
+        PackageAnalysisAggregation packageAnalysisAggregation;
+        try {
+            Type listType = new TypeToken<PackageAnalysisAggregation>() {
+            }.getType();
 
-        var licenseResponse = responseFuture.get();
+            packageAnalysisAggregation = new Gson().fromJson(risksResponse.body(), listType);
+        } catch (Exception ex) {
+            throw new UnexpectedResponseBodyException(risksResponse.body());
+        }
 
-        if (licenseResponse.statusCode() == 404) {
-            licenseResponse = TryToFallbackLicense(licenseResponse, packageType, name, version);
+        if (packageAnalysisAggregation == null) {
+            throw new UnexpectedResponseBodyException("");
         }
+
+        return packageAnalysisAggregation;
+    }
+
+    private PackageLicensesModel parsePackageLicenses(ScaResponse licenseResponse) {
         if (licenseResponse.statusCode() != 200) {
             throw new UnexpectedResponseCodeException(licenseResponse.statusCode());
         }
-        PackageLicensesModel packageAnalysisAggregation;
+
+        PackageLicensesModel packageLicensesModel;
         try {
             Type listType = new TypeToken<PackageLicensesModel>() {
             }.getType();
 
-            packageAnalysisAggregation = new Gson().fromJson(licenseResponse.body(), listType);
+            packageLicensesModel = new Gson().fromJson(licenseResponse.body(), listType);
         } catch (Exception ex) {
             throw new UnexpectedResponseBodyException(licenseResponse.body());
         }
 
-        if (packageAnalysisAggregation == null) {
+        if (packageLicensesModel == null) {
             throw new UnexpectedResponseBodyException("");
         }
 
-        return packageAnalysisAggregation;
+        return packageLicensesModel;
+    }
+
+    private List<String> getLicenseNames(PackageLicensesModel license) {
+        if (license.getIdentifiedLicenses() == null || license.getIdentifiedLicenses().isEmpty()) {
+            return List.of();
+        }
+
+        return license.getIdentifiedLicenses().stream()
+                .map(identifiedLicense -> identifiedLicense.getLicense().getName())
+                .collect(Collectors.toList());
+    }
+
+    private static <T> T waitFor(CompletableFuture<T> future) throws ExecutionException, InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+
+            throw ex;
+        }
     }
 
     private String getCxOrigin(){
@@ -1,6 +1,19 @@
 package com.checkmarx.sca.communication.fallbacks;
 
+import com.checkmarx.sca.cache.ExpiringCache;
+import com.checkmarx.sca.models.ArtifactId;
+import com.google.inject.Singleton;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Singleton
 public class PyPiFallback {
+    private static final int MaxLearnedNames = 10_000;
+    private static final Duration LearnedNamesTtl = Duration.ofHours(24);
+
+    private final ExpiringCache<String, String> _learnedNames = new ExpiringCache<>(MaxLearnedNames, LearnedNamesTtl);
 
     public String applyFallback(String name) {
         String newName = null;
@@ -13,4 +26,39 @@ public class PyPiFallback {
 
         return newName;
     }
+
+    // The name variant that answered last time, or the name as given. Learned names are keyed by the PEP 503
+    // normalized name, so every spelling of a package shares them.
+    public String getPreferredName(String name) {
+        var learnedName = _learnedNames.get(normalize(name));
+
+        return learnedName != null ? learnedName : name;
+    }
+
+    // The original spelling and its '-'/'_' variant, without the name that was already tried.
+    public List<String> getFallbackNames(String name, String triedName) {
+        var fallbackNames = new ArrayList<String>();
+        fallbackNames.add(name);
+
+        var newName = applyFallback(name);
+        if (newName != null) {
+            fallbackNames.add(newName);
+        }
+
+        fallbackNames.remove(triedName);
+        return fallbackNames;
+    }
+
+    public void recordResolvedName(String name, String resolvedName) {
+        var normalizedName = normalize(name);
+        if (name.equals(resolvedName)) {
+            _learnedNames.invalidate(normalizedName);
+        } else {
+            _learnedNames.put(normalizedName, resolvedName);
+        }
+    }
+
+    public static String normalize(String name) {
+        return ArtifactId.normalizePythonName(name);
+    }
 }
@@ -0,0 +1,19 @@
+package com.checkmarx.sca.communication.models;
+
+public class ScaResponse {
+    private final int _statusCode;
+    private final String _body;
+
+    public ScaResponse(int statusCode, String body) {
+        _statusCode = statusCode;
+        _body = body;
+    }
+
+    public int statusCode() {
+        return _statusCode;
+    }
+
+    public String body() {
+        return _body;
+    }
+}
@@ -0,0 +1,54 @@
+package com.checkmarx.sca.communication.models;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+
+public final class TokenClaims {
+    private final String _accessToken;
+    private final Map<String, String> _claims;
+
+    private TokenClaims(String accessToken, Map<String, String> claims) {
+        _accessToken = accessToken;
+        _claims = Map.copyOf(claims);
+    }
+
+    public static TokenClaims parse(@NotNull String accessToken) {
+        var chunks = accessToken.split("\\.");
+        if (chunks.length < 2) {
+            throw new IllegalArgumentException("The access token is not a valid JWT.");
+        }
+
+        var contentDecoded = new String(Base64.getUrlDecoder().decode(chunks[1]), StandardCharsets.UTF_8);
+        JsonObject content = JsonParser.parseString(contentDecoded).getAsJsonObject();
+
+        var claims = new HashMap<String, String>();
+        for (var entry : content.entrySet()) {
+            var value = entry.getValue();
+            if (value.isJsonPrimitive()) {
+                claims.put(entry.getKey(), value.getAsString());
+            } else if (!value.isJsonNull()) {
+                claims.put(entry.getKey(), value.toString());
+            }
+        }
+
+        return new TokenClaims(accessToken, claims);
+    }
+
+    public boolean isFor(String accessToken) {
+        return _accessToken.equals(accessToken);
+    }
+
+    public String get(String claim) {
+        return _claims.get(claim);
+    }
+
+    public String getTenantId() {
+        return get("tenant_id");
+    }
+}
@@ -0,0 +1,172 @@
+package com.checkmarx.sca.communication.transport;
+
+import com.checkmarx.sca.communication.models.ScaResponse;
+import com.checkmarx.sca.configuration.ConfigurationEntry;
+import com.checkmarx.sca.configuration.PluginConfiguration;
+
+import javax.annotation.Nonnull;
+import java.net.http.HttpRequest;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class HedgingTransport implements IScaTransport {
+    private static final int LatencySamples = 256;
+    private static final int PercentileRefreshInterval = 32;
+    private static final long MaxBudget = 10_000;
+    private static final long HedgeCost = 1_000;
+
+    private final IScaTransport _delegate;
+    private final double _percentile;
+    private final long _minDelayMillis;
+    private final long _budgetPerRequest;
+
+    private final AtomicLongArray _latencies = new AtomicLongArray(LatencySamples);
+    private final AtomicLong _latenciesCount = new AtomicLong();
+    private final AtomicLong _budget = new AtomicLong(0);
+    private final AtomicLong _requestsCount = new AtomicLong();
+    private final AtomicLong _hedgesCount = new AtomicLong();
+    private final AtomicLong _hedgeWinsCount = new AtomicLong();
+    private volatile long _hedgeDelayMillis;
+
+    public HedgingTransport(@Nonnull IScaTransport delegate, double percentile, long minDelayMillis, double budgetPercent) {
+        _delegate = delegate;
+        _percentile = Math.min(Math.max(percentile, 1), 100);
+        _minDelayMillis = Math.max(minDelayMillis, 0);
+        _budgetPerRequest = Math.round(HedgeCost * Math.max(budgetPercent, 0) / 100);
+        _hedgeDelayMillis = _minDelayMillis;
+    }
+
+    public static IScaTransport decorate(@Nonnull IScaTransport transport, @Nonnull PluginConfiguration configuration) {
+        var enabled = configuration.getPropertyOrDefault(ConfigurationEntry.HEDGING_ENABLED);
+        if (enabled == null || !Boolean.parseBoolean(enabled.trim())) {
+            return transport;
+        }
+
+        var percentile = getNumber(configuration, ConfigurationEntry.HEDGING_PERCENTILE);
+        var minDelay = getNumber(configuration, ConfigurationEntry.HEDGING_MIN_DELAY);
+        var budgetPercent = getNumber(configuration, ConfigurationEntry.HEDGING_BUDGET_PERCENT);
+
+        return new HedgingTransport(transport, percentile, (long) minDelay, budgetPercent);
+    }
+
+    @Override
+    public CompletableFuture<ScaResponse> sendAsync(@Nonnull HttpRequest request) {
+        if (!"GET".equals(request.method())) {
+            return _delegate.sendAsync(request);
+        }
+
+        _requestsCount.incrementAndGet();
+        addBudget();
+
+        var result = new CompletableFuture<ScaResponse>();
+        var pendingRequests = new AtomicInteger(1);
+        var settled = new AtomicBoolean();
+
+        sendAndComplete(request, result, pendingRequests, settled, false);
+
+        CompletableFuture.delayedExecutor(_hedgeDelayMillis, TimeUnit.MILLISECONDS).execute(() -> {
+            if (result.isDone() || !tryConsumeBudget()) {
+                return;
+            }
+
+            _hedgesCount.incrementAndGet();
+            pendingRequests.incrementAndGet();
+            sendAndComplete(request, result, pendingRequests, settled, true);
+        });
+
+        return result;
+    }
+
+    public long getRequestsCount() {
+        return _requestsCount.get();
+    }
+
+    public long getHedgesCount() {
+        return _hedgesCount.get();
+    }
+
+    public long getHedgeWinsCount() {
+        return _hedgeWinsCount.get();
+    }
+
+    public long getHedgeDelayMillis() {
+        return _hedgeDelayMillis;
+    }
+
+    private void sendAndComplete(HttpRequest request, CompletableFuture<ScaResponse> result, AtomicInteger pendingRequests, AtomicBoolean settled, boolean isHedge) {
+        var startTime = System.nanoTime();
+
+        CompletableFuture<ScaResponse> response;
+        try {
+            response = _delegate.sendAsync(request);
+        } catch (Exception ex) {
+            response = CompletableFuture.failedFuture(ex);
+        }
+
+        response.whenComplete((scaResponse, exception) -> {
+            var remaining = pendingRequests.decrementAndGet();
+
+            if (exception == null) {
+                recordLatency(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+                if (settled.compareAndSet(false, true)) {
+                    if (isHedge) {
+                        _hedgeWinsCount.incrementAndGet();
+                    }
+                    result.complete(scaResponse);
+                }
+            } else if (remaining == 0 && settled.compareAndSet(false, true)) {
+                result.completeExceptionally(exception);
+            }
+        });
+    }
+
+    private void addBudget() {
+        _budget.accumulateAndGet(_budgetPerRequest, (current, increment) -> Math.min(current + increment, MaxBudget));
+    }
+
+    private boolean tryConsumeBudget() {
+        while (true) {
+            var current = _budget.get();
+            if (current < HedgeCost) {
+                return false;
+            }
+
+            if (_budget.compareAndSet(current, current - HedgeCost)) {
+                return true;
+            }
+        }
+    }
+
+    private void recordLatency(long latencyMillis) {
+        var count = _latenciesCount.getAndIncrement();
+        _latencies.set((int) (count % LatencySamples), latencyMillis);
+
+        if ((count + 1) % PercentileRefreshInterval == 0) {
+            refreshHedgeDelay(Math.min(count + 1, LatencySamples));
+        }
+    }
+
+    private void refreshHedgeDelay(long samplesCount) {
+        var samples = new long[(int) samplesCount];
+        for (var i = 0; i < samples.length; i++) {
+            samples[i] = _latencies.get(i);
+        }
+        Arrays.sort(samples);
+
+        var index = (int) Math.ceil(_percentile / 100 * samples.length) - 1;
+        _hedgeDelayMillis = Math.max(samples[Math.max(index, 0)], _minDelayMillis);
+    }
+
+    private static double getNumber(PluginConfiguration configuration, ConfigurationEntry entry) {
+        try {
+            return Double.parseDouble(configuration.getPropertyOrDefault(entry).trim());
+        } catch (Exception ex) {
+            return Double.parseDouble(entry.defaultValue());
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.checkmarx.sca.communication.transport;
+
+import com.checkmarx.sca.communication.models.ScaResponse;
+
+import javax.annotation.Nonnull;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.CompletableFuture;
+
+public class HttpClientTransport implements IScaTransport {
+    private final HttpClient _httpClient;
+
+    public HttpClientTransport() {
+        _httpClient = HttpClient.newHttpClient();
+    }
+
+    @Override
+    public CompletableFuture<ScaResponse> sendAsync(@Nonnull HttpRequest request) {
+        return _httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .thenApply(response -> new ScaResponse(response.statusCode(), response.body()));
+    }
+}
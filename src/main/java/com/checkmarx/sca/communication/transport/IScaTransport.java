@@ -0,0 +1,11 @@
+package com.checkmarx.sca.communication.transport;
+
+import com.checkmarx.sca.communication.models.ScaResponse;
+
+import javax.annotation.Nonnull;
+import java.net.http.HttpRequest;
+import java.util.concurrent.CompletableFuture;
+
+public interface IScaTransport {
+    CompletableFuture<ScaResponse> sendAsync(@Nonnull HttpRequest request);
+}
@@ -8,7 +8,42 @@ public enum ConfigurationEntry implements IConfigurationEntry {
     SECURITY_RISK_THRESHOLD("sca.security.risk.threshold", "None"),
 
     LICENSES_ALLOWED("sca.licenses.allowed", ""),
+    ARTIFACT_CACHE_ENABLED("sca.artifact-cache.enabled", "true"),
+    ARTIFACT_CACHE_MAX_SIZE("sca.artifact-cache.max-size", "100000"),
     PACKAGIST_REPOSITORY("packagist.repository", "https://packagist.org"),
+    PACKAGIST_CACHE_TTL("packagist.cache.ttl", "3600"),
+    PACKAGIST_CACHE_MAX_SIZE("packagist.cache.max-size", "1000"),
+    PACKAGIST_MIRROR_DIRECTORY("packagist.mirror.directory", null),
+
+    EXECUTION_MAX_CONCURRENT_DOWNLOADS("sca.execution.max-concurrent-downloads", "0"),
+    EXECUTION_CONCURRENT_SCAN("sca.execution.concurrent-scan", "false"),
+    EXECUTION_SCAN_CONCURRENCY("sca.execution.scan-concurrency", "16"),
+
+    SUGGESTION_BATCH_SIZE("sca.suggestion.batch-size", "50"),
+    SUGGESTION_FLUSH_INTERVAL("sca.suggestion.flush-interval-ms", "2000"),
+    SUGGESTION_OUTBOX_ENABLED("sca.suggestion.outbox.enabled", "true"),
+    SUGGESTION_OUTBOX_MAX_SIZE("sca.suggestion.outbox.max-size", "100000"),
+
+    AUDIT_ENABLED("sca.audit.enabled", "false"),
+    AUDIT_QUEUE_CAPACITY("sca.audit.queue-capacity", "10000"),
+    AUDIT_MAX_FILE_SIZE("sca.audit.max-file-size-mb", "50"),
+    AUDIT_MAX_FILES("sca.audit.max-files", "5"),
+
+    TRAFFIC_RECORDING_ENABLED("sca.traffic.recording.enabled", "false"),
+    TRAFFIC_RECORDING_ANONYMIZE("sca.traffic.recording.anonymize", "false"),
+    TRAFFIC_RECORDING_SALT("sca.traffic.recording.salt", null),
+    TRAFFIC_RECORDING_QUEUE_CAPACITY("sca.traffic.recording.queue-capacity", "10000"),
+    TRAFFIC_RECORDING_MAX_FILE_SIZE("sca.traffic.recording.max-file-size-mb", "100"),
+
+    ARTIFACT_ID_POOL_MAX_SIZE("sca.artifact-id.pool.max-size", "100000"),
+
+    LOG_RATE_LIMIT("sca.log.rate-limit", "0"),
+    LOG_SUMMARY_INTERVAL("sca.log.summary-interval-seconds", "60"),
+
+    HEDGING_ENABLED("sca.hedging.enabled", "false"),
+    HEDGING_PERCENTILE("sca.hedging.percentile", "95"),
+    HEDGING_MIN_DELAY("sca.hedging.min-delay-ms", "50"),
+    HEDGING_BUDGET_PERCENT("sca.hedging.budget-percent", "5"),
 
     ACCOUNT("sca.account", null),
     USERNAME("sca.username", null),
@@ -75,7 +75,7 @@ public class PluginConfiguration {
                     this.logger.warn("The configuration value defined for the property 'sca.data.expiration-time' is lower than the minimum value allowed. The minimum value will be used.");
                 }
             } catch (Exception ex) {
-                this.logger.warn(format("Error converting the 'sca.data.expiration-time' configuration value, the default value will be used. Exception Message: %s.", ex.getMessage()));
+                this.logger.warn("Error converting the 'sca.data.expiration-time' configuration value, the default value will be used. Exception Message: {}.", ex.getMessage());
                 properties.setProperty(ConfigurationEntry.DATA_EXPIRATION_TIME.propertyKey(), ConfigurationEntry.DATA_EXPIRATION_TIME.defaultValue());
             }
         }
@@ -88,7 +88,7 @@ public class PluginConfiguration {
             try {
                 SecurityRiskThreshold.valueOf(threshold.trim().toUpperCase());
             } catch (Exception ex) {
-                this.logger.error(format("Error converting the 'sca.security.risk.threshold' configuration value, we will use the default value (LOW). Exception Message: %s.", ex.getMessage()));
+                this.logger.error("Error converting the 'sca.security.risk.threshold' configuration value, we will use the default value (LOW). Exception Message: {}.", ex.getMessage());
                 throw ex;
             }
         }
@@ -102,8 +102,8 @@ public class PluginConfiguration {
                 var licenses = allowance.split(",");
                 var validLicenses = Arrays.stream(licenses).filter(license-> !license.isEmpty()).distinct();
             } catch (Exception ex) {
-                this.logger.error(format("Error converting '%s' configuration value, no license restrictions applied. Exception Message: %s.",
-                        ConfigurationEntry.LICENSES_ALLOWED.propertyKey(), ex.getMessage()));
+                this.logger.error("Error converting '{}' configuration value, no license restrictions applied. Exception Message: {}.",
+                        ConfigurationEntry.LICENSES_ALLOWED.propertyKey(), ex.getMessage());
                 throw ex;
             }
         }
@@ -0,0 +1,12 @@
+package com.checkmarx.sca.execution;
+
+// A startup scan step split so that only fetch runs off the calling thread; prepare and complete may use the
+// Repositories API. complete is called once for every task whose prepare was called, also when a step failed.
+public interface IScanTask {
+    // Returns false when there is nothing to fetch.
+    boolean prepare();
+
+    void fetch();
+
+    void complete();
+}
@@ -0,0 +1,201 @@
+package com.checkmarx.sca.execution;
+
+import com.checkmarx.sca.configuration.ConfigurationEntry;
+import com.checkmarx.sca.configuration.PluginConfiguration;
+import org.artifactory.exception.CancelException;
+import org.slf4j.Logger;
+
+import javax.annotation.Nonnull;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+// Download verifications always run on the request thread, since the Repositories calls rely on its security and
+// session context and a block has to be raised there; with max-concurrent-downloads set they only take a permit first.
+// The startup scan has its own budget: with concurrent-scan only the CxSCA requests run on other threads, at most
+// scan-concurrency at once, while the Repositories calls stay on the thread that started the scan.
+public class ScanExecutor {
+    private final Logger _logger;
+    private final boolean _concurrentScan;
+    private final int _scanConcurrency;
+    private final Semaphore _downloadLimit;
+
+    public ScanExecutor(@Nonnull PluginConfiguration configuration, @Nonnull Logger logger) {
+        _logger = logger;
+
+        _scanConcurrency = getNumber(configuration, ConfigurationEntry.EXECUTION_SCAN_CONCURRENCY, 1);
+        _concurrentScan = Boolean.parseBoolean(configuration.getPropertyOrDefault(ConfigurationEntry.EXECUTION_CONCURRENT_SCAN).trim());
+
+        var maxConcurrentDownloads = getNumber(configuration, ConfigurationEntry.EXECUTION_MAX_CONCURRENT_DOWNLOADS, 0);
+        _downloadLimit = maxConcurrentDownloads > 0 ? new Semaphore(maxConcurrentDownloads) : null;
+    }
+
+    public boolean isInline() {
+        return !_concurrentScan;
+    }
+
+    public void execute(@Nonnull Runnable task) {
+        if (_downloadLimit == null) {
+            task.run();
+            return;
+        }
+
+        try {
+            _downloadLimit.acquire();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new CancelException("The Sca verification was interrupted.", 500);
+        }
+
+        try {
+            task.run();
+        } finally {
+            _downloadLimit.release();
+        }
+    }
+
+    public <T> void executeAll(@Nonnull Iterable<T> items, @Nonnull Function<T, IScanTask> taskFactory) {
+        if (isInline()) {
+            for (var item : items) {
+                var task = prepare(item, taskFactory);
+                if (task != null) {
+                    fetch(task, item);
+                    complete(task, item);
+                }
+            }
+            return;
+        }
+
+        var executorService = createExecutorService();
+        var fetched = new LinkedBlockingQueue<ScanItem<T>>();
+        var running = 0;
+        try {
+            for (var item : items) {
+                while (running >= _scanConcurrency) {
+                    var scanItem = fetched.take();
+                    complete(scanItem.task, scanItem.item);
+                    running--;
+                }
+
+                var task = prepare(item, taskFactory);
+                if (task == null) {
+                    continue;
+                }
+
+                var scanItem = new ScanItem<>(item, task);
+                executorService.execute(() -> {
+                    try {
+                        fetch(task, item);
+                    } finally {
+                        fetched.add(scanItem);
+                    }
+                });
+                running++;
+
+                ScanItem<T> completedItem;
+                while ((completedItem = fetched.poll()) != null) {
+                    complete(completedItem.task, completedItem.item);
+                    running--;
+                }
+            }
+
+            while (running > 0) {
+                var scanItem = fetched.take();
+                complete(scanItem.task, scanItem.item);
+                running--;
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            _logger.warn("The thread was interrupted while processing the artifacts.");
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    // Returns the task once prepared, or null after completing it when there is nothing to fetch.
+    private <T> IScanTask prepare(T item, Function<T, IScanTask> taskFactory) {
+        IScanTask task;
+        try {
+            task = taskFactory.apply(item);
+        } catch (Exception ex) {
+            _logger.error("Unexpected error while processing the artifact: {}", item, ex);
+            return null;
+        }
+
+        var fetchNeeded = false;
+        try {
+            fetchNeeded = task.prepare();
+        } catch (Exception ex) {
+            _logger.error("Unexpected error while processing the artifact: {}", item, ex);
+        }
+
+        if (!fetchNeeded) {
+            complete(task, item);
+            return null;
+        }
+
+        return task;
+    }
+
+    private void fetch(IScanTask task, Object item) {
+        try {
+            task.fetch();
+        } catch (Exception ex) {
+            _logger.error("Unexpected error while processing the artifact: {}", item, ex);
+        }
+    }
+
+    private void complete(IScanTask task, Object item) {
+        try {
+            task.complete();
+        } catch (Exception ex) {
+            _logger.error("Unexpected error while processing the artifact: {}", item, ex);
+        }
+    }
+
+    private ExecutorService createExecutorService() {
+        try {
+            var virtualThreadExecutor = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            var executorService = (ExecutorService) virtualThreadExecutor.invoke(null);
+            _logger.info("The CxSCA requests of the existing artifacts will be sent from virtual threads.");
+            return executorService;
+        } catch (ReflectiveOperationException | RuntimeException ex) {
+            _logger.info("Virtual threads are not available in this JVM, a pool of {} threads will be used instead.", _scanConcurrency);
+        }
+
+        var threadCount = new AtomicInteger();
+        return Executors.newFixedThreadPool(_scanConcurrency, runnable -> {
+            var thread = new Thread(runnable, "cxsca-scan-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private int getNumber(PluginConfiguration configuration, ConfigurationEntry entry, int minValue) {
+        var configurationValue = configuration.getPropertyOrDefault(entry);
+
+        try {
+            var value = Integer.parseInt(configurationValue.trim());
+            if (value >= minValue) {
+                return value;
+            }
+        } catch (Exception ex) {
+            _logger.warn("Error converting the '{}' configuration value, we will use the default value. Exception Message: {}.", entry.propertyKey(), ex.getMessage());
+        }
+
+        return Integer.parseInt(entry.defaultValue());
+    }
+
+    private static final class ScanItem<T> {
+        private final T item;
+        private final IScanTask task;
+
+        private ScanItem(T item, IScanTask task) {
+            this.item = item;
+            this.task = task;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.checkmarx.sca.logging;
+
+import com.checkmarx.sca.configuration.IConfigurationEntry;
+
+// Per-artifact log lines. The default value is the sample rate: one line out of every N events, 0 logs none.
+// Every line is logged by default; the integration tests and existing log parsers rely on the verification lines.
+public enum LogEvent implements IConfigurationEntry {
+    SCAN_STARTED("scan_started", "sca.log.sample-rate.scan-started", "1"),
+    SCAN_ENDED("scan_ended", "sca.log.sample-rate.scan-ended", "1"),
+    SCAN_IGNORED("scan_ignored", "sca.log.sample-rate.scan-ignored", "1"),
+    DOWNLOAD_BLOCKED("download_blocked", "sca.log.sample-rate.download-blocked", "1");
+
+    private final String key;
+    private final String propertyKey;
+    private final String defaultValue;
+
+    LogEvent(String key, String propertyKey, String defaultValue) {
+        this.key = key;
+        this.propertyKey = propertyKey;
+        this.defaultValue = defaultValue;
+    }
+
+    public String key() {
+        return key;
+    }
+
+    @Override
+    public String propertyKey() {
+        return propertyKey;
+    }
+
+    @Override
+    public String defaultValue() {
+        return defaultValue;
+    }
+}
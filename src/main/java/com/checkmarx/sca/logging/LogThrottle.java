@@ -0,0 +1,127 @@
+package com.checkmarx.sca.logging;
+
+import com.checkmarx.sca.configuration.ConfigurationEntry;
+import com.checkmarx.sca.configuration.IConfigurationEntry;
+import com.checkmarx.sca.configuration.PluginConfiguration;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import org.slf4j.Logger;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import static java.lang.String.format;
+
+@Singleton
+public class LogThrottle {
+    private final Logger _logger;
+    private final LongSupplier _nanoClock;
+    private final int _rateLimit;
+    private final long _summaryIntervalSeconds;
+    private final EnumMap<LogEvent, EventCounters> _counters = new EnumMap<>(LogEvent.class);
+    private final AtomicLong _nextSummary;
+
+    @Inject
+    public LogThrottle(@Nonnull PluginConfiguration configuration, @Nonnull Logger logger) {
+        this(configuration, logger, System::nanoTime);
+    }
+
+    LogThrottle(@Nonnull PluginConfiguration configuration, @Nonnull Logger logger, @Nonnull LongSupplier nanoClock) {
+        _logger = logger;
+        _nanoClock = nanoClock;
+        _rateLimit = Math.max(getNumber(configuration, ConfigurationEntry.LOG_RATE_LIMIT), 0);
+        _summaryIntervalSeconds = Math.max(getNumber(configuration, ConfigurationEntry.LOG_SUMMARY_INTERVAL), 0);
+        _nextSummary = new AtomicLong(nanoClock.getAsLong() + TimeUnit.SECONDS.toNanos(_summaryIntervalSeconds));
+
+        for (var event : LogEvent.values()) {
+            _counters.put(event, new EventCounters(Math.max(getNumber(configuration, event), 0)));
+        }
+    }
+
+    // Counts the event for the summary and tells whether its own line should be logged.
+    public boolean shouldLog(@Nonnull LogEvent event) {
+        var now = _nanoClock.getAsLong();
+        emitSummaryIfDue(now);
+
+        var counters = _counters.get(event);
+        var occurrence = counters._occurrences.getAndIncrement();
+        counters._windowCount.increment();
+
+        if (counters._sampleRate == 0 || occurrence % counters._sampleRate != 0 || !counters.tryAcquire(now, _rateLimit)) {
+            counters._windowSuppressed.increment();
+            return false;
+        }
+
+        return true;
+    }
+
+    // Only emitted when lines were dropped in the window, so the default configuration keeps its usual output.
+    void emitSummary() {
+        var entries = new ArrayList<String>();
+        var totalSuppressed = 0L;
+        for (var entry : _counters.entrySet()) {
+            var count = entry.getValue()._windowCount.sumThenReset();
+            var suppressed = entry.getValue()._windowSuppressed.sumThenReset();
+            if (count > 0) {
+                entries.add(format("%s=%d (%d not logged)", entry.getKey().key(), count, suppressed));
+            }
+            totalSuppressed += suppressed;
+        }
+
+        if (totalSuppressed > 0) {
+            _logger.info("Artifact verification summary for the last {} seconds: {}", _summaryIntervalSeconds, String.join(", ", entries));
+        }
+    }
+
+    private void emitSummaryIfDue(long now) {
+        if (_summaryIntervalSeconds == 0) {
+            return;
+        }
+
+        var nextSummary = _nextSummary.get();
+        if (now - nextSummary >= 0 && _nextSummary.compareAndSet(nextSummary, now + TimeUnit.SECONDS.toNanos(_summaryIntervalSeconds))) {
+            emitSummary();
+        }
+    }
+
+    private static int getNumber(PluginConfiguration configuration, IConfigurationEntry entry) {
+        try {
+            return Integer.parseInt(configuration.getPropertyOrDefault(entry).trim());
+        } catch (Exception ex) {
+            return Integer.parseInt(entry.defaultValue());
+        }
+    }
+
+    private static final class EventCounters {
+        private final int _sampleRate;
+        private final AtomicLong _occurrences = new AtomicLong();
+        private final LongAdder _windowCount = new LongAdder();
+        private final LongAdder _windowSuppressed = new LongAdder();
+
+        private long _rateWindowStart = Long.MIN_VALUE;
+        private int _rateWindowCount;
+
+        private EventCounters(int sampleRate) {
+            _sampleRate = sampleRate;
+        }
+
+        // At most rateLimit lines per second, 0 means unlimited.
+        private synchronized boolean tryAcquire(long now, int rateLimit) {
+            if (rateLimit == 0) {
+                return true;
+            }
+
+            if (_rateWindowStart == Long.MIN_VALUE || now - _rateWindowStart >= TimeUnit.SECONDS.toNanos(1)) {
+                _rateWindowStart = now;
+                _rateWindowCount = 0;
+            }
+
+            return ++_rateWindowCount <= rateLimit;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.checkmarx.sca.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.checkmarx.sca.ArtifactIdentification")
+@Label("Artifact Identification")
+@Category({"Checkmarx SCA", "Artifactory Plugin"})
+@Description("Building the artifact id from the repository path and layout.")
+public class ArtifactIdentificationEvent extends Event {
+    @Label("Repository Key")
+    public String repoKey;
+
+    @Label("Package Type")
+    public String packageType;
+
+    @Label("Path")
+    public String path;
+
+    @Label("Name")
+    public String name;
+
+    @Label("Version")
+    public String version;
+
+    @Label("Identified")
+    public boolean identified;
+}
@@ -0,0 +1,25 @@
+package com.checkmarx.sca.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.checkmarx.sca.ArtifactProperties")
+@Label("Artifact Properties")
+@Category({"Checkmarx SCA", "Artifactory Plugin"})
+@Description("Read or write of the scan properties of an artifact.")
+public class ArtifactPropertiesEvent extends Event {
+    @Label("Operation")
+    public String operation;
+
+    @Label("Repository Key")
+    public String repoKey;
+
+    @Label("Path")
+    public String path;
+
+    @Label("Property Count")
+    public int propertyCount;
+}
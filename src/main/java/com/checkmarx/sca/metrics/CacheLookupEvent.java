@@ -0,0 +1,25 @@
+package com.checkmarx.sca.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.checkmarx.sca.CacheLookup")
+@Label("Cache Lookup")
+@Category({"Checkmarx SCA", "Artifactory Plugin"})
+@Description("Lookup of previously computed scan data.")
+public class CacheLookupEvent extends Event {
+    @Label("Cache")
+    public String cache;
+
+    @Label("Repository Key")
+    public String repoKey;
+
+    @Label("Package Type")
+    public String packageType;
+
+    @Label("Hit")
+    public boolean hit;
+}
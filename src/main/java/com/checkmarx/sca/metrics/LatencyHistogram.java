@@ -0,0 +1,57 @@
+package com.checkmarx.sca.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+public class LatencyHistogram {
+    // Upper bounds in milliseconds, the last bucket is +Inf.
+    static final long[] BucketBounds = {1, 2, 5, 10, 25, 50, 100, 250, 500, 1_000, 2_500, 5_000, 10_000};
+    private static final long[] BucketBoundsNanos = new long[BucketBounds.length];
+
+    static {
+        for (var i = 0; i < BucketBounds.length; i++) {
+            BucketBoundsNanos[i] = TimeUnit.MILLISECONDS.toNanos(BucketBounds[i]);
+        }
+    }
+
+    private final LongAdder[] _buckets = new LongAdder[BucketBounds.length + 1];
+    private final LongAdder _count = new LongAdder();
+    private final LongAdder _sumNanos = new LongAdder();
+
+    public LatencyHistogram() {
+        for (var i = 0; i < _buckets.length; i++) {
+            _buckets[i] = new LongAdder();
+        }
+    }
+
+    public void record(long elapsedNanos) {
+        var bucket = 0;
+        while (bucket < BucketBoundsNanos.length && elapsedNanos > BucketBoundsNanos[bucket]) {
+            bucket++;
+        }
+
+        _buckets[bucket].increment();
+        _count.increment();
+        _sumNanos.add(elapsedNanos);
+    }
+
+    public long getCount() {
+        return _count.sum();
+    }
+
+    public double getSumSeconds() {
+        return _sumNanos.sum() / 1e9;
+    }
+
+    // Cumulative counts, one per bound plus the +Inf bucket.
+    public long[] getCumulativeCounts() {
+        var counts = new long[_buckets.length];
+        var total = 0L;
+        for (var i = 0; i < _buckets.length; i++) {
+            total += _buckets[i].sum();
+            counts[i] = total;
+        }
+
+        return counts;
+    }
+}
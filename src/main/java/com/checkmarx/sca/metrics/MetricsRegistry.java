@@ -0,0 +1,189 @@
+package com.checkmarx.sca.metrics;
+
+import com.google.gson.GsonBuilder;
+import com.google.inject.Singleton;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.lang.String.format;
+
+@Singleton
+public class MetricsRegistry {
+    public static final String UnknownPackageManager = "unknown";
+    public static final String ErrorStatus = "error";
+
+    private final ConcurrentHashMap<List<String>, LatencyHistogram> _stageLatencies = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<List<String>, LongAdder> _cacheRequests = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<List<String>, LongAdder> _blocks = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<List<String>, LongAdder> _scaResponses = new ConcurrentHashMap<>();
+
+    public void recordStage(@Nonnull PipelineStage stage, String packageManager, long elapsedNanos) {
+        _stageLatencies.computeIfAbsent(List.of(stage.key(), label(packageManager)), key -> new LatencyHistogram())
+                .record(elapsedNanos);
+    }
+
+    public void countCache(@Nonnull String cache, String packageManager, boolean hit) {
+        increment(_cacheRequests, List.of(cache, label(packageManager), hit ? "hit" : "miss"));
+    }
+
+    public void countBlock(@Nonnull String reason, String packageManager) {
+        increment(_blocks, List.of(reason, label(packageManager)));
+    }
+
+    public void countScaResponse(@Nonnull String endpoint, String packageManager, int statusCode) {
+        countScaResponse(endpoint, packageManager, String.valueOf(statusCode));
+    }
+
+    // The status is the response code, or ErrorStatus when the request failed without a response.
+    public void countScaResponse(@Nonnull String endpoint, String packageManager, @Nonnull String status) {
+        increment(_scaResponses, List.of(endpoint, label(packageManager), status));
+    }
+
+    public LatencyHistogram getStageLatency(@Nonnull PipelineStage stage, String packageManager) {
+        return _stageLatencies.get(List.of(stage.key(), label(packageManager)));
+    }
+
+    public long getCacheCount(@Nonnull String cache, String packageManager, boolean hit) {
+        return sum(_cacheRequests, List.of(cache, label(packageManager), hit ? "hit" : "miss"));
+    }
+
+    public long getBlockCount(@Nonnull String reason, String packageManager) {
+        return sum(_blocks, List.of(reason, label(packageManager)));
+    }
+
+    public long getScaResponseCount(@Nonnull String endpoint, String packageManager, int statusCode) {
+        return getScaResponseCount(endpoint, packageManager, String.valueOf(statusCode));
+    }
+
+    public long getScaResponseCount(@Nonnull String endpoint, String packageManager, @Nonnull String status) {
+        return sum(_scaResponses, List.of(endpoint, label(packageManager), status));
+    }
+
+    public String toJson() {
+        var stages = new ArrayList<Map<String, Object>>();
+        for (var entry : new TreeMap<>(toSortable(_stageLatencies)).entrySet()) {
+            var histogram = entry.getValue();
+            var buckets = new LinkedHashMap<String, Long>();
+            var counts = histogram.getCumulativeCounts();
+            for (var i = 0; i < counts.length; i++) {
+                buckets.put(i < LatencyHistogram.BucketBounds.length ? String.valueOf(LatencyHistogram.BucketBounds[i]) : "+Inf", counts[i]);
+            }
+
+            var stage = new LinkedHashMap<String, Object>();
+            stage.put("stage", entry.getKey().get(0));
+            stage.put("packageManager", entry.getKey().get(1));
+            stage.put("count", histogram.getCount());
+            stage.put("sumSeconds", histogram.getSumSeconds());
+            stage.put("bucketsMillis", buckets);
+            stages.add(stage);
+        }
+
+        var metrics = new LinkedHashMap<String, Object>();
+        metrics.put("stages", stages);
+        metrics.put("cacheRequests", toRows(_cacheRequests, "cache", "packageManager", "result"));
+        metrics.put("blocks", toRows(_blocks, "reason", "packageManager"));
+        metrics.put("scaResponses", toRows(_scaResponses, "endpoint", "packageManager", "status"));
+
+        return new GsonBuilder().setPrettyPrinting().create().toJson(metrics);
+    }
+
+    public String toPrometheus() {
+        var builder = new StringBuilder();
+
+        builder.append("# HELP cxsca_stage_duration_seconds Time spent in each stage of the download pipeline.\n");
+        builder.append("# TYPE cxsca_stage_duration_seconds histogram\n");
+        for (var entry : new TreeMap<>(toSortable(_stageLatencies)).entrySet()) {
+            var labels = format("stage=\"%s\",package_manager=\"%s\"", entry.getKey().get(0), entry.getKey().get(1));
+            var histogram = entry.getValue();
+            var counts = histogram.getCumulativeCounts();
+            for (var i = 0; i < counts.length; i++) {
+                var bound = i < LatencyHistogram.BucketBounds.length
+                        ? format(Locale.ROOT, "%.3f", LatencyHistogram.BucketBounds[i] / 1000.0)
+                        : "+Inf";
+                builder.append(format("cxsca_stage_duration_seconds_bucket{%s,le=\"%s\"} %d\n", labels, bound, counts[i]));
+            }
+            builder.append(format(Locale.ROOT, "cxsca_stage_duration_seconds_sum{%s} %.6f\n", labels, histogram.getSumSeconds()));
+            builder.append(format("cxsca_stage_duration_seconds_count{%s} %d\n", labels, histogram.getCount()));
+        }
+
+        appendCounter(builder, "cxsca_cache_requests_total", "Cache lookups by result.",
+                _cacheRequests, "cache", "package_manager", "result");
+        appendCounter(builder, "cxsca_blocks_total", "Downloads blocked by reason.",
+                _blocks, "reason", "package_manager");
+        appendCounter(builder, "cxsca_sca_responses_total", "CxSCA API responses by status code, error when no response was received.",
+                _scaResponses, "endpoint", "package_manager", "status");
+
+        return builder.toString();
+    }
+
+    private static void appendCounter(StringBuilder builder, String name, String help,
+                                      ConcurrentHashMap<List<String>, LongAdder> counters, String... labelNames) {
+        builder.append(format("# HELP %s %s\n", name, help));
+        builder.append(format("# TYPE %s counter\n", name));
+        for (var entry : new TreeMap<>(toSortable(counters)).entrySet()) {
+            var labels = new ArrayList<String>();
+            for (var i = 0; i < labelNames.length; i++) {
+                labels.add(format("%s=\"%s\"", labelNames[i], entry.getKey().get(i)));
+            }
+            builder.append(format("%s{%s} %d\n", name, String.join(",", labels), entry.getValue().sum()));
+        }
+    }
+
+    private static List<Map<String, Object>> toRows(ConcurrentHashMap<List<String>, LongAdder> counters, String... labelNames) {
+        var rows = new ArrayList<Map<String, Object>>();
+        for (var entry : new TreeMap<>(toSortable(counters)).entrySet()) {
+            var row = new LinkedHashMap<String, Object>();
+            for (var i = 0; i < labelNames.length; i++) {
+                row.put(labelNames[i], entry.getKey().get(i));
+            }
+            row.put("count", entry.getValue().sum());
+            rows.add(row);
+        }
+
+        return rows;
+    }
+
+    private static <T> Map<SortableKey, T> toSortable(Map<List<String>, T> map) {
+        var sortable = new LinkedHashMap<SortableKey, T>();
+        map.forEach((key, value) -> sortable.put(new SortableKey(key), value));
+        return sortable;
+    }
+
+    private static void increment(ConcurrentHashMap<List<String>, LongAdder> counters, List<String> key) {
+        counters.computeIfAbsent(key, k -> new LongAdder()).increment();
+    }
+
+    private static long sum(ConcurrentHashMap<List<String>, LongAdder> counters, List<String> key) {
+        var counter = counters.get(key);
+        return counter == null ? 0 : counter.sum();
+    }
+
+    private static String label(String packageManager) {
+        return packageManager == null || packageManager.isBlank() ? UnknownPackageManager : packageManager;
+    }
+
+    private static final class SortableKey implements Comparable<SortableKey> {
+        private final List<String> _values;
+
+        private SortableKey(List<String> values) {
+            _values = values;
+        }
+
+        private String get(int index) {
+            return _values.get(index);
+        }
+
+        @Override
+        public int compareTo(SortableKey other) {
+            return String.join("\u0000", _values).compareTo(String.join("\u0000", other._values));
+        }
+    }
+}
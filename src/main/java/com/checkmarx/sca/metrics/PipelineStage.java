@@ -0,0 +1,23 @@
+package com.checkmarx.sca.metrics;
+
+public enum PipelineStage {
+    BEFORE_DOWNLOAD("before_download"),
+    VIRTUAL_RESOLUTION("virtual_resolution"),
+    SCAN_NOT_NEEDED("scan_not_needed"),
+    ARTIFACT_ID("artifact_id"),
+    ARTIFACT_INFO("artifact_info"),
+    RISK_AGGREGATION("risk_aggregation"),
+    PROPERTIES_WRITE("properties_write"),
+    SECURITY_THRESHOLD("security_threshold"),
+    LICENSE_ALLOWANCE("license_allowance");
+
+    private final String key;
+
+    PipelineStage(String key) {
+        this.key = key;
+    }
+
+    public String key() {
+        return key;
+    }
+}
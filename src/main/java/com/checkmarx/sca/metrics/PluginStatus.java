@@ -0,0 +1,116 @@
+package com.checkmarx.sca.metrics;
+
+import com.google.inject.Singleton;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Live pipeline state kept in atomics, so the hot path only pays an increment and a status read never blocks it.
+@Singleton
+public class PluginStatus {
+    private final Instant _startedAt = Instant.now();
+
+    private final AtomicBoolean _backfillRunning = new AtomicBoolean();
+    private final AtomicLong _backfillTotal = new AtomicLong(-1);
+    private final LongAdder _backfillProcessed = new LongAdder();
+
+    private final AtomicInteger _verificationsInProgress = new AtomicInteger();
+    private final LongAdder _verificationsCompleted = new LongAdder();
+    private final LongAdder _verificationsFailed = new LongAdder();
+
+    private final AtomicInteger _scaRequestsInFlight = new AtomicInteger();
+    private final LongAdder _scaRequests = new LongAdder();
+    private final LongAdder _scaFailures = new LongAdder();
+    private final AtomicInteger _consecutiveScaFailures = new AtomicInteger();
+    private final AtomicLong _lastScaSuccess = new AtomicLong();
+    private final AtomicLong _lastScaFailure = new AtomicLong();
+
+    public void backfillStarted(long total) {
+        _backfillTotal.set(total);
+        _backfillProcessed.reset();
+        _backfillRunning.set(true);
+    }
+
+    public void backfillProcessed() {
+        _backfillProcessed.increment();
+    }
+
+    public void backfillFinished() {
+        _backfillRunning.set(false);
+    }
+
+    public void verificationStarted() {
+        _verificationsInProgress.incrementAndGet();
+    }
+
+    public void verificationFinished(boolean succeeded) {
+        _verificationsInProgress.decrementAndGet();
+        _verificationsCompleted.increment();
+        if (!succeeded) {
+            _verificationsFailed.increment();
+        }
+    }
+
+    public void scaRequestStarted() {
+        _scaRequestsInFlight.incrementAndGet();
+        _scaRequests.increment();
+    }
+
+    // Server errors and transport failures count as failed calls, 4xx answers do not.
+    public void scaRequestFinished(boolean succeeded) {
+        _scaRequestsInFlight.decrementAndGet();
+        if (succeeded) {
+            _consecutiveScaFailures.set(0);
+            _lastScaSuccess.set(System.currentTimeMillis());
+        } else {
+            _scaFailures.increment();
+            _consecutiveScaFailures.incrementAndGet();
+            _lastScaFailure.set(System.currentTimeMillis());
+        }
+    }
+
+    public int getScaRequestsInFlight() {
+        return _scaRequestsInFlight.get();
+    }
+
+    public int getConsecutiveScaFailures() {
+        return _consecutiveScaFailures.get();
+    }
+
+    public Map<String, Object> toMap() {
+        var backfill = new LinkedHashMap<String, Object>();
+        backfill.put("running", _backfillRunning.get());
+        backfill.put("processed", _backfillProcessed.sum());
+        backfill.put("total", _backfillTotal.get());
+
+        var verifications = new LinkedHashMap<String, Object>();
+        verifications.put("inProgress", _verificationsInProgress.get());
+        verifications.put("completed", _verificationsCompleted.sum());
+        verifications.put("failed", _verificationsFailed.sum());
+
+        var sca = new LinkedHashMap<String, Object>();
+        sca.put("inFlightRequests", _scaRequestsInFlight.get());
+        sca.put("requests", _scaRequests.sum());
+        sca.put("failures", _scaFailures.sum());
+        sca.put("consecutiveFailures", _consecutiveScaFailures.get());
+        sca.put("lastSuccess", toTimestamp(_lastScaSuccess.get()));
+        sca.put("lastFailure", toTimestamp(_lastScaFailure.get()));
+
+        var status = new LinkedHashMap<String, Object>();
+        status.put("startedAt", _startedAt.toString());
+        status.put("backfill", backfill);
+        status.put("verifications", verifications);
+        status.put("sca", sca);
+
+        return status;
+    }
+
+    private static String toTimestamp(long epochMillis) {
+        return epochMillis == 0 ? null : Instant.ofEpochMilli(epochMillis).toString();
+    }
+}
@@ -0,0 +1,25 @@
+package com.checkmarx.sca.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.checkmarx.sca.PolicyDecision")
+@Label("Policy Decision")
+@Category({"Checkmarx SCA", "Artifactory Plugin"})
+@Description("Outcome of the download verification of an artifact.")
+public class PolicyDecisionEvent extends Event {
+    @Label("Repository Key")
+    public String repoKey;
+
+    @Label("Package Type")
+    public String packageType;
+
+    @Label("Path")
+    public String path;
+
+    @Label("Decision")
+    public String decision;
+}
@@ -0,0 +1,38 @@
+package com.checkmarx.sca.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.checkmarx.sca.ScaRequest")
+@Label("SCA Request")
+@Category({"Checkmarx SCA", "Artifactory Plugin"})
+@Description("Request sent to the CxSCA API.")
+public class ScaRequestEvent extends Event {
+    @Label("Endpoint")
+    public String endpoint;
+
+    @Label("Package Type")
+    public String packageType;
+
+    @Label("Repository Key")
+    @Description("Repository of the artifact the request was sent for, if any.")
+    public String repoKey;
+
+    @Label("Method")
+    public String method;
+
+    @Label("Status Code")
+    public int statusCode;
+
+    @Label("Error")
+    @Description("Exception type when no response was received.")
+    public String error;
+
+    @Label("Response Size")
+    @DataAmount
+    public long responseBytes;
+}
@@ -1,20 +1,31 @@
 package com.checkmarx.sca.models;
 
-import com.google.gson.annotations.SerializedName;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.regex.Pattern;
 
-public class ArtifactId {
+import static java.lang.String.format;
+
+// Immutable package coordinate. Two ids are equal when they name the same package for CxSCA: package types are
+// compared ignoring case, PyPI names per PEP 503, NuGet names and versions and Composer names ignoring case.
+// The original values are kept in the public fields, the normalized ones only take part in equals and hashCode.
+public final class ArtifactId {
+    private static final Pattern PythonSeparatorsPattern = Pattern.compile("[-_.]+");
 
     public final transient String Name;
     public final transient String Version;
     public final transient String PackageType;
 
-    @SerializedName("identifier")
-    private String _identifier;
+    private final transient String _key;
+    private final transient int _hash;
 
     public ArtifactId(String packageType, String name, String version) {
         Name = name;
         Version = version;
         PackageType = packageType;
+
+        _key = createKey(packageType, name, version);
+        _hash = _key.hashCode();
     }
 
     public boolean isInvalid(){
@@ -23,7 +34,60 @@ public class ArtifactId {
                 || PackageType == null || PackageType.trim().isEmpty();
     }
 
-    public String getIdentifier() {
-        return _identifier;
+    // "packageType:name:version" with the normalized values.
+    public String getKey() {
+        return _key;
+    }
+
+    public static String normalizePythonName(String name) {
+        return PythonSeparatorsPattern.matcher(name).replaceAll("-").toLowerCase(Locale.ROOT);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof ArtifactId)) {
+            return false;
+        }
+
+        var artifactId = (ArtifactId) other;
+        return _hash == artifactId._hash && _key.equals(artifactId._key);
+    }
+
+    @Override
+    public int hashCode() {
+        return _hash;
+    }
+
+    @Override
+    public String toString() {
+        return format("%s:%s:%s", PackageType, Name, Version);
+    }
+
+    private static String createKey(String packageType, String name, String version) {
+        // Missing values become empty ones, so they never match a package actually named "null".
+        var normalizedType = Objects.toString(packageType, "").trim().toLowerCase(Locale.ROOT);
+        var normalizedName = Objects.toString(name, "").trim();
+        var normalizedVersion = Objects.toString(version, "").trim();
+
+        switch (normalizedType) {
+            case "python":
+                normalizedName = normalizePythonName(normalizedName);
+                normalizedVersion = normalizedVersion.toLowerCase(Locale.ROOT);
+                break;
+            case "nuget":
+                normalizedName = normalizedName.toLowerCase(Locale.ROOT);
+                normalizedVersion = normalizedVersion.toLowerCase(Locale.ROOT);
+                break;
+            case "php":
+                normalizedName = normalizedName.toLowerCase(Locale.ROOT);
+                break;
+            default:
+                break;
+        }
+
+        return format("%s:%s:%s", normalizedType, normalizedName, normalizedVersion);
     }
 }
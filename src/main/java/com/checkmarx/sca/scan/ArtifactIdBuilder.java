@@ -1,6 +1,7 @@
 package com.checkmarx.sca.scan;
 
 import com.checkmarx.sca.PackageManager;
+import com.checkmarx.sca.cache.ArtifactIdPool;
 import com.checkmarx.sca.models.ArtifactId;
 import com.google.inject.Inject;
 import org.artifactory.fs.FileLayoutInfo;
@@ -23,7 +24,14 @@ public class ArtifactIdBuilder {
     @Inject
     private ComposerArtifactIdBuilder _composerArtifactIdBuilder;
 
+    @Inject
+    private ArtifactIdPool _artifactIdPool;
+
     public ArtifactId getArtifactId(@Nonnull FileLayoutInfo fileLayoutInfo, @Nonnull RepoPath repoPath, @Nonnull PackageManager packageManager){
+        return _artifactIdPool.intern(buildArtifactId(fileLayoutInfo, repoPath, packageManager));
+    }
+
+    private ArtifactId buildArtifactId(FileLayoutInfo fileLayoutInfo, RepoPath repoPath, PackageManager packageManager){
         var revision = fileLayoutInfo.getBaseRevision();
         var name = fileLayoutInfo.getModule();
 
@@ -93,14 +101,14 @@ public class ArtifactIdBuilder {
                     regex = "(?<name>.*?)\\/@v\\/(?<version>.*)";
                     return parseRepoPath(path, packageManager, regex);
                 default:
-                    _logger.info(format("Trying to parse RepoPath through regex but packageType is not supported. PackageType: %s, Artifact Name: %s", packageManager.packageType(), repoPath.getName()));
-                    _logger.debug(format("Path not supported by regex. Artifact path: %s", repoPath.getPath()));
+                    _logger.info("Trying to parse RepoPath through regex but packageType is not supported. PackageType: {}, Artifact Name: {}", packageManager.packageType(), repoPath.getName());
+                    _logger.debug("Path not supported by regex. Artifact path: {}", repoPath.getPath());
                     return new ArtifactId(packageManager.packageType(), null, null);
             }
 
             return parseRepoPath(repoPath.getPath(), packageManager, regex);
         } catch (Exception ex) {
-            _logger.error(format("There was a problem trying to use a Regex to parse the artifact path. Artifact path: %s", repoPath.getPath()));
+            _logger.error("There was a problem trying to use a Regex to parse the artifact path. Artifact path: {}", repoPath.getPath());
             _logger.debug("Exception", ex);
             return new ArtifactId(packageManager.packageType(), null, null);
         }
@@ -143,9 +151,13 @@ public class ArtifactIdBuilder {
     }
 
     private void LogPackageDebug(String repoPath, PackageManager packageManager, String name, String version) {
-        _logger.debug(format("PackageManager: %s", packageManager.key()));
-        _logger.debug(format("RepoPath: %s", repoPath));
-        _logger.debug(format("Parsed name: %s", name));
-        _logger.debug(format("Parsed version: %s", version));
+        if (!_logger.isDebugEnabled()) {
+            return;
+        }
+
+        _logger.debug("PackageManager: {}", packageManager.key());
+        _logger.debug("RepoPath: {}", repoPath);
+        _logger.debug("Parsed name: {}", name);
+        _logger.debug("Parsed version: {}", version);
     }
 }
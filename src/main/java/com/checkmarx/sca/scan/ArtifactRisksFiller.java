@@ -3,16 +3,26 @@ package com.checkmarx.sca.scan;
 import com.checkmarx.sca.IPackageManager;
 import com.checkmarx.sca.PackageManager;
 import com.checkmarx.sca.PropertiesConstants;
+import com.checkmarx.sca.cache.CanonicalArtifactCache;
 import com.checkmarx.sca.communication.ScaHttpClient;
 import com.checkmarx.sca.communication.exceptions.UnexpectedResponseCodeException;
 import com.checkmarx.sca.configuration.ConfigurationEntry;
 import com.checkmarx.sca.configuration.PluginConfiguration;
+import com.checkmarx.sca.logging.LogEvent;
+import com.checkmarx.sca.logging.LogThrottle;
+import com.checkmarx.sca.metrics.ArtifactIdentificationEvent;
+import com.checkmarx.sca.metrics.ArtifactPropertiesEvent;
+import com.checkmarx.sca.metrics.CacheLookupEvent;
+import com.checkmarx.sca.metrics.MetricsRegistry;
+import com.checkmarx.sca.metrics.PipelineStage;
+import com.checkmarx.sca.metrics.PluginStatus;
 import com.checkmarx.sca.models.ArtifactId;
 import com.checkmarx.sca.models.ArtifactInfo;
 import com.checkmarx.sca.models.PackageAnalysisAggregation;
 import com.google.inject.Inject;
 import org.artifactory.md.Properties;
 import org.artifactory.repo.RepoPath;
+import org.artifactory.repo.RepositoryConfiguration;
 import org.artifactory.repo.Repositories;
 import org.slf4j.Logger;
 
@@ -20,8 +30,7 @@ import javax.annotation.Nonnull;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
-
-import static java.lang.String.format;
+import java.util.concurrent.ExecutionException;
 
 public class ArtifactRisksFiller {
 
@@ -37,63 +46,206 @@ public class ArtifactRisksFiller {
     @Inject
     private PluginConfiguration _configuration;
 
+    @Inject
+    private MetricsRegistry _metrics;
+
+    @Inject
+    private LogThrottle _logThrottle;
+
+    @Inject
+    private PluginStatus _status;
+
     private final Repositories _repositories;
+    private final CanonicalArtifactCache _canonicalArtifactCache;
 
     public ArtifactRisksFiller(@Nonnull Repositories repositories) {
+        this(repositories, null);
+    }
+
+    public ArtifactRisksFiller(@Nonnull Repositories repositories, CanonicalArtifactCache canonicalArtifactCache) {
         _repositories = repositories;
+        _canonicalArtifactCache = canonicalArtifactCache;
     }
 
     public boolean addArtifactRisks(@Nonnull RepoPath repoPath, @Nonnull ArrayList<RepoPath> nonVirtualRepoPaths) {
+        return addArtifactRisks(repoPath, nonVirtualRepoPaths, _repositories.getRepositoryConfiguration(repoPath.getRepoKey()));
+    }
+
+    public boolean addArtifactRisks(@Nonnull RepoPath repoPath, @Nonnull ArrayList<RepoPath> nonVirtualRepoPaths, RepositoryConfiguration repoConfiguration) {
+        var scan = prepareArtifactScan(repoPath, nonVirtualRepoPaths, repoConfiguration);
+        fetchArtifactRisks(scan);
+        return completeArtifactScan(scan);
+    }
+
+    // Reads the repository and the artifact properties, it has to run on a thread with an Artifactory context.
+    public ArtifactScan prepareArtifactScan(@Nonnull RepoPath repoPath, @Nonnull ArrayList<RepoPath> nonVirtualRepoPaths, RepositoryConfiguration repoConfiguration) {
+        _status.verificationStarted();
+
+        var scan = new ArtifactScan(repoPath, nonVirtualRepoPaths);
+        try {
+            prepareArtifactScan(scan, repoConfiguration);
+        } catch (RuntimeException ex) {
+            _status.verificationFinished(false);
+            throw ex;
+        }
+
+        return scan;
+    }
+
+    // Only calls CxSCA, so it can run on any thread.
+    public void fetchArtifactRisks(@Nonnull ArtifactScan scan) {
+        if (!scan.isPending()) {
+            return;
+        }
+
+        if (_logThrottle.shouldLog(LogEvent.SCAN_STARTED)) {
+            _logger.info("Started artifact verification. Artifact name: {}", scan.repoPath.getPath());
+        }
+
+        scan.packageRiskAggregation = scanArtifact(scan.artifactId, scan.repositoryKey, scan.packageManagerLabel);
+    }
+
+    // Writes the risks to the artifact properties, on a thread with an Artifactory context.
+    public boolean completeArtifactScan(@Nonnull ArtifactScan scan) {
+        var risksAdded = false;
+        try {
+            risksAdded = completeArtifactScanInternal(scan);
+            return risksAdded;
+        } finally {
+            _status.verificationFinished(risksAdded);
+        }
+    }
+
+    private void prepareArtifactScan(@Nonnull ArtifactScan scan, RepositoryConfiguration repoConfiguration) {
+        var repoPath = scan.repoPath;
+        var nonVirtualRepoPaths = scan.nonVirtualRepoPaths;
         var repositoryKey = repoPath.getRepoKey();
-        var repoConfiguration = _repositories.getRepositoryConfiguration(repositoryKey);
 
         if (nonVirtualRepoPaths.size() == 0) {
-            _logger.warn(format("Artifact not found in any repository. Artifact name: %s.", repoPath.getName()));
-            return false;
+            _logger.warn("Artifact not found in any repository. Artifact name: {}.", repoPath.getName());
+            scan.result = false;
+            return;
         }
 
-        if (scanIsNotNeeded(nonVirtualRepoPaths)) {
-            _logger.info(format("Scan ignored by cache configuration. Artifact name: %s", repoPath.getName()));
-            return true;
+        var packageManagerLabel = getPackageManagerLabel(repoConfiguration);
+        scan.repositoryKey = repositoryKey;
+        scan.packageManagerLabel = packageManagerLabel;
+
+        var cacheLookupEvent = new CacheLookupEvent();
+        cacheLookupEvent.begin();
+        var startTime = System.nanoTime();
+        var scanIsNotNeeded = scanIsNotNeeded(nonVirtualRepoPaths);
+        _metrics.recordStage(PipelineStage.SCAN_NOT_NEEDED, packageManagerLabel, System.nanoTime() - startTime);
+        _metrics.countCache("scan_result", packageManagerLabel, scanIsNotNeeded);
+        commitCacheLookup(cacheLookupEvent, "scan_result", repositoryKey, packageManagerLabel, scanIsNotNeeded);
+
+        if (scanIsNotNeeded) {
+            if (_logThrottle.shouldLog(LogEvent.SCAN_IGNORED)) {
+                _logger.info("Scan ignored by cache configuration. Artifact name: {}", repoPath.getName());
+            }
+            scan.result = true;
+            return;
         }
 
-        ArtifactId artifactId;
+        ArtifactId artifactId = null;
+        var identificationEvent = new ArtifactIdentificationEvent();
+        identificationEvent.begin();
+        startTime = System.nanoTime();
         try {
             var packageType = repoConfiguration.getPackageType();
             var packageManager = PackageManager.GetPackageType(packageType);
 
             if (FileShouldBeIgnored(repoPath, packageManager)) {
-                _logger.debug(format("Not an artifact should be ignored. File Name: %s", repoPath.getName()));
-                return false;
+                _logger.debug("Not an artifact should be ignored. File Name: {}", repoPath.getName());
+                scan.result = false;
+                return;
             }
 
             var fileLayoutInfo = _repositories.getLayoutInfo(repoPath);
             artifactId = _artifactIdBuilder.getArtifactId(fileLayoutInfo, repoPath, packageManager);
 
             if (artifactId.isInvalid()) {
-                _logger.error(format("The artifact id was not built correctly. PackageType: %s, Name: %s, Version: %s", artifactId.PackageType, artifactId.Name, artifactId.Version));
-                return false;
+                _logger.error("The artifact id was not built correctly. PackageType: {}, Name: {}, Version: {}", artifactId.PackageType, artifactId.Name, artifactId.Version);
+                scan.result = false;
+                return;
             }
         } catch (Exception ex) {
-            _logger.error(format("Exception Message: %s. Artifact Name: %s.", ex.getMessage(), repoPath.getName()), ex);
-            return false;
+            _logger.error("Exception Message: {}. Artifact Name: {}.", ex.getMessage(), repoPath.getName(), ex);
+            scan.result = false;
+            return;
+        } finally {
+            _metrics.recordStage(PipelineStage.ARTIFACT_ID, packageManagerLabel, System.nanoTime() - startTime);
+            commitArtifactIdentification(identificationEvent, repoPath, packageManagerLabel, artifactId);
         }
 
-        _logger.info(format("Started artifact verification. Artifact name: %s", repoPath.getPath()));
+        scan.artifactId = artifactId;
+    }
 
-        var packageRiskAggregation = scanArtifact(artifactId);
+    private boolean completeArtifactScanInternal(@Nonnull ArtifactScan scan) {
+        if (scan.result != null) {
+            return scan.result;
+        }
 
         var risksAddedSuccessfully = false;
-        if (packageRiskAggregation != null) {
-            addArtifactAnalysisInfo(nonVirtualRepoPaths, packageRiskAggregation);
+        if (scan.packageRiskAggregation != null) {
+            var startTime = System.nanoTime();
+            addArtifactAnalysisInfo(scan.nonVirtualRepoPaths, scan.packageRiskAggregation);
+            _metrics.recordStage(PipelineStage.PROPERTIES_WRITE, scan.packageManagerLabel, System.nanoTime() - startTime);
             risksAddedSuccessfully = true;
         }
 
-        _logger.info(format("Ended the artifact verification. Artifact name: %s", repoPath.getPath()));
+        if (_logThrottle.shouldLog(LogEvent.SCAN_ENDED)) {
+            _logger.info("Ended the artifact verification. Artifact name: {}", scan.repoPath.getPath());
+        }
 
         return risksAddedSuccessfully;
     }
 
+    private void commitCacheLookup(CacheLookupEvent event, String cache, String repositoryKey, String packageManagerLabel, boolean hit) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.cache = cache;
+            event.repoKey = repositoryKey;
+            event.packageType = packageManagerLabel;
+            event.hit = hit;
+            event.commit();
+        }
+    }
+
+    private void commitArtifactIdentification(ArtifactIdentificationEvent event, RepoPath repoPath, String packageManagerLabel, ArtifactId artifactId) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.repoKey = repoPath.getRepoKey();
+            event.packageType = packageManagerLabel;
+            event.path = repoPath.getPath();
+            event.identified = artifactId != null && !artifactId.isInvalid();
+            if (artifactId != null) {
+                event.name = artifactId.Name;
+                event.version = artifactId.Version;
+            }
+            event.commit();
+        }
+    }
+
+    private void commitArtifactProperties(ArtifactPropertiesEvent event, String operation, RepoPath repoPath, int propertyCount) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.operation = operation;
+            event.repoKey = repoPath.getRepoKey();
+            event.path = repoPath.getPath();
+            event.propertyCount = propertyCount;
+            event.commit();
+        }
+    }
+
+    private String getPackageManagerLabel(RepositoryConfiguration repoConfiguration) {
+        if (repoConfiguration == null) {
+            return null;
+        }
+
+        return PackageManager.GetPackageType(repoConfiguration.getPackageType()).metricsLabel();
+    }
+
     private boolean scanIsNotNeeded(@Nonnull ArrayList<RepoPath> repoPaths) {
         var expirationTime = getExpirationTime();
 
@@ -112,9 +264,12 @@ public class ArtifactRisksFiller {
                 return false;
             }
 
+            var propertiesEvent = new ArtifactPropertiesEvent();
+            propertiesEvent.begin();
             var properties = _repositories.getProperties(repoPath);
+            commitArtifactProperties(propertiesEvent, "read", repoPath, properties == null ? 0 : properties.size());
             if (properties == null || !allPropertiesDefined(properties)) {
-                _logger.debug(format("There are missing properties, the scan will be performed. Artifact: %s", repoPath.getName()));
+                _logger.debug("There are missing properties, the scan will be performed. Artifact: {}", repoPath.getName());
                 return false;
             }
 
@@ -128,7 +283,7 @@ public class ArtifactRisksFiller {
 
             return Instant.now().compareTo(instantDate) < 0;
         } catch (Exception ex) {
-            _logger.error(format("Unexpected error when checking the last scan date for the artifact: %s", repoPath.getName()), ex);
+            _logger.error("Unexpected error when checking the last scan date for the artifact: {}", repoPath.getName(), ex);
             return false;
         }
     }
@@ -149,7 +304,7 @@ public class ArtifactRisksFiller {
         try {
             return Integer.parseInt(configurationTime);
         } catch (Exception ex) {
-            _logger.warn(format("Error converting the 'sca.data.expiration-time' configuration value, we will use the default value. Exception Message: %s.", ex.getMessage()));
+            _logger.warn("Error converting the 'sca.data.expiration-time' configuration value, we will use the default value. Exception Message: {}.", ex.getMessage());
         }
 
         return Integer.parseInt(ConfigurationEntry.DATA_EXPIRATION_TIME.defaultValue());
@@ -167,41 +322,71 @@ public class ArtifactRisksFiller {
         return notNugetPackage || notGoPackage || notCocoaPodsPackage || jsonFile || htmlFile;
     }
 
-    private PackageAnalysisAggregation scanArtifact(@Nonnull ArtifactId artifactId) {
+    private PackageAnalysisAggregation scanArtifact(@Nonnull ArtifactId artifactId, String repositoryKey, String packageManagerLabel) {
         ArtifactInfo artifactInfo;
+        var startTime = System.nanoTime();
         try {
-            artifactInfo = _scaHttpClient.getArtifactInformation(artifactId.PackageType, artifactId.Name, artifactId.Version);
-            _logger.debug(format("For CxSCA the artifact is identified by %s.", artifactInfo.getId()));
+            artifactInfo = getArtifactInformation(artifactId, repositoryKey, packageManagerLabel);
+            _logger.debug("For CxSCA the artifact is identified by {}.", artifactInfo.getId());
         } catch (Exception ex) {
 
             if (ex instanceof UnexpectedResponseCodeException && ((UnexpectedResponseCodeException)ex).StatusCode == 404) {
-                _logger.error(format("Artifact not found, artifact name: %s. Exception Message: %s.", artifactId.Name, ex.getMessage()));
+                _logger.error("Artifact not found, artifact name: {}. Exception Message: {}.", artifactId.Name, ex.getMessage());
                 return null;
             }
 
-            _logger.error(format("Failed to get artifact information. Exception Message: %s. Artifact Name: %s.", ex.getMessage(), artifactId.Name));
+            _logger.error("Failed to get artifact information. Exception Message: {}. Artifact Name: {}.", ex.getMessage(), artifactId.Name);
             return null;
+        } finally {
+            _metrics.recordStage(PipelineStage.ARTIFACT_INFO, packageManagerLabel, System.nanoTime() - startTime);
         }
 
+        startTime = System.nanoTime();
         try {
-            return _scaHttpClient.getRiskAggregationOfArtifact(artifactInfo.getPackageType(), artifactInfo.getName(), artifactInfo.getVersion());
+            return _scaHttpClient.getRiskAggregationOfArtifact(artifactInfo.getPackageType(), artifactInfo.getName(), artifactInfo.getVersion(), repositoryKey);
         } catch (Exception ex) {
-            _logger.error(format("Failed to get risk aggregation of artifact. Exception Message: %s. Artifact Name: %s.", ex.getMessage(), artifactId.Name));
+            _logger.error("Failed to get risk aggregation of artifact. Exception Message: {}. Artifact Name: {}.", ex.getMessage(), artifactId.Name);
             return null;
+        } finally {
+            _metrics.recordStage(PipelineStage.RISK_AGGREGATION, packageManagerLabel, System.nanoTime() - startTime);
         }
     }
 
+    private ArtifactInfo getArtifactInformation(@Nonnull ArtifactId artifactId, String repositoryKey, String packageManagerLabel) throws ExecutionException, InterruptedException {
+        if (_canonicalArtifactCache != null) {
+            var cacheLookupEvent = new CacheLookupEvent();
+            cacheLookupEvent.begin();
+            var artifactInfo = _canonicalArtifactCache.get(artifactId);
+            _metrics.countCache("canonical_artifact", packageManagerLabel, artifactInfo != null);
+            commitCacheLookup(cacheLookupEvent, "canonical_artifact", repositoryKey, packageManagerLabel, artifactInfo != null);
+            if (artifactInfo != null) {
+                return artifactInfo;
+            }
+        }
+
+        var artifactInfo = _scaHttpClient.getArtifactInformation(artifactId.PackageType, artifactId.Name, artifactId.Version, repositoryKey);
+
+        if (_canonicalArtifactCache != null && artifactInfo.getPackageType() != null
+                && artifactInfo.getName() != null && artifactInfo.getVersion() != null) {
+            _canonicalArtifactCache.put(artifactId, artifactInfo);
+        }
+
+        return artifactInfo;
+    }
+
     private void addArtifactAnalysisInfo(@Nonnull ArrayList<RepoPath> repoPaths, @Nonnull PackageAnalysisAggregation packageAnalysisAggregation) {
         for (var repoPath : repoPaths) {
             try{
                 addArtifactAnalysisInfo(repoPath, packageAnalysisAggregation);
             } catch (Exception ex) {
-                _logger.error(format("Failed to add risks information to the properties. Exception Message: %s. Artifact Name: %s.", ex.getMessage(), repoPath.getName()));
+                _logger.error("Failed to add risks information to the properties. Exception Message: {}. Artifact Name: {}.", ex.getMessage(), repoPath.getName());
             }
         }
     }
 
     private void addArtifactAnalysisInfo(RepoPath repoPath, PackageAnalysisAggregation packageAnalysisAggregation) {
+        var propertiesEvent = new ArtifactPropertiesEvent();
+        propertiesEvent.begin();
 
         var vulnerabilitiesAggregation = packageAnalysisAggregation.getVulnerabilitiesAggregation();
         var licenceTypes = packageAnalysisAggregation.getLicenses();
@@ -215,5 +400,7 @@ public class ArtifactRisksFiller {
         _repositories.setProperty(repoPath, PropertiesConstants.RISK_LEVEL, vulnerabilitiesAggregation.getMaxRiskSeverity());
         _repositories.setProperty(repoPath, PropertiesConstants.LAST_SCAN, Instant.now().toString());
         _repositories.setProperty(repoPath, PropertiesConstants.LICENSE_NAMES, String.join(",",licenceTypes));
+
+        commitArtifactProperties(propertiesEvent, "write", repoPath, 8);
     }
 }
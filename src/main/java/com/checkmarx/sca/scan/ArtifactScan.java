@@ -0,0 +1,30 @@
+package com.checkmarx.sca.scan;
+
+import com.checkmarx.sca.models.ArtifactId;
+import com.checkmarx.sca.models.PackageAnalysisAggregation;
+import org.artifactory.repo.RepoPath;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+
+// The state of one artifact verification between the steps of ArtifactRisksFiller.
+public class ArtifactScan {
+    final RepoPath repoPath;
+    final ArrayList<RepoPath> nonVirtualRepoPaths;
+
+    String repositoryKey;
+    String packageManagerLabel;
+    ArtifactId artifactId;
+    PackageAnalysisAggregation packageRiskAggregation;
+    Boolean result;
+
+    ArtifactScan(@Nonnull RepoPath repoPath, @Nonnull ArrayList<RepoPath> nonVirtualRepoPaths) {
+        this.repoPath = repoPath;
+        this.nonVirtualRepoPaths = nonVirtualRepoPaths;
+    }
+
+    // The risks still have to be requested from CxSCA.
+    public boolean isPending() {
+        return result == null;
+    }
+}
@@ -1,28 +1,35 @@
 package com.checkmarx.sca.scan;
 
 import com.checkmarx.sca.PackageManager;
+import com.checkmarx.sca.cache.ExpiringCache;
 import com.checkmarx.sca.scan.fallbacks.ComposerFallback;
 import com.checkmarx.sca.configuration.ConfigurationEntry;
 import com.checkmarx.sca.configuration.PluginConfiguration;
 import com.checkmarx.sca.models.ArtifactId;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
 import com.google.inject.Inject;
+import com.google.inject.Singleton;
 import org.artifactory.repo.RepoPath;
 import org.jfrog.security.util.Pair;
 import org.slf4j.Logger;
 
 import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.io.InputStreamReader;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
 import java.util.concurrent.ExecutionException;
+import java.util.function.BiPredicate;
 import java.util.regex.Pattern;
 
 import static java.lang.String.format;
 
+@Singleton
 public class ComposerArtifactIdBuilder {
     @Inject
     private Logger _logger;
@@ -30,13 +37,20 @@ public class ComposerArtifactIdBuilder {
     @Inject
     private ComposerFallback _composerFallback;
 
+    @Inject
+    private PackagistMirror _packagistMirror;
+
     private final String _baseUrl;
     private final HttpClient _httpClient;
+    private final ExpiringCache<String, Map<String, String>> _versionsByReferenceCache;
 
     @Inject
     public ComposerArtifactIdBuilder(@Nonnull PluginConfiguration configuration) {
         _baseUrl = configuration.getPropertyOrDefault(ConfigurationEntry.PACKAGIST_REPOSITORY);
 
+        _versionsByReferenceCache = ExpiringCache.fromConfiguration(configuration,
+                ConfigurationEntry.PACKAGIST_CACHE_MAX_SIZE, ConfigurationEntry.PACKAGIST_CACHE_TTL);
+
         _httpClient = HttpClient.newBuilder()
                 .version(HttpClient.Version.HTTP_1_1)
                 .build();
@@ -65,9 +79,9 @@ public class ComposerArtifactIdBuilder {
                 }
             }
 
-            _logger.warn(format("Unable to get artifact version from Composer. Artifact path: %s", repoPath.getPath()));
+            _logger.warn("Unable to get artifact version from Composer. Artifact path: {}", repoPath.getPath());
         } catch (Exception ex) {
-            _logger.error(format("There was a problem trying to get the artifact version from Composer. Artifact path: %s", repoPath.getPath()));
+            _logger.error("There was a problem trying to get the artifact version from Composer. Artifact path: {}", repoPath.getPath());
             _logger.debug("Exception", ex);
         }
 
@@ -80,7 +94,7 @@ public class ComposerArtifactIdBuilder {
         var matcher = pattern.matcher(repoPath.getPath());
 
         if (!matcher.matches()) {
-            _logger.error(format("Unable to parse RepoPath from Composer. Artifact path: %s", repoPath.getPath()));
+            _logger.error("Unable to parse RepoPath from Composer. Artifact path: {}", repoPath.getPath());
             return new Pair<>(null, null);
         }
 
@@ -88,41 +102,77 @@ public class ComposerArtifactIdBuilder {
         var artifactVersion = matcher.group("version");
 
         if (artifactName == null || artifactVersion == null) {
-            _logger.error(format("Unable to parse RepoPath from Composer. Artifact path: %s", repoPath.getPath()));
+            _logger.error("Unable to parse RepoPath from Composer. Artifact path: {}", repoPath.getPath());
             return new Pair<>(null, null);
         }
 
         return new Pair<>(artifactName, artifactVersion);
     }
 
-    private ArtifactId requestPackageInfoFromPackagist(@Nonnull PackageManager packageManager, @Nonnull String packageName, @Nonnull String commitReference) throws ExecutionException, InterruptedException {
+    private ArtifactId requestPackageInfoFromPackagist(@Nonnull PackageManager packageManager, @Nonnull String packageName, @Nonnull String commitReference) throws ExecutionException, InterruptedException, IOException {
+        String usedVersion;
+        if (_packagistMirror.isEnabled()) {
+            usedVersion = _packagistMirror.getVersionsByReference(packageName).get(commitReference.toLowerCase(Locale.ROOT));
+        } else if (_versionsByReferenceCache.isEnabled()) {
+            usedVersion = getVersionsByReference(packageName).get(commitReference.toLowerCase(Locale.ROOT));
+        } else {
+            usedVersion = findVersionOfReference(packageName, commitReference);
+        }
+
+        if (usedVersion == null) {
+            return null;
+        }
+
+        return new ArtifactId(packageManager.packageType(), packageName, usedVersion);
+    }
+
+    private Map<String, String> getVersionsByReference(@Nonnull String packageName) throws ExecutionException, InterruptedException, IOException {
+        var versionsByReference = _versionsByReferenceCache.get(packageName);
+        if (versionsByReference != null) {
+            _logger.debug("Packagist metadata found in cache. Package: {}", packageName);
+            return versionsByReference;
+        }
+
+        var packageVersions = new HashMap<String, String>();
+        var statusCode = readPackageMetadata(packageName, (reference, version) -> {
+            packageVersions.putIfAbsent(reference.toLowerCase(Locale.ROOT), version);
+            return true;
+        });
+
+        if (statusCode == 200 || statusCode == 404) {
+            _versionsByReferenceCache.put(packageName, packageVersions);
+        }
+
+        return packageVersions;
+    }
+
+    private String findVersionOfReference(@Nonnull String packageName, @Nonnull String commitReference) throws ExecutionException, InterruptedException, IOException {
+        var usedVersion = new String[1];
+        readPackageMetadata(packageName, (reference, version) -> {
+            if (commitReference.equalsIgnoreCase(reference)) {
+                usedVersion[0] = version;
+                return false;
+            }
+            return true;
+        });
+
+        return usedVersion[0];
+    }
+
+    private int readPackageMetadata(@Nonnull String packageName, @Nonnull BiPredicate<String, String> visitor) throws ExecutionException, InterruptedException, IOException {
         var request = HttpRequest.newBuilder(URI.create(format("%s/p2/%s.json", _baseUrl, packageName)))
                 .GET()
                 .build();
 
-        var responseFuture = _httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString());
+        var responseFuture = _httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofInputStream());
 
         var response = responseFuture.get();
-        if (response.statusCode() == 200) {
-            JsonElement jElement = JsonParser.parseString(response.body());
-            JsonObject jObject = jElement.getAsJsonObject();
-            var packages = jObject.getAsJsonObject("packages");
-            var versions = packages.getAsJsonArray(packageName);
-
-            for (var vElement : versions) {
-                var version = vElement.getAsJsonObject();
-                var source = version.getAsJsonObject("source");
-
-                if(source != null) {
-                    var reference = source.get("reference").getAsString();
-                    if (commitReference.equalsIgnoreCase(reference)) {
-                        var usedVersion = version.get("version").getAsString();
-                        return new ArtifactId(packageManager.packageType(), packageName, usedVersion);
-                    }
-                }
+        try (var body = response.body()) {
+            if (response.statusCode() == 200) {
+                PackagistMetadataReader.readVersions(new InputStreamReader(body, StandardCharsets.UTF_8), packageName, visitor);
             }
         }
 
-        return null;
+        return response.statusCode();
     }
 }
@@ -31,7 +31,7 @@ public class LicenseAllowanceChecker {
     public void checkLicenseAllowance(@Nonnull RepoPath repoPath, @Nonnull ArrayList<RepoPath> nonVirtualRepoPaths) throws CancelException {
 
         if (nonVirtualRepoPaths.size() > 1) {
-            _logger.warn(format("More than one RepoPath found for the artifact: %s.", repoPath.getName()));
+            _logger.warn("More than one RepoPath found for the artifact: {}.", repoPath.getName());
         }
 
         for (var path : nonVirtualRepoPaths) {
@@ -39,7 +39,7 @@ public class LicenseAllowanceChecker {
             var ignoreThreshold = getIgnoreProperty(path);
 
             if ("true".equalsIgnoreCase(ignoreThreshold)) {
-                _logger.warn(format("Ignoring the License allowance. Artifact Property \"%s\" is \"true\". Artifact Name: %s", IGNORE_LICENSE, repoPath.getName()));
+                _logger.warn("Ignoring the License allowance. Artifact Property \"{}\" is \"true\". Artifact Name: {}", IGNORE_LICENSE, repoPath.getName());
                 return;
             }
         }
@@ -64,7 +64,7 @@ public class LicenseAllowanceChecker {
     private void validateLicenseAllowanceFulfillment(RepoPath repoPath) throws CancelException {
 
         var licenseAllowanceList = getLicenseAllowanceList();
-        _logger.debug(format("License allowance configured: [%s]", String.join(", ", licenseAllowanceList)));
+        _logger.debug("License allowance configured: {}", licenseAllowanceList);
 
         if(licenseAllowanceList.size()== 0) return;
 
@@ -88,7 +88,7 @@ public class LicenseAllowanceChecker {
                 return Arrays.stream(licenses).filter(name -> !name.isBlank())
                         .map(String::trim).collect(Collectors.toSet());
             } catch (Exception ex) {
-                _logger.warn(format("License allowance not configured: %s", allowance));
+                _logger.warn("License allowance not configured: {}", allowance);
                 throw ex;
             }
         }
@@ -0,0 +1,124 @@
+package com.checkmarx.sca.scan;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.function.BiPredicate;
+import java.util.function.Predicate;
+
+public final class PackagistMetadataReader {
+
+    private PackagistMetadataReader() {
+    }
+
+    // Reads the versions of a Packagist p2 document one at a time, without building the JSON tree.
+    // The visitor receives the source reference and the version and returns false to stop reading.
+    public static void readVersions(@Nonnull Reader reader, @Nonnull String packageName, @Nonnull BiPredicate<String, String> visitor) throws IOException {
+        readPackages(reader, packageName::equals, (name, version, reference, sourceUrl) -> visitor.test(reference, version));
+    }
+
+    // Reads the versions of every package of the document accepted by the filter.
+    public static void readPackages(@Nonnull Reader reader, @Nonnull Predicate<String> packageFilter, @Nonnull IVersionVisitor visitor) throws IOException {
+        try (var jsonReader = new JsonReader(reader)) {
+            jsonReader.beginObject();
+            while (jsonReader.hasNext()) {
+                if (!"packages".equals(jsonReader.nextName())) {
+                    jsonReader.skipValue();
+                    continue;
+                }
+
+                jsonReader.beginObject();
+                while (jsonReader.hasNext()) {
+                    var packageName = jsonReader.nextName();
+                    if (!packageFilter.test(packageName)) {
+                        jsonReader.skipValue();
+                        continue;
+                    }
+
+                    if (!readPackageVersions(jsonReader, packageName, visitor)) {
+                        return;
+                    }
+                }
+                jsonReader.endObject();
+            }
+            jsonReader.endObject();
+        }
+    }
+
+    private static boolean readPackageVersions(JsonReader jsonReader, String packageName, IVersionVisitor visitor) throws IOException {
+        // Minified documents only repeat the fields that changed since the previous version.
+        String sourceUrl = null;
+
+        jsonReader.beginArray();
+        while (jsonReader.hasNext()) {
+            String version = null;
+            String reference = null;
+
+            jsonReader.beginObject();
+            while (jsonReader.hasNext()) {
+                switch (jsonReader.nextName()) {
+                    case "version":
+                        version = nextStringOrNull(jsonReader);
+                        break;
+                    case "source":
+                        var source = readSource(jsonReader);
+                        reference = source[0];
+                        sourceUrl = source[1] != null ? source[1] : sourceUrl;
+                        break;
+                    default:
+                        jsonReader.skipValue();
+                }
+            }
+            jsonReader.endObject();
+
+            if (version != null && reference != null && !visitor.visit(packageName, version, reference, sourceUrl)) {
+                return false;
+            }
+        }
+        jsonReader.endArray();
+
+        return true;
+    }
+
+    private static String[] readSource(JsonReader jsonReader) throws IOException {
+        var source = new String[2];
+        if (jsonReader.peek() != JsonToken.BEGIN_OBJECT) {
+            jsonReader.skipValue();
+            return source;
+        }
+
+        jsonReader.beginObject();
+        while (jsonReader.hasNext()) {
+            switch (jsonReader.nextName()) {
+                case "reference":
+                    source[0] = nextStringOrNull(jsonReader);
+                    break;
+                case "url":
+                    source[1] = nextStringOrNull(jsonReader);
+                    break;
+                default:
+                    jsonReader.skipValue();
+            }
+        }
+        jsonReader.endObject();
+
+        return source;
+    }
+
+    private static String nextStringOrNull(JsonReader jsonReader) throws IOException {
+        if (jsonReader.peek() != JsonToken.STRING) {
+            jsonReader.skipValue();
+            return null;
+        }
+
+        return jsonReader.nextString();
+    }
+
+    @FunctionalInterface
+    public interface IVersionVisitor {
+        boolean visit(String packageName, String version, String reference, String sourceUrl);
+    }
+}
@@ -0,0 +1,115 @@
+package com.checkmarx.sca.scan;
+
+import com.checkmarx.sca.configuration.ConfigurationEntry;
+import com.checkmarx.sca.configuration.PluginConfiguration;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import org.slf4j.Logger;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+
+@Singleton
+public class PackagistMirror {
+    private final Logger _logger;
+    private final boolean _enabled;
+    private final Map<String, Map<String, String>> _versionsByReference = new HashMap<>();
+    private final Map<String, String> _packageNamesByRepository = new HashMap<>();
+
+    @Inject
+    public PackagistMirror(@Nonnull PluginConfiguration configuration, @Nonnull Logger logger) {
+        _logger = logger;
+
+        var directory = configuration.getPropertyOrDefault(ConfigurationEntry.PACKAGIST_MIRROR_DIRECTORY);
+        _enabled = directory != null && !directory.isBlank();
+
+        if (_enabled) {
+            loadIndex(Paths.get(directory.trim()));
+        }
+    }
+
+    public boolean isEnabled() {
+        return _enabled;
+    }
+
+    public Map<String, String> getVersionsByReference(@Nonnull String packageName) {
+        return _versionsByReference.getOrDefault(packageName, Map.of());
+    }
+
+    public String getPackageNameByRepository(@Nonnull String repositoryName) {
+        return _packageNamesByRepository.get(repositoryName.toLowerCase(Locale.ROOT));
+    }
+
+    private void loadIndex(Path directory) {
+        var startTime = System.nanoTime();
+
+        if (!Files.isDirectory(directory)) {
+            _logger.error("Packagist mirror directory not found: {}", directory);
+            return;
+        }
+
+        try (var paths = Files.walk(directory)) {
+            for (var file : paths.filter(this::isMetadataFile).collect(Collectors.toList())) {
+                loadMetadataFile(file);
+            }
+        } catch (IOException ex) {
+            _logger.error("Failed to read the Packagist mirror directory: {}", directory, ex);
+        }
+
+        var elapsedMillis = (System.nanoTime() - startTime) / 1_000_000;
+        _logger.info("Packagist mirror loaded. Packages: {}, Time: {} ms", _versionsByReference.size(), elapsedMillis);
+    }
+
+    private boolean isMetadataFile(Path path) {
+        return Files.isRegularFile(path) && path.getFileName().toString().endsWith(".json");
+    }
+
+    private void loadMetadataFile(Path file) {
+        try (var reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            PackagistMetadataReader.readPackages(reader, packageName -> true, (packageName, version, reference, sourceUrl) -> {
+                _versionsByReference.computeIfAbsent(packageName, name -> new HashMap<>())
+                        .putIfAbsent(reference.toLowerCase(Locale.ROOT), version);
+
+                var repositoryName = getRepositoryName(sourceUrl);
+                if (repositoryName != null) {
+                    _packageNamesByRepository.putIfAbsent(repositoryName, packageName);
+                }
+                return true;
+            });
+        } catch (Exception ex) {
+            _logger.warn("Ignoring invalid Packagist mirror file: {}", file);
+            _logger.debug("Exception", ex);
+        }
+    }
+
+    // Reduces "https://github.com/php-fig/cache.git" or "git@github.com:php-fig/cache.git" to "php-fig/cache".
+    static String getRepositoryName(String sourceUrl) {
+        if (sourceUrl == null) {
+            return null;
+        }
+
+        var url = sourceUrl.trim().toLowerCase(Locale.ROOT);
+        while (url.endsWith("/")) {
+            url = url.substring(0, url.length() - 1);
+        }
+        if (url.endsWith(".git")) {
+            url = url.substring(0, url.length() - 4);
+        }
+
+        var segments = url.split("[/:]");
+        if (segments.length < 2 || segments[segments.length - 2].isEmpty() || segments[segments.length - 1].isEmpty()) {
+            return null;
+        }
+
+        return segments[segments.length - 2] + "/" + segments[segments.length - 1];
+    }
+}
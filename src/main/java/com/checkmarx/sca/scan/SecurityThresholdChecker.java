@@ -32,7 +32,7 @@ public class SecurityThresholdChecker {
     public void checkSecurityRiskThreshold(@Nonnull RepoPath repoPath, @Nonnull ArrayList<RepoPath> nonVirtualRepoPaths) throws CancelException {
 
         if (nonVirtualRepoPaths.size() > 1) {
-            _logger.warn(format("More than one RepoPath found for the artifact: %s.", repoPath.getName()));
+            _logger.warn("More than one RepoPath found for the artifact: {}.", repoPath.getName());
         }
 
         for (var path : nonVirtualRepoPaths) {
@@ -40,7 +40,7 @@ public class SecurityThresholdChecker {
             var ignoreThreshold = getIgnoreProperty(path);
 
             if ("true".equalsIgnoreCase(ignoreThreshold)) {
-                _logger.warn(format("Ignoring the security risk threshold. Artifact Property \"%s\" is \"true\". Artifact Name: %s", IGNORE_THRESHOLD, repoPath.getName()));
+                _logger.warn("Ignoring the security risk threshold. Artifact Property \"{}\" is \"true\". Artifact Name: {}", IGNORE_THRESHOLD, repoPath.getName());
                 return;
             }
         }
@@ -65,7 +65,7 @@ public class SecurityThresholdChecker {
     private void validateSecurityRiskThresholdFulfillment(RepoPath repoPath) throws CancelException {
 
         var securityRiskThreshold = getSecurityRiskThreshold();
-        _logger.debug(format("Security risk threshold configured: %s", securityRiskThreshold));
+        _logger.debug("Security risk threshold configured: {}", securityRiskThreshold);
 
         switch (securityRiskThreshold) {
             case LOW:
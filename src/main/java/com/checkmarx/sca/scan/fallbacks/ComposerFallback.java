@@ -1,11 +1,14 @@
 package com.checkmarx.sca.scan.fallbacks;
 
+import com.checkmarx.sca.cache.ExpiringCache;
 import com.checkmarx.sca.configuration.ConfigurationEntry;
 import com.checkmarx.sca.configuration.PluginConfiguration;
+import com.checkmarx.sca.scan.PackagistMirror;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import com.google.inject.Inject;
+import com.google.inject.Singleton;
 import org.slf4j.Logger;
 
 import javax.annotation.Nonnull;
@@ -13,20 +16,28 @@ import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.util.Optional;
 
 import static java.lang.String.format;
 
+@Singleton
 public class ComposerFallback {
 
     @Inject
     private Logger _logger;
 
+    @Inject
+    private PackagistMirror _packagistMirror;
+
     private final String _baseUrl;
     private final HttpClient _httpClient;
+    private final ExpiringCache<String, Optional<String>> _alternativeNamesCache;
 
     @Inject
     public ComposerFallback(@Nonnull PluginConfiguration configuration) {
         _baseUrl = configuration.getPropertyOrDefault(ConfigurationEntry.PACKAGIST_REPOSITORY);
+        _alternativeNamesCache = ExpiringCache.fromConfiguration(configuration,
+                ConfigurationEntry.PACKAGIST_CACHE_MAX_SIZE, ConfigurationEntry.PACKAGIST_CACHE_TTL);
 
         _httpClient = HttpClient.newBuilder()
                 .version(HttpClient.Version.HTTP_1_1)
@@ -42,6 +53,16 @@ public class ComposerFallback {
             return null;
         }
 
+        if (_packagistMirror.isEnabled()) {
+            return _packagistMirror.getPackageNameByRepository(name);
+        }
+
+        var cachedName = _alternativeNamesCache.get(name);
+        if (cachedName != null) {
+            _logger.debug("Composer fallback result found in cache.");
+            return cachedName.orElse(null);
+        }
+
         try {
             var request = HttpRequest.newBuilder(URI.create(format("%s/search.json?q=%s", _baseUrl, arrOfStr[1])))
                     .GET()
@@ -52,18 +73,12 @@ public class ComposerFallback {
             var response = responseFuture.get();
 
             if (response.statusCode() == 200) {
-                JsonElement jElement = JsonParser.parseString(response.body());
-                JsonObject jObject = jElement.getAsJsonObject();
-                var results = jObject.getAsJsonArray("results");
-
-                for (var result : results) {
-                    var packageData = result.getAsJsonObject();
-                    var repository = packageData.get("repository").getAsString();
-
-                    if (repository != null && repository.contains(name)) {
-                        _logger.debug("Composer fallback found new name for the artifact.");
-                        return packageData.get("name").getAsString();
-                    }
+                var alternativeName = findAlternativeName(response.body(), name);
+                _alternativeNamesCache.put(name, Optional.ofNullable(alternativeName));
+
+                if (alternativeName != null) {
+                    _logger.debug("Composer fallback found new name for the artifact.");
+                    return alternativeName;
                 }
             }
         } catch (Exception ex) {
@@ -74,4 +89,21 @@ public class ComposerFallback {
 
         return null;
     }
+
+    private String findAlternativeName(String body, String name) {
+        JsonElement jElement = JsonParser.parseString(body);
+        JsonObject jObject = jElement.getAsJsonObject();
+        var results = jObject.getAsJsonArray("results");
+
+        for (var result : results) {
+            var packageData = result.getAsJsonObject();
+            var repository = packageData.get("repository").getAsString();
+
+            if (repository != null && repository.contains(name)) {
+                return packageData.get("name").getAsString();
+            }
+        }
+
+        return null;
+    }
 }
@@ -0,0 +1,31 @@
+package com.checkmarx.sca.suggestion;
+
+import com.checkmarx.sca.models.ArtifactId;
+import org.artifactory.repo.RepoPath;
+
+import javax.annotation.Nonnull;
+
+import static java.lang.String.format;
+
+public class PendingSuggestion {
+    private final ArtifactId _artifactId;
+    private final RepoPath _repoPath;
+
+    public PendingSuggestion(@Nonnull ArtifactId artifactId, @Nonnull RepoPath repoPath) {
+        _artifactId = artifactId;
+        _repoPath = repoPath;
+    }
+
+    public ArtifactId getArtifactId() {
+        return _artifactId;
+    }
+
+    public RepoPath getRepoPath() {
+        return _repoPath;
+    }
+
+    // "repoKey:path", one suggestion is kept per stored file.
+    public String getPathKey() {
+        return format("%s:%s", _repoPath.getRepoKey(), _repoPath.getPath());
+    }
+}
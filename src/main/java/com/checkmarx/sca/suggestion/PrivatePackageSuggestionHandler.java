@@ -1,38 +1,45 @@
 package com.checkmarx.sca.suggestion;
 
 import com.checkmarx.sca.PackageManager;
-import com.checkmarx.sca.communication.ScaHttpClient;
-import com.checkmarx.sca.communication.exceptions.UnexpectedResponseCodeException;
 import com.checkmarx.sca.models.ArtifactId;
 import com.checkmarx.sca.scan.ArtifactIdBuilder;
 import com.google.inject.Inject;
 import org.artifactory.exception.CancelException;
+import org.artifactory.repo.LocalRepositoryConfiguration;
 import org.artifactory.repo.RepoPath;
 import org.artifactory.repo.Repositories;
 import org.slf4j.Logger;
 
 import javax.annotation.Nonnull;
 import java.util.ArrayList;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutionException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 import static java.lang.String.format;
 
 public class PrivatePackageSuggestionHandler {
 
     public static final String SUGGESTED_KEY = "CxSCA.PrivatePackageSuggested";
+    private static final int MaxTrackedSuggestions = 100_000;
+    private static final int MaxMarkedPathsPerHook = 10;
 
     @Inject
     private Logger _logger;
 
-    @Inject
-    private ScaHttpClient _scaHttpClient;
-
     @Inject
     private ArtifactIdBuilder _artifactIdBuilder;
 
     private final Repositories _repositories;
     private final boolean _noAuthConfiguration;
+    private SuggestionQueue _suggestionQueue;
+    private final ConcurrentHashMap<String, Boolean> _localRepositories = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<RepoPath> _acceptedPaths = new ConcurrentLinkedQueue<>();
+    private final Map<String, Boolean> _suggestedPaths = createSuggestedMap();
+    // true once CxSCA accepted the coordinates, false while they only wait in the outbox.
+    private final Map<ArtifactId, Boolean> _suggestedArtifacts = createSuggestedMap();
 
     @Inject
     public PrivatePackageSuggestionHandler(@Nonnull Repositories repositories, boolean hasAuthConfiguration) {
@@ -40,6 +47,58 @@ public class PrivatePackageSuggestionHandler {
         _noAuthConfiguration = !hasAuthConfiguration;
     }
 
+    // Accepted batches are reported on the flush thread, which runs outside of any Artifactory request. The property
+    // is written later by the cxscaMarkSuggestedPackages job or a few at a time by the next uploads, the path is only
+    // remembered as suggested until then.
+    @Inject
+    public void setSuggestionQueue(@Nonnull SuggestionQueue suggestionQueue) {
+        _suggestionQueue = suggestionQueue;
+        _suggestionQueue.setSuggestedListener(suggestion -> {
+            _suggestedArtifacts.put(suggestion.getArtifactId(), Boolean.TRUE);
+            trackSuggestedPath(suggestion.getRepoPath());
+            _acceptedPaths.add(suggestion.getRepoPath());
+        });
+    }
+
+    // The suggestions left in the outbox by the previous run are sent again by the queue, the startup sweep and the
+    // uploads do not have to look at their paths or send their coordinates once more.
+    public void trackQueuedSuggestions(@Nonnull SuggestionOutbox outbox) {
+        for (var suggestion : outbox.getArtifactIdsByPath().entrySet()) {
+            _suggestedPaths.putIfAbsent(suggestion.getKey(), Boolean.TRUE);
+            _suggestedArtifacts.putIfAbsent(suggestion.getValue(), Boolean.FALSE);
+        }
+    }
+
+    // Must run on a hook, job or plugin script thread.
+    public void markSuggestedPaths() {
+        markSuggestedPaths(Integer.MAX_VALUE);
+    }
+
+    private void markSuggestedPaths(int maxCount) {
+        RepoPath repoPath;
+        for (var count = 0; count < maxCount && (repoPath = _acceptedPaths.poll()) != null; count++) {
+            try {
+                if (!markResourceAsSuggested(repoPath)) {
+                    _logger.info("Failed to mark the package as suggested.");
+                }
+            } catch (Exception ex) {
+                _logger.error("Failed to mark the package as suggested. Exception Message: {}.", ex.getMessage());
+            }
+        }
+    }
+
+    // Cheap check for the startup sweep: only artifacts stored in local repositories can be private packages.
+    public boolean isSuggestionCandidate(@Nonnull RepoPath repoPath) {
+        if (_noAuthConfiguration)
+            return false;
+
+        if (isKnownAsSuggested(repoPath))
+            return false;
+
+        return _localRepositories.computeIfAbsent(repoPath.getRepoKey(), repositoryKey ->
+                _repositories.getRepositoryConfiguration(repositoryKey) instanceof LocalRepositoryConfiguration);
+    }
+
     public void suggestPrivatePackage(
             @Nonnull RepoPath repoPath,
             @Nonnull ArrayList<RepoPath> nonVirtualRepoPaths) throws CancelException {
@@ -47,6 +106,11 @@ public class PrivatePackageSuggestionHandler {
         if (_noAuthConfiguration)
             return;
 
+        markSuggestedPaths(MaxMarkedPathsPerHook);
+
+        if (isKnownAsSuggested(repoPath))
+            return;
+
         var isSuggested = _repositories.hasProperty(repoPath, SUGGESTED_KEY);
         if (isSuggested)
             return;
@@ -67,29 +131,43 @@ public class PrivatePackageSuggestionHandler {
             artifactId = _artifactIdBuilder.getArtifactId(fileLayoutInfo, repoPath, packageManager);
 
             if (artifactId.isInvalid()) {
-                _logger.error(format("The artifact id was not built correctly. PackageType: %s, Name: %s, Version: %s", artifactId.PackageType, artifactId.Name, artifactId.Version));
+                _logger.error("The artifact id was not built correctly. PackageType: {}, Name: {}, Version: {}", artifactId.PackageType, artifactId.Name, artifactId.Version);
                 return;
             }
 
-            var succeeded = performSuggestion(artifactId);
-
-            if(succeeded && !markResourceAsSuggested(repoPath)) {
-                _logger.info("Failed to mark the package as suggested.");
+            var acceptedCoordinates = _suggestedArtifacts.get(artifactId);
+            if (acceptedCoordinates == null) {
+                _suggestionQueue.enqueue(artifactId, repoPath);
+            } else if (acceptedCoordinates) {
+                // The same package was accepted through another path, only this path has to be marked.
+                trackSuggestedPath(repoPath);
+                _acceptedPaths.add(repoPath);
             }
         } catch (Exception ex) {
-            _logger.error(format("Exception Message: %s. Artifact Name: %s.", ex.getMessage(), repoPath.getName()), ex);
+            _logger.error("Exception Message: {}. Artifact Name: {}.", ex.getMessage(), repoPath.getName(), ex);
         }
     }
 
-    private Boolean performSuggestion(ArtifactId artifactId) {
-        try {
-            var output = _scaHttpClient.suggestPrivatePackage(artifactId);
-            _logger.info("The package was suggested as potential private.");
-            return output;
-        } catch (ExecutionException | UnexpectedResponseCodeException | InterruptedException exc){
-            _logger.warn("Failed to publish private package suggestion", exc);
-            return false;
-        }
+    // The least recently checked paths are forgotten first, so a sweep keeps the paths it is going through.
+    private void trackSuggestedPath(RepoPath repoPath) {
+        _suggestedPaths.put(getPathKey(repoPath), Boolean.TRUE);
+    }
+
+    private boolean isKnownAsSuggested(RepoPath repoPath) {
+        return _suggestedPaths.get(getPathKey(repoPath)) != null;
+    }
+
+    private static <K> Map<K, Boolean> createSuggestedMap() {
+        return Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Boolean> eldest) {
+                return size() > MaxTrackedSuggestions;
+            }
+        });
+    }
+
+    private static String getPathKey(RepoPath repoPath) {
+        return format("%s:%s", repoPath.getRepoKey(), repoPath.getPath());
     }
 
     private boolean markResourceAsSuggested(RepoPath repoPath) {
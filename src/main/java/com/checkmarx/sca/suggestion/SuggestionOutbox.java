@@ -0,0 +1,296 @@
+package com.checkmarx.sca.suggestion;
+
+import com.checkmarx.sca.configuration.ConfigurationEntry;
+import com.checkmarx.sca.models.ArtifactId;
+import com.google.gson.Gson;
+import com.google.gson.annotations.SerializedName;
+import org.artifactory.repo.RepoPath;
+import org.artifactory.repo.RepoPathFactory;
+import org.slf4j.Logger;
+
+import javax.annotation.Nonnull;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static java.lang.String.format;
+
+// Suggestions that were not accepted yet, kept in a JSON lines file until the SCA API accepts them.
+// Suggestions are appended when they are queued and a removal line is appended once they were accepted, so the
+// ones still waiting in memory survive a restart too. The file is rewritten with the remaining entries once it holds
+// twice as many lines. Only failed suggestions and the ones loaded at startup are handed out for a retry.
+// Above maxEntries the oldest suggestions are dropped, they are suggested again when the artifact is uploaded.
+public class SuggestionOutbox implements Closeable {
+    private static final int MinCompactionLines = 1_000;
+
+    private final Path _file;
+    private final Logger _logger;
+    private final int _maxEntries;
+    private final Gson _gson = new Gson();
+    private final LinkedHashMap<String, Entry> _entries = new LinkedHashMap<>();
+
+    private BufferedWriter _writer;
+    private long _fileLines;
+
+    public SuggestionOutbox(@Nonnull Path file, @Nonnull Logger logger) {
+        this(file, logger, Integer.parseInt(ConfigurationEntry.SUGGESTION_OUTBOX_MAX_SIZE.defaultValue()));
+    }
+
+    public SuggestionOutbox(@Nonnull Path file, @Nonnull Logger logger, int maxEntries) {
+        _file = file;
+        _logger = logger;
+        _maxEntries = Math.max(maxEntries, 1);
+
+        load();
+        compactIfNeeded();
+    }
+
+    public synchronized void add(@Nonnull Collection<PendingSuggestion> suggestions) {
+        var lines = new ArrayList<String>(suggestions.size());
+        for (var suggestion : suggestions) {
+            var entry = new Entry(suggestion);
+            _entries.put(entry.getKey(), entry);
+            lines.add(_gson.toJson(entry));
+        }
+
+        dropOldestEntries();
+        append(lines);
+    }
+
+    // The suggestions were sent and failed, they are handed out by peek from now on.
+    public synchronized void keepForRetry(@Nonnull Collection<PendingSuggestion> suggestions) {
+        var missingSuggestions = suggestions.stream()
+                .filter(suggestion -> !_entries.containsKey(new Entry(suggestion).getKey()))
+                .collect(Collectors.toList());
+        add(missingSuggestions);
+
+        for (var suggestion : suggestions) {
+            var entry = _entries.get(new Entry(suggestion).getKey());
+            if (entry != null) {
+                entry.retry = true;
+            }
+        }
+    }
+
+    public synchronized List<PendingSuggestion> peek(int maxCount) {
+        return _entries.values().stream()
+                .filter(entry -> entry.retry)
+                .limit(maxCount)
+                .map(Entry::toPendingSuggestion)
+                .collect(Collectors.toList());
+    }
+
+    public synchronized void remove(@Nonnull Collection<PendingSuggestion> suggestions) {
+        var lines = new ArrayList<String>(suggestions.size());
+        for (var suggestion : suggestions) {
+            var entry = _entries.remove(new Entry(suggestion).getKey());
+            if (entry != null) {
+                lines.add(_gson.toJson(entry.toRemoval()));
+            }
+        }
+
+        append(lines);
+    }
+
+    // Coordinates of the waiting suggestions by "repoKey:path".
+    public synchronized Map<String, ArtifactId> getArtifactIdsByPath() {
+        var artifactIds = new LinkedHashMap<String, ArtifactId>(_entries.size());
+        for (var entry : _entries.values()) {
+            artifactIds.put(entry.getKey(), entry.toArtifactId());
+        }
+        return artifactIds;
+    }
+
+    public synchronized int size() {
+        return _entries.size();
+    }
+
+    @Override
+    public synchronized void close() {
+        closeWriter();
+    }
+
+    private void load() {
+        if (!Files.exists(_file)) {
+            return;
+        }
+
+        try (var lines = Files.lines(_file, StandardCharsets.UTF_8)) {
+            lines.forEach(line -> {
+                _fileLines++;
+                if (line.isBlank()) {
+                    return;
+                }
+
+                try {
+                    var entry = _gson.fromJson(line, Entry.class);
+                    if (entry == null || !entry.isValid()) {
+                        return;
+                    }
+
+                    if (Boolean.TRUE.equals(entry.removed)) {
+                        _entries.remove(entry.getKey());
+                    } else {
+                        entry.retry = true;
+                        _entries.put(entry.getKey(), entry);
+                    }
+                } catch (Exception ex) {
+                    _logger.debug("Ignoring invalid suggestion outbox line: {}", line);
+                }
+            });
+        } catch (Exception ex) {
+            _logger.warn("Failed to load the suggestion outbox: {}. Exception Message: {}.", _file, ex.getMessage());
+        }
+
+        dropOldestEntries();
+        if (!_entries.isEmpty()) {
+            _logger.info("Suggestion outbox loaded. Pending suggestions: {}", _entries.size());
+        }
+    }
+
+    private void dropOldestEntries() {
+        var dropped = 0;
+        var iterator = _entries.values().iterator();
+        while (_entries.size() > _maxEntries && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+            dropped++;
+        }
+
+        if (dropped > 0) {
+            _logger.warn("The suggestion outbox is full, {} pending suggestions were dropped.", dropped);
+        }
+    }
+
+    private void append(List<String> lines) {
+        if (lines.isEmpty()) {
+            return;
+        }
+
+        try {
+            if (_writer == null) {
+                _writer = Files.newBufferedWriter(_file, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            }
+
+            for (var line : lines) {
+                _writer.write(line);
+                _writer.newLine();
+            }
+            _writer.flush();
+            _fileLines += lines.size();
+        } catch (IOException ex) {
+            _logger.warn("Failed to persist the suggestion outbox: {}. Exception Message: {}.", _file, ex.getMessage());
+            closeWriter();
+        }
+
+        compactIfNeeded();
+    }
+
+    private void compactIfNeeded() {
+        if (_fileLines < 2L * Math.max(_entries.size(), MinCompactionLines)) {
+            return;
+        }
+
+        var lines = new ArrayList<String>(_entries.size());
+        for (var entry : _entries.values()) {
+            lines.add(_gson.toJson(entry));
+        }
+
+        closeWriter();
+        try {
+            var temporaryFile = _file.resolveSibling(_file.getFileName() + ".tmp");
+            Files.write(temporaryFile, lines, StandardCharsets.UTF_8);
+            Files.move(temporaryFile, _file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            _fileLines = lines.size();
+        } catch (IOException ex) {
+            _logger.warn("Failed to compact the suggestion outbox: {}. Exception Message: {}.", _file, ex.getMessage());
+        }
+    }
+
+    private void closeWriter() {
+        if (_writer == null) {
+            return;
+        }
+
+        try {
+            _writer.close();
+        } catch (IOException ex) {
+            _logger.debug("Failed to close the suggestion outbox.", ex);
+        }
+        _writer = null;
+    }
+
+    private static final class Entry {
+        @SerializedName("repoKey")
+        private String repoKey;
+
+        @SerializedName("path")
+        private String path;
+
+        @SerializedName("packageType")
+        private String packageType;
+
+        @SerializedName("name")
+        private String name;
+
+        @SerializedName("version")
+        private String version;
+
+        @SerializedName("removed")
+        private Boolean removed;
+
+        private transient boolean retry;
+
+        private Entry() {
+        }
+
+        private Entry(PendingSuggestion suggestion) {
+            repoKey = suggestion.getRepoPath().getRepoKey();
+            path = suggestion.getRepoPath().getPath();
+            packageType = suggestion.getArtifactId().PackageType;
+            name = suggestion.getArtifactId().Name;
+            version = suggestion.getArtifactId().Version;
+        }
+
+        private boolean isValid() {
+            if (repoKey == null || path == null) {
+                return false;
+            }
+
+            return Boolean.TRUE.equals(removed) || !new ArtifactId(packageType, name, version).isInvalid();
+        }
+
+        private String getKey() {
+            return format("%s:%s", repoKey, path);
+        }
+
+        // Only the key is needed to drop the entry when the file is loaded.
+        private Entry toRemoval() {
+            var removal = new Entry();
+            removal.repoKey = repoKey;
+            removal.path = path;
+            removal.removed = true;
+            return removal;
+        }
+
+        private ArtifactId toArtifactId() {
+            return new ArtifactId(packageType, name, version);
+        }
+
+        private PendingSuggestion toPendingSuggestion() {
+            RepoPath repoPath = RepoPathFactory.create(repoKey, path);
+            return new PendingSuggestion(toArtifactId(), repoPath);
+        }
+    }
+}
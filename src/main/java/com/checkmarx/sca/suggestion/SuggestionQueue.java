@@ -0,0 +1,310 @@
+package com.checkmarx.sca.suggestion;
+
+import com.checkmarx.sca.communication.ScaHttpClient;
+import com.checkmarx.sca.configuration.ConfigurationEntry;
+import com.checkmarx.sca.configuration.PluginConfiguration;
+import com.checkmarx.sca.models.ArtifactId;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import org.artifactory.repo.RepoPath;
+import org.slf4j.Logger;
+
+import javax.annotation.Nonnull;
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+
+@Singleton
+public class SuggestionQueue implements Closeable {
+    private static final Duration InitialRetryDelay = Duration.ofSeconds(30);
+    private static final Duration MaxRetryDelay = Duration.ofMinutes(30);
+
+    @Inject
+    private ScaHttpClient _scaHttpClient;
+
+    private final Logger _logger;
+    private final int _batchSize;
+    private final long _flushIntervalMillis;
+    private final ScheduledThreadPoolExecutor _flushScheduler;
+
+    private final Object _lock = new Object();
+    private final LinkedHashMap<String, PendingSuggestion> _pendingSuggestions = new LinkedHashMap<>();
+    private final Set<String> _sendingPaths = new HashSet<>();
+    private ScheduledFuture<?> _scheduledFlush;
+    private boolean _closed;
+
+    private volatile Consumer<PendingSuggestion> _suggestedListener = suggestion -> { };
+    private volatile SuggestionOutbox _outbox;
+    private ScheduledFuture<?> _scheduledRetry;
+    private Duration _retryDelay = InitialRetryDelay;
+
+    @Inject
+    public SuggestionQueue(@Nonnull PluginConfiguration configuration, @Nonnull Logger logger) {
+        _logger = logger;
+        _batchSize = Math.max(getNumber(configuration, ConfigurationEntry.SUGGESTION_BATCH_SIZE), 1);
+        _flushIntervalMillis = Math.max(getNumber(configuration, ConfigurationEntry.SUGGESTION_FLUSH_INTERVAL), 0);
+
+        _flushScheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+            var thread = new Thread(runnable, "cxsca-suggestion-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        _flushScheduler.setKeepAliveTime(1, TimeUnit.MINUTES);
+        _flushScheduler.allowCoreThreadTimeOut(true);
+        _flushScheduler.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+    }
+
+    public void setSuggestedListener(@Nonnull Consumer<PendingSuggestion> suggestedListener) {
+        _suggestedListener = suggestedListener;
+    }
+
+    // Queued suggestions are written to the outbox until they were accepted. Failed batches are retried from it with
+    // backoff, and after a restart everything it still holds.
+    public void useOutbox(@Nonnull SuggestionOutbox outbox) {
+        _outbox = outbox;
+
+        if (outbox.size() > 0) {
+            scheduleRetry(InitialRetryDelay);
+        }
+    }
+
+    // Returns immediately; the outbox is written and the listener is called on the flush thread, once the batch of
+    // the path was accepted. A path already waiting or being sent is not queued again.
+    public void enqueue(@Nonnull ArtifactId artifactId, @Nonnull RepoPath repoPath) {
+        List<PendingSuggestion> batch = null;
+        boolean closed;
+
+        synchronized (_lock) {
+            var suggestion = new PendingSuggestion(artifactId, repoPath);
+            var pathKey = suggestion.getPathKey();
+            if (_pendingSuggestions.containsKey(pathKey) || _sendingPaths.contains(pathKey)) {
+                return;
+            }
+
+            _pendingSuggestions.put(pathKey, suggestion);
+
+            // Once closed there is no flush thread, the suggestion is sent right away and kept on failure.
+            closed = _closed;
+            if (closed) {
+                batch = takePendingSuggestions();
+            } else {
+                var outbox = _outbox;
+                if (outbox != null) {
+                    _flushScheduler.execute(() -> outbox.add(List.of(suggestion)));
+                }
+
+                if (_pendingSuggestions.size() >= _batchSize) {
+                    final var fullBatch = takePendingSuggestions();
+                    _flushScheduler.execute(() -> sendOrKeep(fullBatch));
+                } else if (_scheduledFlush == null) {
+                    _scheduledFlush = _flushScheduler.schedule(this::sendPendingSuggestions, _flushIntervalMillis, TimeUnit.MILLISECONDS);
+                }
+            }
+        }
+
+        if (closed) {
+            sendOrKeep(batch);
+        }
+    }
+
+    // Sends the pending suggestions and waits for the batch. It runs on the flush thread while there is one, after
+    // the outbox writes queued before it.
+    public void flush() {
+        if (!isClosed()) {
+            try {
+                _flushScheduler.submit(this::sendPendingSuggestions).get();
+                return;
+            } catch (RejectedExecutionException ex) {
+                _logger.debug("The suggestion queue was closed, the pending suggestions are sent on the caller thread.");
+            } catch (ExecutionException ex) {
+                _logger.warn("Failed to send the pending suggestions.", ex.getCause());
+                return;
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+
+        sendPendingSuggestions();
+    }
+
+    // Waits for the batch being sent, then sends the pending suggestions on the caller thread and stops the
+    // scheduler. Batches that fail stay in the outbox for the next start.
+    @Override
+    public void close() {
+        synchronized (_lock) {
+            _closed = true;
+        }
+
+        _flushScheduler.shutdown();
+        try {
+            _flushScheduler.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+
+        sendPendingSuggestions();
+
+        var outbox = _outbox;
+        if (outbox != null) {
+            outbox.close();
+        }
+    }
+
+    public int getPendingCount() {
+        synchronized (_lock) {
+            return _pendingSuggestions.size();
+        }
+    }
+
+    public int getOutboxSize() {
+        var outbox = _outbox;
+        return outbox == null ? 0 : outbox.size();
+    }
+
+    void drainOutbox() {
+        synchronized (_lock) {
+            _scheduledRetry = null;
+        }
+
+        var outbox = _outbox;
+        if (outbox == null) {
+            return;
+        }
+
+        while (true) {
+            var batch = outbox.peek(_batchSize);
+            if (batch.isEmpty()) {
+                break;
+            }
+
+            if (!send(batch)) {
+                scheduleRetry(nextRetryDelay());
+                return;
+            }
+
+            outbox.remove(batch);
+        }
+
+        synchronized (_lock) {
+            _retryDelay = InitialRetryDelay;
+        }
+    }
+
+    private boolean isClosed() {
+        synchronized (_lock) {
+            return _closed;
+        }
+    }
+
+    private void sendPendingSuggestions() {
+        List<PendingSuggestion> batch;
+        synchronized (_lock) {
+            batch = takePendingSuggestions();
+        }
+
+        if (!batch.isEmpty()) {
+            sendOrKeep(batch);
+        }
+    }
+
+    private List<PendingSuggestion> takePendingSuggestions() {
+        var batch = new ArrayList<>(_pendingSuggestions.values());
+        _sendingPaths.addAll(_pendingSuggestions.keySet());
+        _pendingSuggestions.clear();
+
+        if (_scheduledFlush != null) {
+            _scheduledFlush.cancel(false);
+            _scheduledFlush = null;
+        }
+
+        return batch;
+    }
+
+    private void sendOrKeep(List<PendingSuggestion> batch) {
+        try {
+            var outbox = _outbox;
+            if (send(batch)) {
+                if (outbox != null) {
+                    outbox.remove(batch);
+                }
+                return;
+            }
+
+            if (outbox != null) {
+                outbox.keepForRetry(batch);
+                scheduleRetry(InitialRetryDelay);
+            }
+        } finally {
+            synchronized (_lock) {
+                batch.forEach(suggestion -> _sendingPaths.remove(suggestion.getPathKey()));
+            }
+        }
+    }
+
+    private boolean send(List<PendingSuggestion> batch) {
+        var artifactIds = batch.stream()
+                .map(PendingSuggestion::getArtifactId)
+                .distinct()
+                .collect(Collectors.toList());
+
+        try {
+            if (!_scaHttpClient.suggestPrivatePackages(artifactIds)) {
+                return false;
+            }
+
+            _logger.info("{} packages were suggested as potential private.", artifactIds.size());
+        } catch (Exception ex) {
+            _logger.warn("Failed to publish private package suggestion", ex);
+            return false;
+        }
+
+        for (var suggestion : batch) {
+            try {
+                _suggestedListener.accept(suggestion);
+            } catch (Exception ex) {
+                _logger.error("Failed to mark the package as suggested. Exception Message: {}.", ex.getMessage());
+            }
+        }
+
+        return true;
+    }
+
+    private Duration nextRetryDelay() {
+        synchronized (_lock) {
+            var doubledDelay = _retryDelay.multipliedBy(2);
+            _retryDelay = doubledDelay.compareTo(MaxRetryDelay) > 0 ? MaxRetryDelay : doubledDelay;
+            return _retryDelay;
+        }
+    }
+
+    private void scheduleRetry(Duration delay) {
+        synchronized (_lock) {
+            if (_closed || (_scheduledRetry != null && !_scheduledRetry.isDone())) {
+                return;
+            }
+
+            _scheduledRetry = _flushScheduler.schedule(this::drainOutbox, delay.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private static int getNumber(PluginConfiguration configuration, ConfigurationEntry entry) {
+        try {
+            return Integer.parseInt(configuration.getPropertyOrDefault(entry).trim());
+        } catch (Exception ex) {
+            return Integer.parseInt(entry.defaultValue());
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.checkmarx.sca.traffic;
+
+import javax.annotation.Nonnull;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+// Replaces every word of repository keys and paths with a salted hash made of letters, the same word always
+// becoming the same replacement. Digits, separators and file extensions are kept, so the anonymized paths
+// still parse to artifact ids and the skew of the original traffic is preserved.
+public class TrafficAnonymizer {
+    private static final Pattern Word = Pattern.compile("[A-Za-z]+");
+    private static final int ReplacementLength = 8;
+    private static final int MaxCachedWords = 100_000;
+    private static final Set<String> KeptWords = Set.of(
+            "jar", "pom", "war", "aar", "tgz", "tar", "gz", "zip", "whl", "egg", "nupkg", "gem", "mod", "info", "v");
+
+    private final byte[] _salt;
+    private final Map<String, String> _replacements = new HashMap<>();
+
+    public TrafficAnonymizer(@Nonnull String salt) {
+        _salt = salt.getBytes(StandardCharsets.UTF_8);
+    }
+
+    // Not thread-safe, used by the writer thread of the recorder only.
+    public String anonymize(@Nonnull String value) {
+        return Word.matcher(value).replaceAll(match -> getReplacement(match.group()));
+    }
+
+    private String getReplacement(String word) {
+        if (KeptWords.contains(word.toLowerCase(Locale.ROOT))) {
+            return word;
+        }
+
+        if (_replacements.size() >= MaxCachedWords) {
+            _replacements.clear();
+        }
+
+        return _replacements.computeIfAbsent(word, this::hash);
+    }
+
+    private String hash(String word) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256");
+            digest.update(_salt);
+            var hash = digest.digest(word.getBytes(StandardCharsets.UTF_8));
+
+            var replacement = new StringBuilder(ReplacementLength);
+            for (var index = 0; index < ReplacementLength; index++) {
+                replacement.append((char) ('a' + Math.floorMod(hash[index], 26)));
+            }
+            return replacement.toString();
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
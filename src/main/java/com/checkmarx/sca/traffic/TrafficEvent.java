@@ -0,0 +1,67 @@
+package com.checkmarx.sca.traffic;
+
+import javax.annotation.Nonnull;
+
+import static java.lang.String.format;
+
+// One hook call of a traffic trace, stored as a tab separated line: time in epoch milliseconds, hook, repository key,
+// package type and path.
+public class TrafficEvent {
+    public static final String DownloadHook = "download";
+    public static final String UploadHook = "upload";
+
+    private final long _timeMillis;
+    private final String _hook;
+    private final String _repoKey;
+    private final String _packageType;
+    private final String _path;
+
+    public TrafficEvent(long timeMillis, @Nonnull String hook, @Nonnull String repoKey, String packageType, @Nonnull String path) {
+        _timeMillis = timeMillis;
+        _hook = hook;
+        _repoKey = repoKey;
+        _packageType = packageType;
+        _path = path;
+    }
+
+    public static TrafficEvent parse(@Nonnull String line) {
+        var fields = line.split("\t", -1);
+        if (fields.length != 5) {
+            throw new IllegalArgumentException(format("Invalid traffic event: %s", line));
+        }
+
+        return new TrafficEvent(Long.parseLong(fields[0]), fields[1], fields[2], fields[3].isEmpty() ? null : fields[3], fields[4]);
+    }
+
+    public String toLine() {
+        return String.join("\t", Long.toString(_timeMillis), _hook, clean(_repoKey), _packageType == null ? "" : clean(_packageType), clean(_path));
+    }
+
+    public long getTimeMillis() {
+        return _timeMillis;
+    }
+
+    public String getHook() {
+        return _hook;
+    }
+
+    public String getRepoKey() {
+        return _repoKey;
+    }
+
+    public String getPackageType() {
+        return _packageType;
+    }
+
+    public String getPath() {
+        return _path;
+    }
+
+    TrafficEvent anonymize(@Nonnull TrafficAnonymizer anonymizer) {
+        return new TrafficEvent(_timeMillis, _hook, anonymizer.anonymize(_repoKey), _packageType, anonymizer.anonymize(_path));
+    }
+
+    private static String clean(String value) {
+        return value.replace('\t', ' ').replace('\n', ' ').replace('\r', ' ');
+    }
+}
@@ -0,0 +1,145 @@
+package com.checkmarx.sca.traffic;
+
+import org.slf4j.Logger;
+
+import javax.annotation.Nonnull;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+
+// Hook calls appended to a trace file by a background writer, to be replayed later against the stand-in backend.
+// The hook thread only enqueues the event; events are dropped when the queue is full. Recording stops once the
+// file reaches its maximum size, so the trace stays one contiguous window of traffic.
+public class TrafficRecorder implements Closeable {
+    private static final int MaxBatchSize = 512;
+
+    private final Path _file;
+    private final Logger _logger;
+    private final long _maxFileBytes;
+    private final TrafficAnonymizer _anonymizer;
+    private final BlockingQueue<TrafficEvent> _queue;
+    private final LongAdder _droppedEvents = new LongAdder();
+    private final Thread _writerThread;
+
+    private volatile boolean _closed;
+    private volatile boolean _full;
+    private BufferedWriter _writer;
+    private long _fileBytes;
+
+    public TrafficRecorder(@Nonnull Path file, @Nonnull Logger logger, int queueCapacity, long maxFileBytes, TrafficAnonymizer anonymizer) {
+        _file = file;
+        _logger = logger;
+        _maxFileBytes = maxFileBytes;
+        _anonymizer = anonymizer;
+        _queue = new ArrayBlockingQueue<>(Math.max(queueCapacity, 1));
+
+        _writerThread = new Thread(this::writeEvents, "cxsca-traffic-writer");
+        _writerThread.setDaemon(true);
+        _writerThread.start();
+    }
+
+    public void record(@Nonnull String hook, @Nonnull String repoKey, String packageType, @Nonnull String path) {
+        if (_closed || _full) {
+            return;
+        }
+
+        if (!_queue.offer(new TrafficEvent(System.currentTimeMillis(), hook, repoKey, packageType, path))) {
+            _droppedEvents.increment();
+        }
+    }
+
+    public boolean isRecording() {
+        return !_closed && !_full;
+    }
+
+    public long getDroppedCount() {
+        return _droppedEvents.sum();
+    }
+
+    // Stops accepting events and waits for the queued ones to be written.
+    @Override
+    public void close() {
+        _closed = true;
+
+        try {
+            _writerThread.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void writeEvents() {
+        var batch = new ArrayList<TrafficEvent>(MaxBatchSize);
+
+        while ((!_closed || !_queue.isEmpty()) && !_full) {
+            try {
+                var event = _queue.poll(1, TimeUnit.SECONDS);
+                if (event == null) {
+                    continue;
+                }
+
+                batch.add(event);
+            } catch (InterruptedException ex) {
+                break;
+            }
+
+            _queue.drainTo(batch, MaxBatchSize - 1);
+            writeBatch(batch);
+            batch.clear();
+        }
+
+        _queue.clear();
+        closeWriter();
+    }
+
+    private void writeBatch(List<TrafficEvent> batch) {
+        try {
+            if (_writer == null) {
+                _writer = Files.newBufferedWriter(_file, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                _fileBytes = Files.size(_file);
+            }
+
+            for (var event : batch) {
+                var line = (_anonymizer == null ? event : event.anonymize(_anonymizer)).toLine();
+                _writer.write(line);
+                _writer.newLine();
+                _fileBytes += line.getBytes(StandardCharsets.UTF_8).length + System.lineSeparator().length();
+
+                if (_fileBytes >= _maxFileBytes) {
+                    _full = true;
+                    _logger.info("Traffic recording stopped, the trace reached its maximum size: {}", _file);
+                    break;
+                }
+            }
+            _writer.flush();
+        } catch (IOException ex) {
+            _droppedEvents.add(batch.size());
+            _logger.warn("Failed to write the traffic trace: {}. Exception Message: {}.", _file, ex.getMessage());
+            closeWriter();
+        }
+    }
+
+    private void closeWriter() {
+        if (_writer == null) {
+            return;
+        }
+
+        try {
+            _writer.close();
+        } catch (IOException ex) {
+            _logger.debug("Failed to close the traffic trace.", ex);
+        }
+        _writer = null;
+    }
+}
@@ -173,7 +173,7 @@ public class ScaPluginTest {
         Mockito.verify(logger, never()).error(isA(String.class));
         Mockito.verify(logger, never()).error(isA(String.class), isA(Exception.class));
 
-        Mockito.verify(logger, times(1)).warn(Mockito.argThat(s -> s.contains(IGNORE_THRESHOLD)));
+        Mockito.verify(logger, times(1)).warn(Mockito.<String>argThat(s -> s.contains("Ignoring the security risk threshold")), Mockito.<Object>eq(IGNORE_THRESHOLD), Mockito.<Object>any());
         Mockito.verify(logger, never()).warn(isA(String.class), isA(Exception.class));
     }
 
@@ -277,6 +277,7 @@ public class ScaPluginTest {
             try {
                 var scaPlugin = new ScaPlugin(logger, resourcesDir, repositories);
                 scaPlugin.beforeUpload(repoPath);
+                scaPlugin.flushSuggestions();
             } catch (IOException e) {
                 Assertions.fail();
             }
@@ -294,6 +295,30 @@ public class ScaPluginTest {
         }
     }
 
+    @DisplayName("Skip the hooks of a closed plugin")
+    @Test
+    public void skipHooksOfClosedPlugin() throws IOException {
+        String path = "src/test/resources/com/checkmarx/sca/configuration";
+        File resourcesDir = new File(path);
+
+        var repoPath = Mockito.mock(RepoPath.class);
+        when(repoPath.getRepoKey()).thenReturn(RepoKey);
+        when(repoPath.getName()).thenReturn(format("%s-%s", ArtifactName, ArtifactVersion));
+
+        var repositories = Mockito.mock(Repositories.class);
+        var logger = Mockito.mock(Logger.class);
+
+        var scaPlugin = new ScaPlugin(logger, resourcesDir, repositories);
+        scaPlugin.close();
+        Mockito.clearInvocations(repositories);
+
+        scaPlugin.beforeDownload(repoPath);
+        scaPlugin.beforeUpload(repoPath);
+
+        Mockito.verifyNoInteractions(repositories);
+        Mockito.verify(logger, times(2)).warn(Mockito.eq("The Sca Security Plugin is closed, the {} was not verified. Artifact name: {}"), Mockito.<Object>any(), Mockito.<Object>any());
+    }
+
     private void MockGetProperties(Repositories repositories, RepoPath repoPath, String value) {
         var propertiesMap = new HashMap<String, String>();
         propertiesMap.put(IGNORE_THRESHOLD, value);
@@ -0,0 +1,96 @@
+package com.checkmarx.sca.audit;
+
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+
+@DisplayName("DecisionAuditLog")
+public class DecisionAuditLogTests {
+    @TempDir
+    Path _directory;
+
+    private Logger _logger;
+
+    @BeforeEach
+    public void beforeEach() {
+        _logger = Mockito.mock(Logger.class);
+    }
+
+    @DisplayName("Write decisions as JSON lines")
+    @Test
+    public void writeDecisions() throws IOException {
+        var file = _directory.resolve("cxsca-audit.jsonl");
+        var auditLog = new DecisionAuditLog(file, _logger, 100, 1024 * 1024, 2);
+
+        Assertions.assertTrue(auditLog.record(new AuditRecord(Instant.parse("2022-05-01T10:00:00Z"), "npm-remote", "lodash/-/lodash-0.2.1.tgz", "npm", "blocked_security_threshold")));
+        Assertions.assertTrue(auditLog.record(new AuditRecord(Instant.parse("2022-05-01T10:00:01Z"), "npm-remote", "express/-/express-4.18.1.tgz", "npm", "allowed")));
+        auditLog.close();
+
+        var lines = Files.readAllLines(file);
+        Assertions.assertEquals(2, lines.size());
+
+        var record = JsonParser.parseString(lines.get(0)).getAsJsonObject();
+        Assertions.assertEquals("2022-05-01T10:00:00Z", record.get("time").getAsString());
+        Assertions.assertEquals("npm-remote", record.get("repoKey").getAsString());
+        Assertions.assertEquals("lodash/-/lodash-0.2.1.tgz", record.get("path").getAsString());
+        Assertions.assertEquals("npm", record.get("packageType").getAsString());
+        Assertions.assertEquals("blocked_security_threshold", record.get("decision").getAsString());
+        Assertions.assertEquals(0, auditLog.getDroppedCount());
+    }
+
+    @DisplayName("Roll the file when it reaches the maximum size")
+    @Test
+    public void rollFile() throws IOException {
+        var file = _directory.resolve("cxsca-audit.jsonl");
+        var auditLog = new DecisionAuditLog(file, _logger, 100, 1, 2);
+
+        auditLog.record(new AuditRecord(Instant.now(), "pypi-remote", "a/a-1.0.tar.gz", "pypi", "allowed"));
+        waitUntilWritten(_directory.resolve("cxsca-audit.jsonl.1"));
+        auditLog.record(new AuditRecord(Instant.now(), "pypi-remote", "b/b-1.0.tar.gz", "pypi", "allowed"));
+        waitUntilWritten(_directory.resolve("cxsca-audit.jsonl.1"), "b/b-1.0.tar.gz");
+        auditLog.record(new AuditRecord(Instant.now(), "pypi-remote", "c/c-1.0.tar.gz", "pypi", "allowed"));
+        auditLog.close();
+
+        Assertions.assertTrue(Files.readString(_directory.resolve("cxsca-audit.jsonl.1")).contains("c/c-1.0.tar.gz"));
+        Assertions.assertFalse(Files.exists(_directory.resolve("cxsca-audit.jsonl.2")));
+    }
+
+    @DisplayName("Count the records that could not be queued")
+    @Test
+    public void countDroppedRecords() {
+        var auditLog = new DecisionAuditLog(_directory.resolve("cxsca-audit.jsonl"), _logger, 1, 1024, 1);
+        auditLog.close();
+
+        Assertions.assertFalse(auditLog.record(new AuditRecord(Instant.now(), "go-remote", "x/@v/v1.0.0.zip", "go", "allowed")));
+        Assertions.assertEquals(1, auditLog.getDroppedCount());
+    }
+
+    private static void waitUntilWritten(Path file) {
+        waitUntilWritten(file, "");
+    }
+
+    private static void waitUntilWritten(Path file, String content) {
+        var deadline = System.currentTimeMillis() + 5_000;
+        while (System.currentTimeMillis() < deadline) {
+            try {
+                if (Files.exists(file) && Files.readString(file).contains(content)) {
+                    return;
+                }
+                Thread.sleep(10);
+            } catch (IOException | InterruptedException ignored) {
+            }
+        }
+
+        Assertions.fail("The audit file was not written: " + file);
+    }
+}
@@ -0,0 +1,74 @@
+package com.checkmarx.sca.cache;
+
+import com.checkmarx.sca.models.ArtifactId;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("ArtifactIdPool")
+public class ArtifactIdPoolTests {
+
+    @DisplayName("Return the pooled instance of equal artifact ids")
+    @Test
+    public void internEqualArtifactIds() {
+        var pool = new ArtifactIdPool(10);
+
+        var artifactId = pool.intern(new ArtifactId("python", "google_parser", "0.0.135"));
+
+        Assertions.assertSame(artifactId, pool.intern(new ArtifactId("python", "google_parser", "0.0.135")));
+        Assertions.assertNotSame(artifactId, pool.intern(new ArtifactId("python", "google_parser", "0.0.136")));
+        Assertions.assertEquals(2, pool.size());
+    }
+
+    @DisplayName("Keep the spelling of equal artifact ids")
+    @Test
+    public void keepSpellingOfEqualArtifactIds() {
+        var pool = new ArtifactIdPool(10);
+
+        var pooled = pool.intern(new ArtifactId("nuget", "newtonsoft.json", "13.0.1-beta1"));
+        var artifactId = pool.intern(new ArtifactId("Nuget", "Newtonsoft.Json", "13.0.1-Beta1"));
+
+        Assertions.assertNotSame(pooled, artifactId);
+        Assertions.assertEquals(pooled, artifactId);
+        Assertions.assertEquals("Nuget", artifactId.PackageType);
+        Assertions.assertEquals("Newtonsoft.Json", artifactId.Name);
+        Assertions.assertEquals("13.0.1-Beta1", artifactId.Version);
+        Assertions.assertEquals("newtonsoft.json", pool.intern(new ArtifactId("nuget", "newtonsoft.json", "13.0.1-beta1")).Name);
+        Assertions.assertEquals(1, pool.size());
+    }
+
+    @DisplayName("Skip invalid artifact ids")
+    @Test
+    public void skipInvalidArtifactIds() {
+        var pool = new ArtifactIdPool(10);
+        var artifactId = new ArtifactId("npm", null, null);
+
+        Assertions.assertSame(artifactId, pool.intern(artifactId));
+        Assertions.assertEquals(0, pool.size());
+    }
+
+    @DisplayName("Clear the pool when it is full")
+    @Test
+    public void clearWhenFull() {
+        var pool = new ArtifactIdPool(2);
+
+        pool.intern(new ArtifactId("npm", "lodash", "0.2.1"));
+        pool.intern(new ArtifactId("npm", "lodash", "0.2.2"));
+        var artifactId = pool.intern(new ArtifactId("npm", "lodash", "0.2.3"));
+
+        Assertions.assertEquals(1, pool.size());
+        Assertions.assertSame(artifactId, pool.intern(new ArtifactId("npm", "lodash", "0.2.3")));
+    }
+
+    @DisplayName("Do not pool when disabled")
+    @Test
+    public void disabledPool() {
+        var pool = new ArtifactIdPool(0);
+
+        var artifactId = new ArtifactId("npm", "lodash", "0.2.1");
+
+        Assertions.assertSame(artifactId, pool.intern(artifactId));
+        Assertions.assertNotSame(artifactId, pool.intern(new ArtifactId("npm", "lodash", "0.2.1")));
+        Assertions.assertEquals(0, pool.size());
+    }
+}
@@ -0,0 +1,119 @@
+package com.checkmarx.sca.cache;
+
+import com.checkmarx.sca.models.ArtifactId;
+import com.checkmarx.sca.models.ArtifactInfo;
+import com.google.gson.Gson;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+@DisplayName("CanonicalArtifactCache")
+public class CanonicalArtifactCacheTests {
+
+    @DisplayName("Reload the canonical artifacts from the file")
+    @Test
+    public void reloadFromFile(@TempDir Path directory) {
+        var file = directory.resolve("artifacts.jsonl");
+        var logger = Mockito.mock(Logger.class);
+
+        var cache = new CanonicalArtifactCache(file, logger);
+        cache.put(new ArtifactId("python", "google_parser", "0.0.135"), createArtifactInfo());
+        cache.close();
+
+        var reloadedCache = new CanonicalArtifactCache(file, logger);
+        var artifactInfo = reloadedCache.get(new ArtifactId("python", "google_parser", "0.0.135"));
+
+        Assertions.assertNotNull(artifactInfo);
+        Assertions.assertEquals("Python", artifactInfo.getPackageType());
+        Assertions.assertEquals("google-parser", artifactInfo.getName());
+        Assertions.assertEquals("0.0.135", artifactInfo.getVersion());
+        Assertions.assertNull(reloadedCache.get(new ArtifactId("python", "google_parser", "0.0.136")));
+    }
+
+    @DisplayName("Ignore invalid lines in the file")
+    @Test
+    public void ignoreInvalidLines(@TempDir Path directory) throws IOException {
+        var file = directory.resolve("artifacts.jsonl");
+        var logger = Mockito.mock(Logger.class);
+
+        var writtenCache = new CanonicalArtifactCache(file, logger);
+        writtenCache.put(new ArtifactId("python", "google_parser", "0.0.135"), createArtifactInfo());
+        writtenCache.close();
+        Files.writeString(file, Files.readString(file) + "{\"key\":\n\n");
+
+        var cache = new CanonicalArtifactCache(file, logger);
+
+        Assertions.assertEquals(1, cache.size());
+    }
+
+    @DisplayName("Find the artifact under a differently spelled name")
+    @Test
+    public void findNormalizedName(@TempDir Path directory) throws IOException {
+        var file = directory.resolve("artifacts.jsonl");
+        var logger = Mockito.mock(Logger.class);
+
+        var writtenCache = new CanonicalArtifactCache(file, logger);
+        writtenCache.put(new ArtifactId("python", "google_parser", "0.0.135"), createArtifactInfo());
+        writtenCache.close();
+        Assertions.assertTrue(Files.readString(file).contains("\"key\":\"python:google_parser:0.0.135\""));
+
+        var cache = new CanonicalArtifactCache(file, logger);
+
+        Assertions.assertNotNull(cache.get(new ArtifactId("python", "Google-Parser", "0.0.135")));
+        Assertions.assertNotNull(cache.get(new ArtifactId("Python", "google.parser", "0.0.135")));
+    }
+
+    @DisplayName("Evict the least recently used artifacts and compact the file")
+    @Test
+    public void evictAndCompact(@TempDir Path directory) throws IOException {
+        var file = directory.resolve("artifacts.jsonl");
+        var logger = Mockito.mock(Logger.class);
+
+        var cache = new CanonicalArtifactCache(file, logger, 2);
+        cache.put(new ArtifactId("npm", "lodash", "0.2.1"), createArtifactInfo());
+        cache.put(new ArtifactId("npm", "lodash", "0.2.2"), createArtifactInfo());
+        cache.get(new ArtifactId("npm", "lodash", "0.2.1"));
+        cache.put(new ArtifactId("npm", "lodash", "0.2.3"), createArtifactInfo());
+
+        Assertions.assertEquals(2, cache.size());
+        Assertions.assertNotNull(cache.get(new ArtifactId("npm", "lodash", "0.2.1")));
+        Assertions.assertNull(cache.get(new ArtifactId("npm", "lodash", "0.2.2")));
+
+        cache.close();
+        Assertions.assertEquals(3, Files.readAllLines(file).size());
+
+        var reloadedCache = new CanonicalArtifactCache(file, logger, 2);
+        reloadedCache.put(new ArtifactId("npm", "lodash", "0.2.4"), createArtifactInfo());
+        reloadedCache.close();
+        Assertions.assertEquals(2, Files.readAllLines(file).size());
+
+        var compactedCache = new CanonicalArtifactCache(file, logger, 2);
+        Assertions.assertEquals(2, compactedCache.size());
+        Assertions.assertNotNull(compactedCache.get(new ArtifactId("npm", "lodash", "0.2.4")));
+    }
+
+    @DisplayName("Stop persisting the canonical artifacts once closed")
+    @Test
+    public void stopPersistingOnceClosed(@TempDir Path directory) {
+        var file = directory.resolve("artifacts.jsonl");
+        var logger = Mockito.mock(Logger.class);
+
+        var cache = new CanonicalArtifactCache(file, logger);
+        cache.close();
+        cache.put(new ArtifactId("npm", "lodash", "0.2.1"), createArtifactInfo());
+
+        Assertions.assertNotNull(cache.get(new ArtifactId("npm", "lodash", "0.2.1")));
+        Assertions.assertEquals(0, new CanonicalArtifactCache(file, logger).size());
+    }
+
+    private static ArtifactInfo createArtifactInfo() {
+        return new Gson().fromJson("{\"packageId\":\"Python#-#google-parser#-#0.0.135\",\"legacyPackageId\":\"Python-google-parser-0.0.135\",\"type\":\"Python\",\"name\":\"google-parser\",\"version\":\"0.0.135\"}", ArtifactInfo.class);
+    }
+}
@@ -0,0 +1,53 @@
+package com.checkmarx.sca.cache;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+@DisplayName("ExpiringCache")
+public class ExpiringCacheTests {
+
+    @DisplayName("Expire the entries after the TTL")
+    @Test
+    public void expireEntriesAfterTtl() {
+        var clock = new AtomicLong();
+        var cache = new ExpiringCache<String, String>(10, Duration.ofSeconds(10), clock::get);
+
+        cache.put("key", "value");
+        Assertions.assertEquals("value", cache.get("key"));
+
+        clock.addAndGet(Duration.ofSeconds(10).toNanos());
+
+        Assertions.assertNull(cache.get("key"));
+        Assertions.assertEquals(0, cache.size());
+    }
+
+    @DisplayName("Evict the least recently used entry when full")
+    @Test
+    public void evictLeastRecentlyUsedEntry() {
+        var cache = new ExpiringCache<String, String>(2, Duration.ofMinutes(1));
+
+        cache.put("first", "1");
+        cache.put("second", "2");
+        cache.get("first");
+        cache.put("third", "3");
+
+        Assertions.assertEquals("1", cache.get("first"));
+        Assertions.assertNull(cache.get("second"));
+        Assertions.assertEquals("3", cache.get("third"));
+    }
+
+    @DisplayName("Do not store entries when disabled")
+    @Test
+    public void doNotStoreEntriesWhenDisabled() {
+        var cache = new ExpiringCache<String, String>(0, Duration.ofMinutes(1));
+
+        cache.put("key", "value");
+
+        Assertions.assertFalse(cache.isEnabled());
+        Assertions.assertNull(cache.get("key"));
+    }
+}
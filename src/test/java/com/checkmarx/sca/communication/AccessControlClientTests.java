@@ -6,6 +6,7 @@ import com.checkmarx.sca.communication.exceptions.FailedToRefreshTokenException;
 import com.checkmarx.sca.communication.exceptions.UnexpectedAuthenticationResponseException;
 import com.checkmarx.sca.communication.exceptions.UserIsNotAuthenticatedException;
 import com.checkmarx.sca.communication.models.AccessControlCredentials;
+import com.checkmarx.sca.communication.models.AuthenticationHeader;
 import com.checkmarx.sca.configuration.PluginConfiguration;
 import com.checkmarx.sca.scan.ArtifactRisksFiller;
 import com.checkmarx.sca.scan.LicenseAllowanceChecker;
@@ -19,7 +20,13 @@ import org.junit.jupiter.api.*;
 import org.mockito.Mockito;
 import org.slf4j.Logger;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.badRequest;
 import static com.github.tomakehurst.wiremock.client.WireMock.ok;
@@ -227,6 +234,82 @@ public class AccessControlClientTests {
         Assertions.assertThrows(FailedToRefreshTokenException.class, accessControlClient::GetAuthorizationHeader);
     }
 
+    @DisplayName("Refresh an expired token only once for concurrent callers")
+    @Test
+    public void refreshExpiredTokenOnceForConcurrentCallers() throws InterruptedException, ExecutionException {
+
+        this.wireMockServer.stubFor(
+                WireMock.post("/identity/connect/token")
+                        .inScenario("Refresh Scenario")
+                        .whenScenarioStateIs(STARTED)
+                        .willReturn(ok()
+                                .withHeader("Content-Type", "application/json; charset=UTF-8")
+                                .withBody("{\"access_token\":\"expired\",\"expires_in\":0,\"token_type\":\"Bearer\"}"))
+                        .willSetStateTo("Refreshed")
+        );
+
+        this.wireMockServer.stubFor(
+                WireMock.post("/identity/connect/token")
+                        .inScenario("Refresh Scenario")
+                        .whenScenarioStateIs("Refreshed")
+                        .willReturn(ok()
+                                .withHeader("Content-Type", "application/json; charset=UTF-8")
+                                .withFixedDelay(200)
+                                .withBody("{\"access_token\":\"refreshed\",\"expires_in\":3600,\"token_type\":\"Bearer\"}"))
+        );
+
+        var injector = CreateAppInjectorForTests();
+
+        var accessControlClient = injector.getInstance(AccessControlClient.class);
+
+        var result = accessControlClient.Authenticate(new AccessControlCredentials("user", "pass", "tenant"));
+        Assertions.assertTrue(result);
+
+        var executorService = Executors.newFixedThreadPool(8);
+        try {
+            var headers = new ArrayList<Future<AuthenticationHeader<String, String>>>();
+            for (var i = 0; i < 8; i++) {
+                headers.add(executorService.submit(accessControlClient::GetAuthorizationHeader));
+            }
+
+            for (var header : headers) {
+                Assertions.assertEquals("Bearer refreshed", header.get().getValue());
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        this.wireMockServer.verify(2, WireMock.postRequestedFor(WireMock.urlEqualTo("/identity/connect/token")));
+    }
+
+    @DisplayName("Get tenant id from the token claims")
+    @Test
+    public void getTenantIdFromTokenClaims() {
+
+        var encoder = Base64.getUrlEncoder().withoutPadding();
+        var header = encoder.encodeToString("{\"alg\":\"RS256\"}".getBytes(StandardCharsets.UTF_8));
+        var payload = encoder.encodeToString("{\"tenant_id\":\"1234\",\"sub\":\"user\"}".getBytes(StandardCharsets.UTF_8));
+        var token = format("%s.%s.signature", header, payload);
+
+        this.wireMockServer.stubFor(
+                WireMock.post("/identity/connect/token")
+                        .willReturn(ok()
+                                .withHeader("Content-Type", "application/json; charset=UTF-8")
+                                .withBody(format("{\"access_token\":\"%s\",\"expires_in\":3600,\"token_type\":\"Bearer\"}", token)))
+        );
+
+        var injector = CreateAppInjectorForTests();
+
+        var accessControlClient = injector.getInstance(AccessControlClient.class);
+
+        var result = accessControlClient.Authenticate(new AccessControlCredentials("user", "pass", "tenant"));
+        Assertions.assertTrue(result);
+
+        Assertions.assertEquals("1234", accessControlClient.getTenantId());
+        Assertions.assertEquals("user", accessControlClient.getTokenClaims().get("sub"));
+        Assertions.assertSame(accessControlClient.getTokenClaims(), accessControlClient.getTokenClaims());
+    }
+
     private Injector CreateAppInjectorForTests(){
         logger = Mockito.mock(Logger.class);
         var artifactRisksFiller = Mockito.mock(ArtifactRisksFiller.class);
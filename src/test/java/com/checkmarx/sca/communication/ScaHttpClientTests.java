@@ -5,17 +5,24 @@ import com.checkmarx.sca.communication.exceptions.UnexpectedResponseBodyExceptio
 import com.checkmarx.sca.communication.exceptions.UnexpectedResponseCodeException;
 import com.checkmarx.sca.communication.models.AuthenticationHeader;
 import com.checkmarx.sca.configuration.PluginConfiguration;
+import com.checkmarx.sca.metrics.MetricsRegistry;
+import com.checkmarx.sca.metrics.PluginStatus;
 import com.checkmarx.sca.models.ArtifactId;
 import com.checkmarx.sca.scan.ArtifactRisksFiller;
 import com.checkmarx.sca.scan.SecurityThresholdChecker;
 import com.github.tomakehurst.wiremock.WireMockServer;
 import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.http.Fault;
 import com.google.inject.Guice;
 import com.google.inject.Injector;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordingFile;
 import org.junit.jupiter.api.*;
 import org.mockito.Mockito;
 import org.slf4j.Logger;
 
+import java.nio.file.Files;
+import java.util.List;
 import java.util.Properties;
 import java.util.concurrent.ExecutionException;
 
@@ -94,6 +101,55 @@ public class ScaHttpClientTests {
         Assertions.assertEquals("Python-google-parser-0.0.135", artifactInfo.getId());
     }
 
+    @DisplayName("Get artifact information uses the PyPi name resolved before")
+    @Test
+    public void getArtifactInformationUsesLearnedPyPiName() throws ExecutionException, InterruptedException {
+
+        this.wireMockServer.stubFor(
+                WireMock.get("/public/packages/python/zope-interface/versions/5.4.0")
+                        .willReturn(aResponse().withStatus(404))
+        );
+
+        this.wireMockServer.stubFor(
+                WireMock.get("/public/packages/python/zope_interface/versions/5.4.0")
+                        .willReturn(ok()
+                                .withHeader("Content-Type", "application/json; charset=UTF-8")
+                                .withBody("{\"packageId\":\"Python#-#zope_interface#-#5.4.0\",\"legacyPackageId\":\"Python-zope_interface-5.4.0\",\"type\":\"Python\",\"name\":\"zope_interface\",\"version\":\"5.4.0\"}"))
+        );
+
+        var injector = CreateAppInjectorForTests();
+
+        var scaHttpClient = injector.getInstance(ScaHttpClient.class);
+
+        scaHttpClient.getArtifactInformation("python", "zope-interface", "5.4.0");
+        var artifactInfo = scaHttpClient.getArtifactInformation("python", "Zope.Interface", "5.4.0");
+
+        Assertions.assertEquals("Python-zope_interface-5.4.0", artifactInfo.getId());
+        this.wireMockServer.verify(1, WireMock.getRequestedFor(WireMock.urlEqualTo("/public/packages/python/zope-interface/versions/5.4.0")));
+        this.wireMockServer.verify(2, WireMock.getRequestedFor(WireMock.urlEqualTo("/public/packages/python/zope_interface/versions/5.4.0")));
+    }
+
+    @DisplayName("Get artifact information with the PyPi name as given")
+    @Test
+    public void getArtifactInformationWithPyPiNameAsGiven() throws ExecutionException, InterruptedException {
+
+        this.wireMockServer.stubFor(
+                WireMock.get("/public/packages/python/Django/versions/4.0.1")
+                        .willReturn(ok()
+                                .withHeader("Content-Type", "application/json; charset=UTF-8")
+                                .withBody("{\"packageId\":\"Python#-#Django#-#4.0.1\",\"legacyPackageId\":\"Python-Django-4.0.1\",\"type\":\"Python\",\"name\":\"Django\",\"version\":\"4.0.1\"}"))
+        );
+
+        var injector = CreateAppInjectorForTests();
+
+        var scaHttpClient = injector.getInstance(ScaHttpClient.class);
+
+        var artifactInfo = scaHttpClient.getArtifactInformation("python", "Django", "4.0.1");
+
+        Assertions.assertEquals("Python-Django-4.0.1", artifactInfo.getId());
+        this.wireMockServer.verify(1, WireMock.getRequestedFor(WireMock.urlMatching("/public/packages/python/.*")));
+    }
+
     @DisplayName("Failed to get artifact information - Not found")
     @Test
     public void failedToGetArtifactInformationNotFound() {
@@ -113,6 +169,98 @@ public class ScaHttpClientTests {
         Assertions.assertEquals(404, exception.StatusCode);
     }
 
+    @DisplayName("Record a flight recorder event for each SCA request")
+    @Test
+    public void recordScaRequestEvent() throws Exception {
+
+        this.wireMockServer.stubFor(
+                WireMock.get("/public/packages/Npm/lodash/versions/0.2.1")
+                        .willReturn(aResponse().withStatus(404).withBody("not found"))
+        );
+
+        var injector = CreateAppInjectorForTests();
+
+        var scaHttpClient = injector.getInstance(ScaHttpClient.class);
+
+        var recordingFile = Files.createTempFile("cxsca", ".jfr");
+        try (var recording = new Recording()) {
+            recording.enable("com.checkmarx.sca.ScaRequest");
+            recording.start();
+
+            Assertions.assertThrows(UnexpectedResponseCodeException.class, () -> scaHttpClient.getArtifactInformation("Npm", "lodash", "0.2.1", "npm-remote"));
+
+            recording.stop();
+            recording.dump(recordingFile);
+
+            var events = RecordingFile.readAllEvents(recordingFile);
+
+            Assertions.assertEquals(1, events.size());
+            Assertions.assertEquals("artifact_info", events.get(0).getString("endpoint"));
+            Assertions.assertEquals("Npm", events.get(0).getString("packageType"));
+            Assertions.assertEquals("npm-remote", events.get(0).getString("repoKey"));
+            Assertions.assertEquals(404, events.get(0).getInt("statusCode"));
+            Assertions.assertEquals(9, events.get(0).getLong("responseBytes"));
+        } finally {
+            Files.deleteIfExists(recordingFile);
+        }
+    }
+
+    @DisplayName("Record a flight recorder event and count the request when the transport fails")
+    @Test
+    public void recordScaRequestEventOnTransportError() throws Exception {
+
+        this.wireMockServer.stubFor(
+                WireMock.get("/public/packages/Npm/lodash/versions/0.2.1")
+                        .willReturn(aResponse().withFault(Fault.CONNECTION_RESET_BY_PEER))
+        );
+
+        var injector = CreateAppInjectorForTests();
+
+        var scaHttpClient = injector.getInstance(ScaHttpClient.class);
+        var metrics = injector.getInstance(MetricsRegistry.class);
+
+        var recordingFile = Files.createTempFile("cxsca", ".jfr");
+        try (var recording = new Recording()) {
+            recording.enable("com.checkmarx.sca.ScaRequest");
+            recording.start();
+
+            Assertions.assertThrows(ExecutionException.class, () -> scaHttpClient.getArtifactInformation("Npm", "lodash", "0.2.1"));
+
+            recording.stop();
+            recording.dump(recordingFile);
+
+            var events = RecordingFile.readAllEvents(recordingFile);
+
+            Assertions.assertEquals(1, events.size());
+            Assertions.assertEquals("artifact_info", events.get(0).getString("endpoint"));
+            Assertions.assertEquals(0, events.get(0).getInt("statusCode"));
+            Assertions.assertNotNull(events.get(0).getString("error"));
+            Assertions.assertEquals(1, metrics.getScaResponseCount("artifact_info", "npm", MetricsRegistry.ErrorStatus));
+        } finally {
+            Files.deleteIfExists(recordingFile);
+        }
+    }
+
+    @DisplayName("Track in-flight and failed requests in the plugin status")
+    @Test
+    public void trackRequestsInPluginStatus() {
+
+        this.wireMockServer.stubFor(
+                WireMock.get("/public/packages/Npm/lodash/versions/0.2.1")
+                        .willReturn(aResponse().withStatus(503))
+        );
+
+        var injector = CreateAppInjectorForTests();
+
+        var scaHttpClient = injector.getInstance(ScaHttpClient.class);
+        var status = injector.getInstance(PluginStatus.class);
+
+        Assertions.assertThrows(UnexpectedResponseCodeException.class, () -> scaHttpClient.getArtifactInformation("Npm", "lodash", "0.2.1"));
+
+        Assertions.assertEquals(0, status.getScaRequestsInFlight());
+        Assertions.assertEquals(1, status.getConsecutiveScaFailures());
+    }
+
     @DisplayName("Failed to get artifact information - Unexpected Response Code")
     @Test
     public void failed() {
@@ -212,6 +360,120 @@ public class ScaHttpClientTests {
         Assertions.assertThrows(UnexpectedResponseBodyException.class, () -> scaHttpClient.getRiskAggregationOfArtifact("Npm", "lodash", "0.2.1"));
     }
 
+    @DisplayName("Get artifact risk aggregation asynchronously with licenses")
+    @Test
+    public void getArtifactVulnerabilitiesAsyncWithLicenses() throws ExecutionException, InterruptedException {
+
+        this.wireMockServer.stubFor(
+                WireMock.post("/public/risk-aggregation/aggregated-risks")
+                        .withHeader("cxorigin", matching("JFrog .*"))
+                        .willReturn(ok()
+                                .withHeader("Content-Type", "application/json; charset=UTF-8")
+                                .withBody("{\"packageVulnerabilitiesAggregation\":{\"vulnerabilitiesCount\":1,\"maxRiskSeverity\":\"Low\",\"maxRiskScore\":2.1,\"highRiskCount\":0,\"mediumRiskCount\":0,\"lowRiskCount\":1}}"))
+        );
+
+        this.wireMockServer.stubFor(
+                WireMock.get("/public/packages/Npm/lodash/versions/0.2.1/licenses")
+                        .withHeader("cxorigin", matching("JFrog .*"))
+                        .willReturn(ok()
+                                .withHeader("Content-Type", "application/json; charset=UTF-8")
+                                .withBody("{\"identifiedLicenses\":[{\"license\":{\"name\":\"MIT\"}}]}"))
+        );
+
+        var injector = CreateAppInjectorForTests();
+
+        var scaHttpClient = injector.getInstance(ScaHttpClient.class);
+
+        var riskAggregationOfArtifact = scaHttpClient.getRiskAggregationOfArtifactAsync("Npm", "lodash", "0.2.1").get();
+
+        Assertions.assertEquals(1, riskAggregationOfArtifact.getVulnerabilitiesAggregation().getLowRiskCount());
+        Assertions.assertEquals(List.of("MIT"), riskAggregationOfArtifact.getLicenses());
+    }
+
+    @DisplayName("Failed to get artifact risk aggregation asynchronously - Licenses not requested")
+    @Test
+    public void failedToGetArtifactRiskAggregationAsyncWithoutLicensesRequest() {
+
+        this.wireMockServer.stubFor(
+                WireMock.post("/public/risk-aggregation/aggregated-risks")
+                        .withHeader("cxorigin", matching("JFrog .*"))
+                        .willReturn(aResponse().withStatus(500))
+        );
+
+        var injector = CreateAppInjectorForTests();
+
+        var scaHttpClient = injector.getInstance(ScaHttpClient.class);
+
+        var exception = Assertions.assertThrows(ExecutionException.class, () -> scaHttpClient.getRiskAggregationOfArtifactAsync("Npm", "lodash", "0.2.1").get());
+
+        Assertions.assertInstanceOf(UnexpectedResponseCodeException.class, exception.getCause());
+        this.wireMockServer.verify(0, WireMock.getRequestedFor(WireMock.urlPathMatching(".*/licenses")));
+    }
+
+    @DisplayName("Failed to build the request - Returned as a failed future")
+    @Test
+    public void failedToBuildRequestAsync() {
+
+        var injector = CreateAppInjectorForTests();
+
+        var scaHttpClient = injector.getInstance(ScaHttpClient.class);
+
+        var artifactInformation = scaHttpClient.getArtifactInformationAsync(null, "lodash", "0.2.1");
+
+        Assertions.assertTrue(artifactInformation.isCompletedExceptionally());
+        this.wireMockServer.verify(0, WireMock.anyRequestedFor(WireMock.anyUrl()));
+    }
+
+    @DisplayName("Get licenses with the canonical PyPi name")
+    @Test
+    public void getLicensesWithCanonicalPyPiName() throws ExecutionException, InterruptedException {
+
+        this.wireMockServer.stubFor(
+                WireMock.post("/public/risk-aggregation/aggregated-risks")
+                        .willReturn(ok()
+                                .withHeader("Content-Type", "application/json; charset=UTF-8")
+                                .withBody("{\"packageVulnerabilitiesAggregation\":{\"vulnerabilitiesCount\":0,\"maxRiskSeverity\":\"None\",\"maxRiskScore\":0,\"highRiskCount\":0,\"mediumRiskCount\":0,\"lowRiskCount\":0}}"))
+        );
+
+        this.wireMockServer.stubFor(
+                WireMock.get("/public/packages/python/Zope.Interface/versions/5.4.0/licenses")
+                        .willReturn(ok()
+                                .withHeader("Content-Type", "application/json; charset=UTF-8")
+                                .withBody("{\"identifiedLicenses\":[{\"license\":{\"name\":\"ZPL-2.1\"}}]}"))
+        );
+
+        var injector = CreateAppInjectorForTests();
+
+        var scaHttpClient = injector.getInstance(ScaHttpClient.class);
+
+        var riskAggregationOfArtifact = scaHttpClient.getRiskAggregationOfArtifactAsync("python", "Zope.Interface", "5.4.0").get();
+
+        Assertions.assertEquals(List.of("ZPL-2.1"), riskAggregationOfArtifact.getLicenses());
+        this.wireMockServer.verify(1, WireMock.getRequestedFor(WireMock.urlMatching("/public/packages/python/.*")));
+    }
+
+    @DisplayName("Failed to get artifact information asynchronously - Not found")
+    @Test
+    public void failedToGetArtifactInformationAsyncNotFound() {
+
+        this.wireMockServer.stubFor(
+                WireMock.get("/public/packages/Npm/lodash/versions/0.2.1")
+                        .withHeader("cxorigin", matching("JFrog .*"))
+                        .willReturn(aResponse().withStatus(404))
+        );
+
+        var injector = CreateAppInjectorForTests();
+
+        var scaHttpClient = injector.getInstance(ScaHttpClient.class);
+
+        var future = scaHttpClient.getArtifactInformationAsync("Npm", "lodash", "0.2.1");
+
+        var exception = Assertions.assertThrows(ExecutionException.class, future::get);
+
+        Assertions.assertInstanceOf(UnexpectedResponseCodeException.class, exception.getCause());
+        Assertions.assertEquals(404, ((UnexpectedResponseCodeException) exception.getCause()).StatusCode);
+    }
+
     @DisplayName("Suggest private package with success")
     @Test
     public void suggestPrivatePackageWithSuccess() throws ExecutionException, InterruptedException {
@@ -2,10 +2,13 @@ package com.checkmarx.sca.communication.fallbacks;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 
+import java.util.List;
+
 @DisplayName("PyPiFallbackTests")
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
 public class PyPiFallbackTests {
@@ -24,4 +27,41 @@ public class PyPiFallbackTests {
 
         Assertions.assertEquals(expected, actual);
     }
+
+    @DisplayName("Normalize names per PEP 503")
+    @ParameterizedTest
+    @CsvSource({
+            "Django,django",
+            "zope.interface,zope-interface",
+            "Foo__Bar-.baz,foo-bar-baz",
+            "requests,requests"
+    })
+    public void normalize(String name, String expected) {
+        Assertions.assertEquals(expected, PyPiFallback.normalize(name));
+    }
+
+    @DisplayName("Prefer the name variant that was resolved before")
+    @Test
+    public void preferLearnedName() {
+        var pyPiFallback = new PyPiFallback();
+
+        Assertions.assertEquals("FS.Extra", pyPiFallback.getPreferredName("FS.Extra"));
+
+        pyPiFallback.recordResolvedName("fs-extra", "fs_extra");
+        Assertions.assertEquals("fs_extra", pyPiFallback.getPreferredName("FS.Extra"));
+
+        pyPiFallback.recordResolvedName("fs_extra", "fs_extra");
+        Assertions.assertEquals("fs-extra", pyPiFallback.getPreferredName("fs-extra"));
+    }
+
+    @DisplayName("Keep the original spelling among the fallback names")
+    @Test
+    public void fallbackNames() {
+        var pyPiFallback = new PyPiFallback();
+
+        Assertions.assertEquals(List.of("fs_extra"), pyPiFallback.getFallbackNames("fs-extra", "fs-extra"));
+        Assertions.assertEquals(List.of("fs-extra"), pyPiFallback.getFallbackNames("fs-extra", "fs_extra"));
+        Assertions.assertEquals(List.of("Django"), pyPiFallback.getFallbackNames("Django", "django"));
+        Assertions.assertEquals(List.of(), pyPiFallback.getFallbackNames("Django", "Django"));
+    }
 }
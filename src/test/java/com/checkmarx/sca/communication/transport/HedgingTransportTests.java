@@ -0,0 +1,79 @@
+package com.checkmarx.sca.communication.transport;
+
+import com.checkmarx.sca.communication.models.ScaResponse;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@DisplayName("HedgingTransport")
+public class HedgingTransportTests {
+
+    private final HttpRequest _getRequest = HttpRequest.newBuilder(URI.create("http://localhost/public/packages/npm/lodash/versions/0.2.1")).GET().build();
+
+    @DisplayName("Send a hedged request when the first one is slow")
+    @Test
+    public void hedgeSlowRequest() throws ExecutionException, InterruptedException {
+        var calls = new AtomicInteger();
+        IScaTransport delegate = request -> calls.incrementAndGet() == 1
+                ? delayedResponse(5_000, "slow")
+                : CompletableFuture.completedFuture(new ScaResponse(200, "fast"));
+
+        var hedgingTransport = new HedgingTransport(delegate, 95, 10, 100);
+
+        var response = hedgingTransport.sendAsync(_getRequest).get();
+
+        Assertions.assertEquals("fast", response.body());
+        Assertions.assertEquals(1, hedgingTransport.getHedgesCount());
+        Assertions.assertEquals(1, hedgingTransport.getHedgeWinsCount());
+    }
+
+    @DisplayName("Do not hedge when the budget is exhausted")
+    @Test
+    public void doNotHedgeWithoutBudget() throws ExecutionException, InterruptedException {
+        var calls = new AtomicInteger();
+        IScaTransport delegate = request -> {
+            calls.incrementAndGet();
+            return delayedResponse(50, "slow");
+        };
+
+        var hedgingTransport = new HedgingTransport(delegate, 95, 1, 0);
+
+        var response = hedgingTransport.sendAsync(_getRequest).get();
+
+        Assertions.assertEquals("slow", response.body());
+        Assertions.assertEquals(1, calls.get());
+        Assertions.assertEquals(0, hedgingTransport.getHedgesCount());
+    }
+
+    @DisplayName("Never hedge non idempotent requests")
+    @Test
+    public void doNotHedgePostRequests() throws ExecutionException, InterruptedException {
+        var calls = new AtomicInteger();
+        IScaTransport delegate = request -> {
+            calls.incrementAndGet();
+            return delayedResponse(50, "slow");
+        };
+
+        var hedgingTransport = new HedgingTransport(delegate, 95, 1, 100);
+        var postRequest = HttpRequest.newBuilder(URI.create("http://localhost/public/risk-aggregation/aggregated-risks"))
+                .POST(HttpRequest.BodyPublishers.ofString("{}"))
+                .build();
+
+        hedgingTransport.sendAsync(postRequest).get();
+
+        Assertions.assertEquals(1, calls.get());
+        Assertions.assertEquals(0, hedgingTransport.getRequestsCount());
+    }
+
+    private static CompletableFuture<ScaResponse> delayedResponse(long delayMillis, String body) {
+        var executor = CompletableFuture.delayedExecutor(delayMillis, TimeUnit.MILLISECONDS);
+        return CompletableFuture.supplyAsync(() -> new ScaResponse(200, body), executor);
+    }
+}
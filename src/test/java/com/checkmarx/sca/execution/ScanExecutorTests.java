@@ -0,0 +1,194 @@
+package com.checkmarx.sca.execution;
+
+import com.checkmarx.sca.configuration.ConfigurationEntry;
+import com.checkmarx.sca.configuration.PluginConfiguration;
+import org.artifactory.exception.CancelException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.slf4j.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+public class ScanExecutorTests {
+
+    @DisplayName("Execute inline when no limit is configured")
+    @Test
+    public void executeInlineByDefault() {
+        var scanExecutor = createScanExecutor(new Properties());
+
+        var callerThread = Thread.currentThread();
+        var executionThread = new Thread[1];
+        scanExecutor.execute(() -> executionThread[0] = Thread.currentThread());
+
+        Assertions.assertTrue(scanExecutor.isInline());
+        Assertions.assertSame(callerThread, executionThread[0]);
+    }
+
+    @DisplayName("Propagate the CancelException to the caller thread")
+    @Test
+    public void propagateCancelException() {
+        var properties = new Properties();
+        properties.setProperty(ConfigurationEntry.EXECUTION_MAX_CONCURRENT_DOWNLOADS.propertyKey(), "4");
+
+        var scanExecutor = createScanExecutor(properties);
+
+        var exception = Assertions.assertThrows(CancelException.class, () -> scanExecutor.execute(() -> {
+            throw new CancelException("blocked", 403);
+        }));
+        Assertions.assertEquals("blocked", exception.getMessage());
+    }
+
+    @DisplayName("Execute on the caller thread when the downloads are limited")
+    @Test
+    public void executeOnCallerThread() {
+        var properties = new Properties();
+        properties.setProperty(ConfigurationEntry.EXECUTION_MAX_CONCURRENT_DOWNLOADS.propertyKey(), "4");
+
+        var scanExecutor = createScanExecutor(properties);
+
+        var callerThread = Thread.currentThread();
+        var executionThread = new Thread[1];
+        scanExecutor.execute(() -> executionThread[0] = Thread.currentThread());
+
+        Assertions.assertSame(callerThread, executionThread[0]);
+    }
+
+    @DisplayName("Fail the verification when interrupted while waiting for a permit")
+    @Test
+    public void failWhenInterrupted() {
+        var properties = new Properties();
+        properties.setProperty(ConfigurationEntry.EXECUTION_MAX_CONCURRENT_DOWNLOADS.propertyKey(), "1");
+
+        var scanExecutor = createScanExecutor(properties);
+        var executed = new AtomicInteger();
+
+        scanExecutor.execute(() -> {
+            Thread.currentThread().interrupt();
+            Assertions.assertThrows(CancelException.class, () -> scanExecutor.execute(executed::incrementAndGet));
+        });
+
+        Assertions.assertTrue(Thread.interrupted());
+        Assertions.assertEquals(0, executed.get());
+    }
+
+    @DisplayName("Execute all the items without exceeding the scan concurrency")
+    @Test
+    public void executeAllWithinScanConcurrency() {
+        var properties = new Properties();
+        properties.setProperty(ConfigurationEntry.EXECUTION_CONCURRENT_SCAN.propertyKey(), "true");
+        properties.setProperty(ConfigurationEntry.EXECUTION_SCAN_CONCURRENCY.propertyKey(), "4");
+
+        var scanExecutor = createScanExecutor(properties);
+
+        var running = new AtomicInteger();
+        var maxRunning = new AtomicInteger();
+        var processed = ConcurrentHashMap.<Integer>newKeySet();
+        List<Integer> items = IntStream.range(0, 100).boxed().collect(Collectors.toList());
+
+        Assertions.assertFalse(scanExecutor.isInline());
+        scanExecutor.executeAll(items, item -> new TestScanTask(() -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(1);
+            } catch (InterruptedException ignored) {
+            }
+            processed.add(item);
+            running.decrementAndGet();
+        }));
+
+        Assertions.assertEquals(100, processed.size());
+        Assertions.assertTrue(maxRunning.get() <= 4);
+    }
+
+    @DisplayName("Prepare and complete the scan tasks on the caller thread")
+    @Test
+    public void prepareAndCompleteOnCallerThread() {
+        var properties = new Properties();
+        properties.setProperty(ConfigurationEntry.EXECUTION_CONCURRENT_SCAN.propertyKey(), "true");
+        properties.setProperty(ConfigurationEntry.EXECUTION_SCAN_CONCURRENCY.propertyKey(), "4");
+
+        var scanExecutor = createScanExecutor(properties);
+
+        var callerThread = Thread.currentThread();
+        var tasks = new ArrayList<TestScanTask>();
+        List<Integer> items = IntStream.range(0, 20).boxed().collect(Collectors.toList());
+
+        scanExecutor.executeAll(items, item -> {
+            var task = new TestScanTask(() -> {
+                if (item % 5 == 0) {
+                    throw new IllegalStateException("fetch failed");
+                }
+            });
+            tasks.add(task);
+            return task;
+        });
+
+        Assertions.assertEquals(20, tasks.size());
+        for (var task : tasks) {
+            Assertions.assertSame(callerThread, task.prepareThread);
+            Assertions.assertSame(callerThread, task.completeThread);
+            Assertions.assertNotSame(callerThread, task.fetchThread);
+        }
+    }
+
+    @DisplayName("Complete the scan task without fetching when there is nothing to fetch")
+    @Test
+    public void completeWithoutFetching() {
+        var properties = new Properties();
+        properties.setProperty(ConfigurationEntry.EXECUTION_CONCURRENT_SCAN.propertyKey(), "true");
+
+        var scanExecutor = createScanExecutor(properties);
+
+        var task = new TestScanTask(() -> {
+        });
+        task.fetchNeeded = false;
+
+        scanExecutor.executeAll(List.of(1), item -> task);
+
+        Assertions.assertNull(task.fetchThread);
+        Assertions.assertSame(Thread.currentThread(), task.completeThread);
+    }
+
+    private ScanExecutor createScanExecutor(Properties properties) {
+        var logger = Mockito.mock(Logger.class);
+        var configuration = new PluginConfiguration(properties, logger);
+        return new ScanExecutor(configuration, logger);
+    }
+
+    private static final class TestScanTask implements IScanTask {
+        private final Runnable _fetch;
+        private boolean fetchNeeded = true;
+        private volatile Thread prepareThread;
+        private volatile Thread fetchThread;
+        private volatile Thread completeThread;
+
+        private TestScanTask(Runnable fetch) {
+            _fetch = fetch;
+        }
+
+        @Override
+        public boolean prepare() {
+            prepareThread = Thread.currentThread();
+            return fetchNeeded;
+        }
+
+        @Override
+        public void fetch() {
+            fetchThread = Thread.currentThread();
+            _fetch.run();
+        }
+
+        @Override
+        public void complete() {
+            completeThread = Thread.currentThread();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.checkmarx.sca.logging;
+
+import com.checkmarx.sca.configuration.PluginConfiguration;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.slf4j.Logger;
+
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@DisplayName("LogThrottle")
+public class LogThrottleTests {
+    private Logger _logger;
+    private AtomicLong _clock;
+    private Properties _properties;
+
+    @BeforeEach
+    public void beforeEach() {
+        _logger = Mockito.mock(Logger.class);
+        _clock = new AtomicLong();
+        _properties = new Properties();
+    }
+
+    @DisplayName("Log one out of every N events")
+    @Test
+    public void sampleEvents() {
+        _properties.setProperty(LogEvent.SCAN_IGNORED.propertyKey(), "3");
+        _properties.setProperty("sca.log.rate-limit", "0");
+        var logThrottle = createLogThrottle();
+
+        var logged = 0;
+        for (var i = 0; i < 9; i++) {
+            if (logThrottle.shouldLog(LogEvent.SCAN_IGNORED)) {
+                logged++;
+            }
+        }
+
+        Assertions.assertEquals(3, logged);
+        Assertions.assertTrue(logThrottle.shouldLog(LogEvent.DOWNLOAD_BLOCKED));
+    }
+
+    @DisplayName("Log every line without a summary by default")
+    @Test
+    public void logEverythingByDefault() {
+        var logThrottle = createLogThrottle();
+
+        for (var i = 0; i < 100; i++) {
+            for (var event : LogEvent.values()) {
+                Assertions.assertTrue(logThrottle.shouldLog(event));
+            }
+        }
+
+        _clock.addAndGet(TimeUnit.SECONDS.toNanos(60));
+        Assertions.assertTrue(logThrottle.shouldLog(LogEvent.SCAN_ENDED));
+        verify(_logger, never()).info(anyString(), any(), any());
+    }
+
+    @DisplayName("Limit the lines logged per second")
+    @Test
+    public void rateLimitEvents() {
+        _properties.setProperty("sca.log.rate-limit", "2");
+        var logThrottle = createLogThrottle();
+
+        Assertions.assertTrue(logThrottle.shouldLog(LogEvent.DOWNLOAD_BLOCKED));
+        Assertions.assertTrue(logThrottle.shouldLog(LogEvent.DOWNLOAD_BLOCKED));
+        Assertions.assertFalse(logThrottle.shouldLog(LogEvent.DOWNLOAD_BLOCKED));
+
+        _clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+
+        Assertions.assertTrue(logThrottle.shouldLog(LogEvent.DOWNLOAD_BLOCKED));
+    }
+
+    @DisplayName("Log a summary of the counted events once per interval")
+    @Test
+    public void logSummary() {
+        _properties.setProperty("sca.log.summary-interval-seconds", "60");
+        _properties.setProperty(LogEvent.SCAN_STARTED.propertyKey(), "0");
+        var logThrottle = createLogThrottle();
+
+        logThrottle.shouldLog(LogEvent.SCAN_STARTED);
+        logThrottle.shouldLog(LogEvent.SCAN_STARTED);
+        verify(_logger, never()).info(anyString(), any(), any());
+
+        _clock.addAndGet(TimeUnit.SECONDS.toNanos(60));
+        logThrottle.shouldLog(LogEvent.SCAN_ENDED);
+
+        verify(_logger, times(1)).info(anyString(), eq(60L), eq("scan_started=2 (2 not logged)"));
+
+        logThrottle.shouldLog(LogEvent.SCAN_ENDED);
+        verify(_logger, times(1)).info(anyString(), any(), any());
+    }
+
+    private LogThrottle createLogThrottle() {
+        return new LogThrottle(new PluginConfiguration(_properties, _logger), _logger, _clock::get);
+    }
+}
@@ -0,0 +1,104 @@
+package com.checkmarx.sca.metrics;
+
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+@DisplayName("MetricsRegistry")
+public class MetricsRegistryTests {
+
+    @DisplayName("Record stage latencies in cumulative buckets")
+    @Test
+    public void recordStageLatencies() {
+        var metrics = new MetricsRegistry();
+
+        metrics.recordStage(PipelineStage.ARTIFACT_INFO, "npm", TimeUnit.MILLISECONDS.toNanos(3));
+        metrics.recordStage(PipelineStage.ARTIFACT_INFO, "npm", TimeUnit.MILLISECONDS.toNanos(40));
+        metrics.recordStage(PipelineStage.ARTIFACT_INFO, "npm", TimeUnit.SECONDS.toNanos(30));
+
+        var histogram = metrics.getStageLatency(PipelineStage.ARTIFACT_INFO, "npm");
+        var counts = histogram.getCumulativeCounts();
+
+        Assertions.assertEquals(3, histogram.getCount());
+        Assertions.assertEquals(0, counts[1]);
+        Assertions.assertEquals(1, counts[2]);
+        Assertions.assertEquals(2, counts[5]);
+        Assertions.assertEquals(2, counts[counts.length - 2]);
+        Assertions.assertEquals(3, counts[counts.length - 1]);
+        Assertions.assertNull(metrics.getStageLatency(PipelineStage.ARTIFACT_INFO, "pypi"));
+    }
+
+    @DisplayName("Bucket sub-millisecond durations without truncating them")
+    @Test
+    public void recordFractionalMilliseconds() {
+        var metrics = new MetricsRegistry();
+
+        metrics.recordStage(PipelineStage.ARTIFACT_ID, "npm", TimeUnit.MICROSECONDS.toNanos(400));
+        metrics.recordStage(PipelineStage.ARTIFACT_ID, "npm", TimeUnit.MICROSECONDS.toNanos(1_900));
+        metrics.recordStage(PipelineStage.ARTIFACT_ID, "npm", TimeUnit.MILLISECONDS.toNanos(2));
+
+        var counts = metrics.getStageLatency(PipelineStage.ARTIFACT_ID, "npm").getCumulativeCounts();
+
+        Assertions.assertEquals(1, counts[0]);
+        Assertions.assertEquals(3, counts[1]);
+    }
+
+    @DisplayName("Count cache results, blocks and SCA responses")
+    @Test
+    public void countEvents() {
+        var metrics = new MetricsRegistry();
+
+        metrics.countCache("scan_result", "maven", true);
+        metrics.countCache("scan_result", "maven", true);
+        metrics.countCache("scan_result", "maven", false);
+        metrics.countBlock("security_threshold", null);
+        metrics.countScaResponse("artifact_info", "pypi", 404);
+
+        Assertions.assertEquals(2, metrics.getCacheCount("scan_result", "maven", true));
+        Assertions.assertEquals(1, metrics.getCacheCount("scan_result", "maven", false));
+        Assertions.assertEquals(1, metrics.getBlockCount("security_threshold", MetricsRegistry.UnknownPackageManager));
+        Assertions.assertEquals(1, metrics.getScaResponseCount("artifact_info", "pypi", 404));
+        Assertions.assertEquals(0, metrics.getScaResponseCount("artifact_info", "pypi", 200));
+        Assertions.assertEquals(0, metrics.getScaResponseCount("artifact_info", "npm", 404));
+    }
+
+    @DisplayName("Export metrics in the Prometheus text format")
+    @Test
+    public void exportPrometheus() {
+        var metrics = new MetricsRegistry();
+        metrics.recordStage(PipelineStage.BEFORE_DOWNLOAD, "pypi", TimeUnit.MILLISECONDS.toNanos(7));
+        metrics.countBlock("license_allowance", "pypi");
+
+        var text = metrics.toPrometheus();
+
+        Assertions.assertTrue(text.contains("# TYPE cxsca_stage_duration_seconds histogram"));
+        Assertions.assertTrue(text.contains("cxsca_stage_duration_seconds_bucket{stage=\"before_download\",package_manager=\"pypi\",le=\"0.005\"} 0"));
+        Assertions.assertTrue(text.contains("cxsca_stage_duration_seconds_bucket{stage=\"before_download\",package_manager=\"pypi\",le=\"0.010\"} 1"));
+        Assertions.assertTrue(text.contains("cxsca_stage_duration_seconds_count{stage=\"before_download\",package_manager=\"pypi\"} 1"));
+        Assertions.assertTrue(text.contains("cxsca_blocks_total{reason=\"license_allowance\",package_manager=\"pypi\"} 1"));
+    }
+
+    @DisplayName("Export metrics as JSON")
+    @Test
+    public void exportJson() {
+        var metrics = new MetricsRegistry();
+        metrics.recordStage(PipelineStage.RISK_AGGREGATION, "go", TimeUnit.MILLISECONDS.toNanos(120));
+        metrics.countScaResponse("risk_aggregation", "go", 200);
+
+        var json = JsonParser.parseString(metrics.toJson()).getAsJsonObject();
+
+        var stage = json.getAsJsonArray("stages").get(0).getAsJsonObject();
+        Assertions.assertEquals("risk_aggregation", stage.get("stage").getAsString());
+        Assertions.assertEquals("go", stage.get("packageManager").getAsString());
+        Assertions.assertEquals(1, stage.getAsJsonObject("bucketsMillis").get("250").getAsLong());
+        Assertions.assertEquals(0, stage.getAsJsonObject("bucketsMillis").get("100").getAsLong());
+
+        var response = json.getAsJsonArray("scaResponses").get(0).getAsJsonObject();
+        Assertions.assertEquals("go", response.get("packageManager").getAsString());
+        Assertions.assertEquals("200", response.get("status").getAsString());
+        Assertions.assertEquals(1, response.get("count").getAsLong());
+    }
+}
@@ -0,0 +1,75 @@
+package com.checkmarx.sca.metrics;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+@DisplayName("PluginStatus")
+public class PluginStatusTests {
+
+    @DisplayName("Track the backfill position")
+    @Test
+    public void trackBackfill() {
+        var status = new PluginStatus();
+
+        status.backfillStarted(3);
+        status.backfillProcessed();
+        status.backfillProcessed();
+
+        var backfill = getSection(status, "backfill");
+        Assertions.assertEquals(true, backfill.get("running"));
+        Assertions.assertEquals(2L, backfill.get("processed"));
+        Assertions.assertEquals(3L, backfill.get("total"));
+
+        status.backfillFinished();
+
+        Assertions.assertEquals(false, getSection(status, "backfill").get("running"));
+    }
+
+    @DisplayName("Track in-flight and failing SCA requests")
+    @Test
+    public void trackScaRequests() {
+        var status = new PluginStatus();
+
+        status.scaRequestStarted();
+        status.scaRequestStarted();
+        Assertions.assertEquals(2, status.getScaRequestsInFlight());
+
+        status.scaRequestFinished(false);
+        status.scaRequestFinished(false);
+        Assertions.assertEquals(0, status.getScaRequestsInFlight());
+        Assertions.assertEquals(2, status.getConsecutiveScaFailures());
+
+        status.scaRequestStarted();
+        status.scaRequestFinished(true);
+
+        var sca = getSection(status, "sca");
+        Assertions.assertEquals(3L, sca.get("requests"));
+        Assertions.assertEquals(2L, sca.get("failures"));
+        Assertions.assertEquals(0, sca.get("consecutiveFailures"));
+        Assertions.assertNotNull(sca.get("lastSuccess"));
+        Assertions.assertNotNull(sca.get("lastFailure"));
+    }
+
+    @DisplayName("Track artifact verifications")
+    @Test
+    public void trackVerifications() {
+        var status = new PluginStatus();
+
+        status.verificationStarted();
+        status.verificationStarted();
+        status.verificationFinished(true);
+
+        var verifications = getSection(status, "verifications");
+        Assertions.assertEquals(1, verifications.get("inProgress"));
+        Assertions.assertEquals(1L, verifications.get("completed"));
+        Assertions.assertEquals(0L, verifications.get("failed"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> getSection(PluginStatus status, String section) {
+        return (Map<String, Object>) status.toMap().get(section);
+    }
+}
@@ -0,0 +1,59 @@
+package com.checkmarx.sca.models;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+
+@DisplayName("ArtifactId")
+public class ArtifactIdTests {
+
+    @DisplayName("Equal artifact ids have the same hash code")
+    @Test
+    public void equalArtifactIds() {
+        var artifactId = new ArtifactId("npm", "lodash", "0.2.1");
+        var sameArtifactId = new ArtifactId("npm", "lodash", "0.2.1");
+
+        Assertions.assertEquals(artifactId, sameArtifactId);
+        Assertions.assertEquals(artifactId.hashCode(), sameArtifactId.hashCode());
+        Assertions.assertEquals(artifactId, new ArtifactId("Npm", "lodash", "0.2.1"));
+        Assertions.assertNotEquals(artifactId, new ArtifactId("npm", "lodash", "0.2.2"));
+        Assertions.assertNotEquals(artifactId, new ArtifactId("npm", "Lodash", "0.2.1"));
+        Assertions.assertNotEquals(artifactId, new ArtifactId("maven", "lodash", "0.2.1"));
+        Assertions.assertEquals(1, new HashSet<>(List.of(artifactId, sameArtifactId)).size());
+    }
+
+    @DisplayName("Normalize names the way the package manager does")
+    @Test
+    public void normalizeNames() {
+        Assertions.assertEquals(new ArtifactId("python", "google-parser", "0.0.135"), new ArtifactId("python", "Google_Parser", "0.0.135"));
+        Assertions.assertEquals(new ArtifactId("python", "zope-interface", "5.4.0"), new ArtifactId("python", "zope.interface", "5.4.0"));
+        Assertions.assertEquals(new ArtifactId("nuget", "newtonsoft.json", "13.0.1-beta1"), new ArtifactId("nuget", "Newtonsoft.Json", "13.0.1-Beta1"));
+        Assertions.assertEquals(new ArtifactId("php", "monolog/monolog", "2.3.5"), new ArtifactId("php", "Monolog/Monolog", "2.3.5"));
+        Assertions.assertNotEquals(new ArtifactId("maven", "org.apache:commons", "1.0"), new ArtifactId("maven", "org.apache:Commons", "1.0"));
+        Assertions.assertEquals("python:google-parser:0.0.135", new ArtifactId("Python", "Google_Parser", "0.0.135").getKey());
+    }
+
+    @DisplayName("Keep the original values")
+    @Test
+    public void keepOriginalValues() {
+        var artifactId = new ArtifactId("python", "Google_Parser", "0.0.135");
+
+        Assertions.assertEquals("Google_Parser", artifactId.Name);
+        Assertions.assertEquals("0.0.135", artifactId.Version);
+        Assertions.assertEquals("python", artifactId.PackageType);
+        Assertions.assertEquals("python:Google_Parser:0.0.135", artifactId.toString());
+    }
+
+    @DisplayName("Compare invalid artifact ids")
+    @Test
+    public void invalidArtifactIds() {
+        var artifactId = new ArtifactId("npm", null, null);
+
+        Assertions.assertTrue(artifactId.isInvalid());
+        Assertions.assertEquals(artifactId, new ArtifactId("npm", null, null));
+        Assertions.assertNotEquals(artifactId, new ArtifactId("npm", "null", "null"));
+    }
+}
@@ -153,8 +153,8 @@ public class ArtifactIdBuilderTests {
 
         artifactIdBuilder.getArtifactId(fileLayoutInfo, repoPath, packageManager);
 
-        Mockito.verify(_logger, times(1)).info(Mockito.argThat(s -> s.contains(packageManager.packageType())));
-        Mockito.verify(_logger, times(1)).debug(Mockito.argThat(s -> s.contains(path)));
+        Mockito.verify(_logger, times(1)).info(Mockito.argThat((String s) -> s.contains("packageType is not supported")), Mockito.eq((Object) ""), Mockito.eq((Object) "name"));
+        Mockito.verify(_logger, times(1)).debug(Mockito.argThat(s -> s.contains("Path not supported by regex")), Mockito.eq((Object) path));
     }
 
     @DisplayName("Get artifact id with success - Bower")
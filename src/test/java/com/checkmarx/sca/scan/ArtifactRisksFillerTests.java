@@ -2,6 +2,7 @@ package com.checkmarx.sca.scan;
 
 import com.checkmarx.sca.PropertiesConstants;
 import com.checkmarx.sca.TestsInjector;
+import com.checkmarx.sca.cache.CanonicalArtifactCache;
 import com.checkmarx.sca.communication.ScaHttpClient;
 import com.checkmarx.sca.communication.exceptions.UnexpectedResponseCodeException;
 import com.checkmarx.sca.configuration.PluginConfiguration;
@@ -20,17 +21,23 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mockito;
 import org.slf4j.Logger;
+import org.slf4j.helpers.MessageFormatter;
 
 import java.lang.reflect.Type;
+import java.nio.file.Path;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Properties;
 import java.util.concurrent.ExecutionException;
 
 import static java.lang.String.format;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isA;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.when;
@@ -94,6 +101,37 @@ public class ArtifactRisksFillerTests {
         Mockito.verify(_repositories, times(8)).setProperty(isA(RepoPath.class), isA(String.class), isA(String.class));
     }
 
+    @DisplayName("Check artifact with success - canonical artifact reused")
+    @Test
+    public void addArtifactRisksWithCanonicalArtifactCache(@TempDir Path cacheDirectory) throws ExecutionException, InterruptedException {
+
+        var canonicalArtifactCache = new CanonicalArtifactCache(cacheDirectory.resolve("artifacts.jsonl"), _logger);
+        var configuration = new PluginConfiguration(new Properties(), _logger);
+        var appInjector = new TestsInjector(_logger, configuration, new ArtifactRisksFiller(_repositories, canonicalArtifactCache), Mockito.mock(SecurityThresholdChecker.class));
+        appInjector.setScaHttpClient(_scaHttpClient);
+
+        var fileLayoutInfo = CreateFileLayoutInfoMock();
+
+        var localRepositoryConfiguration = Mockito.mock(LocalRepositoryConfiguration.class);
+        when(localRepositoryConfiguration.getPackageType()).thenReturn(ArtifactType);
+
+        when(_repositories.exists(_mainRepoPath)).thenReturn(false);
+        when(_repositories.getLayoutInfo(_mainRepoPath)).thenReturn(fileLayoutInfo);
+        when(_repositories.getRepositoryConfiguration(RepoKey)).thenReturn(localRepositoryConfiguration);
+
+        MockScaHttpClientMethods();
+
+        var ArtifactRisksFiller = Guice.createInjector(appInjector).getInstance(ArtifactRisksFiller.class);
+
+        Assertions.assertTrue(ArtifactRisksFiller.addArtifactRisks(_mainRepoPath, new ArrayList<>(List.of(_mainRepoPath))));
+        Assertions.assertTrue(ArtifactRisksFiller.addArtifactRisks(_mainRepoPath, new ArrayList<>(List.of(_mainRepoPath))));
+
+        Mockito.verify(_scaHttpClient, times(1)).getArtifactInformation(isA(String.class), isA(String.class), isA(String.class), any());
+        Mockito.verify(_scaHttpClient, times(2)).getRiskAggregationOfArtifact(isA(String.class), isA(String.class), isA(String.class), any());
+        Assertions.assertEquals(1, canonicalArtifactCache.size());
+        canonicalArtifactCache.close();
+    }
+
     @DisplayName("Check artifact with success - two repositories repository")
     @Test
     public void addArtifactRisksWithSuccessFromVirtualRepo() throws ExecutionException, InterruptedException {
@@ -119,8 +157,8 @@ public class ArtifactRisksFillerTests {
         Assertions.assertTrue(result);
         withoutWarningsAndErrors();
         Mockito.verify(_repositories, times(16)).setProperty(isA(RepoPath.class), isA(String.class), isA(String.class));
-        Mockito.verify(_scaHttpClient, times(1)).getArtifactInformation(isA(String.class), isA(String.class), isA(String.class));
-        Mockito.verify(_scaHttpClient, times(1)).getRiskAggregationOfArtifact(isA(String.class), isA(String.class), isA(String.class));
+        Mockito.verify(_scaHttpClient, times(1)).getArtifactInformation(isA(String.class), isA(String.class), isA(String.class), any());
+        Mockito.verify(_scaHttpClient, times(1)).getRiskAggregationOfArtifact(isA(String.class), isA(String.class), isA(String.class), any());
     }
 
     @DisplayName("Check artifact with success - two repositories not ignored by one")
@@ -152,8 +190,8 @@ public class ArtifactRisksFillerTests {
         Assertions.assertTrue(result);
         withoutWarningsAndErrors();
         Mockito.verify(_repositories, times(16)).setProperty(isA(RepoPath.class), isA(String.class), isA(String.class));
-        Mockito.verify(_scaHttpClient, times(1)).getArtifactInformation(isA(String.class), isA(String.class), isA(String.class));
-        Mockito.verify(_scaHttpClient, times(1)).getRiskAggregationOfArtifact(isA(String.class), isA(String.class), isA(String.class));
+        Mockito.verify(_scaHttpClient, times(1)).getArtifactInformation(isA(String.class), isA(String.class), isA(String.class), any());
+        Mockito.verify(_scaHttpClient, times(1)).getRiskAggregationOfArtifact(isA(String.class), isA(String.class), isA(String.class), any());
     }
 
     @DisplayName("Failed to check artifact - artifact not found")
@@ -169,9 +207,9 @@ public class ArtifactRisksFillerTests {
         var result = ArtifactRisksFiller.addArtifactRisks(_mainRepoPath, new ArrayList<>());
 
         Assertions.assertFalse(result);
-        Mockito.verify(_logger, times(1)).warn(Mockito.argThat(s -> s.contains("Artifact not found in any repository.")));
-        Mockito.verify(_scaHttpClient, never()).getArtifactInformation(isA(String.class), isA(String.class), isA(String.class));
-        Mockito.verify(_scaHttpClient, never()).getRiskAggregationOfArtifact(isA(String.class), isA(String.class), isA(String.class));
+        Assertions.assertEquals(1, countLogs("warn", "Artifact not found in any repository."));
+        Mockito.verify(_scaHttpClient, never()).getArtifactInformation(isA(String.class), isA(String.class), isA(String.class), any());
+        Mockito.verify(_scaHttpClient, never()).getRiskAggregationOfArtifact(isA(String.class), isA(String.class), isA(String.class), any());
     }
 
     @DisplayName("Artifact verification ignored")
@@ -189,9 +227,9 @@ public class ArtifactRisksFillerTests {
         var result = ArtifactRisksFiller.addArtifactRisks(_mainRepoPath, new ArrayList<>(List.of(_mainRepoPath)));
 
         Assertions.assertTrue(result);
-        Mockito.verify(_logger, times(1)).info(Mockito.argThat(s -> s.contains("Scan ignored by cache configuration.")));
-        Mockito.verify(_scaHttpClient, never()).getArtifactInformation(isA(String.class), isA(String.class), isA(String.class));
-        Mockito.verify(_scaHttpClient, never()).getRiskAggregationOfArtifact(isA(String.class), isA(String.class), isA(String.class));
+        Mockito.verify(_logger, times(1)).info(Mockito.argThat(s -> s.contains("Scan ignored by cache configuration.")), (Object) Mockito.any());
+        Mockito.verify(_scaHttpClient, never()).getArtifactInformation(isA(String.class), isA(String.class), isA(String.class), any());
+        Mockito.verify(_scaHttpClient, never()).getRiskAggregationOfArtifact(isA(String.class), isA(String.class), isA(String.class), any());
     }
 
     @DisplayName("Artifact verification not ignored - missing properties")
@@ -245,9 +283,9 @@ public class ArtifactRisksFillerTests {
         var result = ArtifactRisksFiller.addArtifactRisks(_mainRepoPath, new ArrayList<>(List.of(_mainRepoPath)));
 
         Assertions.assertFalse(result);
-        Mockito.verify(_logger, times(1)).error(Mockito.argThat(s -> s.contains("The artifact id was not built correctly.")));
-        Mockito.verify(_scaHttpClient, never()).getArtifactInformation(isA(String.class), isA(String.class), isA(String.class));
-        Mockito.verify(_scaHttpClient, never()).getRiskAggregationOfArtifact(isA(String.class), isA(String.class), isA(String.class));
+        Assertions.assertEquals(1, countLogs("error", "The artifact id was not built correctly."));
+        Mockito.verify(_scaHttpClient, never()).getArtifactInformation(isA(String.class), isA(String.class), isA(String.class), any());
+        Mockito.verify(_scaHttpClient, never()).getRiskAggregationOfArtifact(isA(String.class), isA(String.class), isA(String.class), any());
     }
 
     @DisplayName("Failed to check artifact - failed to get artifact info")
@@ -264,7 +302,7 @@ public class ArtifactRisksFillerTests {
         when(_repositories.getRepositoryConfiguration(RepoKey)).thenReturn(localRepositoryConfiguration);
 
         var exception = new InterruptedException("Test Exception");
-        when(_scaHttpClient.getArtifactInformation(ArtifactType, ArtifactName, ArtifactVersion))
+        when(_scaHttpClient.getArtifactInformation(eq(ArtifactType), eq(ArtifactName), eq(ArtifactVersion), any()))
                 .thenThrow(exception);
 
         var ArtifactRisksFiller = _injector.getInstance(ArtifactRisksFiller.class);
@@ -272,7 +310,7 @@ public class ArtifactRisksFillerTests {
         var result = ArtifactRisksFiller.addArtifactRisks(_mainRepoPath, new ArrayList<>(List.of(_mainRepoPath)));
 
         Assertions.assertFalse(result);
-        Mockito.verify(_logger, times(1)).error(Mockito.argThat(s -> s.contains(exception.getMessage())));
+        Assertions.assertEquals(1, countLogs("error", exception.getMessage()));
         Mockito.verify(_repositories, times(0)).setProperty(isA(RepoPath.class), isA(String.class), isA(String.class));
     }
 
@@ -290,7 +328,7 @@ public class ArtifactRisksFillerTests {
         when(_repositories.getRepositoryConfiguration(RepoKey)).thenReturn(localRepositoryConfiguration);
 
         var exception = new UnexpectedResponseCodeException(404);
-        when(_scaHttpClient.getArtifactInformation(ArtifactType, ArtifactName, ArtifactVersion))
+        when(_scaHttpClient.getArtifactInformation(eq(ArtifactType), eq(ArtifactName), eq(ArtifactVersion), any()))
                 .thenThrow(exception);
 
         var ArtifactRisksFiller = _injector.getInstance(ArtifactRisksFiller.class);
@@ -298,7 +336,7 @@ public class ArtifactRisksFillerTests {
         var result = ArtifactRisksFiller.addArtifactRisks(_mainRepoPath, new ArrayList<>(List.of(_mainRepoPath)));
 
         Assertions.assertFalse(result);
-        Mockito.verify(_logger, times(1)).error(Mockito.argThat(s -> s.contains(exception.getMessage())));
+        Assertions.assertEquals(1, countLogs("error", exception.getMessage()));
         Mockito.verify(_repositories, never()).setProperty(isA(RepoPath.class), isA(String.class), isA(String.class));
     }
 
@@ -316,11 +354,11 @@ public class ArtifactRisksFillerTests {
         when(_repositories.getRepositoryConfiguration(RepoKey)).thenReturn(localRepositoryConfiguration);
 
         var artifactInfo = CreateArtifactInfo();
-        when(_scaHttpClient.getArtifactInformation(ArtifactType, ArtifactName, ArtifactVersion))
+        when(_scaHttpClient.getArtifactInformation(eq(ArtifactType), eq(ArtifactName), eq(ArtifactVersion), any()))
                 .thenReturn(artifactInfo);
 
         var exception = new UnexpectedResponseCodeException(404);
-        when(_scaHttpClient.getRiskAggregationOfArtifact(artifactInfo.getPackageType(), artifactInfo.getName(), artifactInfo.getVersion()))
+        when(_scaHttpClient.getRiskAggregationOfArtifact(eq(artifactInfo.getPackageType()), eq(artifactInfo.getName()), eq(artifactInfo.getVersion()), any()))
                 .thenThrow(exception);
 
         var ArtifactRisksFiller = _injector.getInstance(ArtifactRisksFiller.class);
@@ -328,7 +366,7 @@ public class ArtifactRisksFillerTests {
         var result = ArtifactRisksFiller.addArtifactRisks(_mainRepoPath, new ArrayList<>(List.of(_mainRepoPath)));
 
         Assertions.assertFalse(result);
-        Mockito.verify(_logger, times(1)).error(Mockito.argThat(s -> s.contains(exception.getMessage())));
+        Assertions.assertEquals(1, countLogs("error", exception.getMessage()));
         Mockito.verify(_repositories, times(0)).setProperty(isA(RepoPath.class), isA(String.class), isA(String.class));
     }
 
@@ -341,11 +379,11 @@ public class ArtifactRisksFillerTests {
     private void MockScaHttpClientMethods() {
         try {
             var artifactInfo = CreateArtifactInfo();
-            when(_scaHttpClient.getArtifactInformation(ArtifactType, ArtifactName, ArtifactVersion))
+            when(_scaHttpClient.getArtifactInformation(eq(ArtifactType), eq(ArtifactName), eq(ArtifactVersion), any()))
                     .thenReturn(artifactInfo);
 
             var vulnerabilities = CreatePackageRiskAggregation();
-            when(_scaHttpClient.getRiskAggregationOfArtifact(artifactInfo.getPackageType(), artifactInfo.getName(), artifactInfo.getVersion()))
+            when(_scaHttpClient.getRiskAggregationOfArtifact(eq(artifactInfo.getPackageType()), eq(artifactInfo.getName()), eq(artifactInfo.getVersion()), any()))
                     .thenReturn(vulnerabilities);
         } catch (Exception e) {
             e.printStackTrace();
@@ -363,14 +401,24 @@ public class ArtifactRisksFillerTests {
     }
 
     private void withoutWarningsAndErrors(){
-        Mockito.verify(_logger, times(2)).info(isA(String.class));
+        Assertions.assertEquals(2, countLogs("info", "artifact verification. Artifact name:"));
         Mockito.verify(_logger, never()).info(Mockito.anyString(), isA(Exception.class));
 
-        Mockito.verify(_logger, never()).error(isA(String.class));
-        Mockito.verify(_logger, never()).error(isA(String.class), isA(Exception.class));
+        Assertions.assertEquals(0, countLogs("error", ""));
+        Assertions.assertEquals(0, countLogs("warn", ""));
+    }
 
-        Mockito.verify(_logger, never()).warn(isA(String.class));
-        Mockito.verify(_logger, never()).warn(isA(String.class), isA(Exception.class));
+    // Counts the lines logged with the given level whose formatted message contains the text.
+    private long countLogs(String level, String text) {
+        return Mockito.mockingDetails(_logger).getInvocations().stream()
+                .filter(invocation -> invocation.getMethod().getName().equals(level))
+                .filter(invocation -> invocation.getArguments().length > 0 && invocation.getArguments()[0] instanceof String)
+                .map(invocation -> {
+                    var arguments = invocation.getArguments();
+                    return MessageFormatter.arrayFormat((String) arguments[0], Arrays.copyOfRange(arguments, 1, arguments.length)).getMessage();
+                })
+                .filter(message -> message.contains(text))
+                .count();
     }
 
     private void getAllCxProperties(RepoPath repoPath, String scanDate) {
@@ -85,6 +85,32 @@ public class ComposerArtifactIdBuilderTests {
         Mockito.verify(_logger, never()).warn(isA(String.class), isA(Exception.class));
     }
 
+    @DisplayName("Generate artifact id - Packagist metadata reused from cache")
+    @Test
+    public void generateArtifactIdFromCachedMetadata() {
+        this.wireMockServer.stubFor(
+                WireMock.get("/p2/zircote/swagger-php.json")
+                        .willReturn(ok()
+                                .withBody("{\"packages\":{\"zircote/swagger-php\":[{\"version\":\"4.4.4\",\"source\":{\"reference\":\"fb967b3ef9e311626e7232fa71096763d5f3eec2\"}},{\"version\":\"3.1.0\",\"source\":{\"reference\":\"9d172471e56433b5c7061006b9a766f262a3edfd\"}}]}}"))
+        );
+
+        var firstRepoPath = Mockito.mock(RepoPath.class);
+        when(firstRepoPath.getPath()).thenReturn("zircote/swagger-php/commits/9d172471e56433b5c7061006b9a766f262a3edfd/swagger-php-9d172471e56433b5c7061006b9a766f262a3edfd.zip");
+
+        var secondRepoPath = Mockito.mock(RepoPath.class);
+        when(secondRepoPath.getPath()).thenReturn("zircote/swagger-php/commits/FB967B3EF9E311626E7232FA71096763D5F3EEC2/swagger-php-fb967b3ef9e311626e7232fa71096763d5f3eec2.zip");
+
+        var composerArtifactIdBuilder = _injector.getInstance(ComposerArtifactIdBuilder.class);
+
+        var firstId = composerArtifactIdBuilder.generateArtifactId(firstRepoPath, PackageManager.COMPOSER);
+        var secondId = _injector.getInstance(ComposerArtifactIdBuilder.class).generateArtifactId(secondRepoPath, PackageManager.COMPOSER);
+
+        Assertions.assertEquals("3.1.0", firstId.Version);
+        Assertions.assertEquals("4.4.4", secondId.Version);
+
+        this.wireMockServer.verify(1, WireMock.getRequestedFor(WireMock.urlEqualTo("/p2/zircote/swagger-php.json")));
+    }
+
     @DisplayName("Generate artifact id - fail to parse RepoPath")
     @Test
     public void generateArtifactIdFailRepoPath() {
@@ -99,7 +125,7 @@ public class ComposerArtifactIdBuilderTests {
         Assertions.assertNull(id.Version);
         Assertions.assertEquals("php", id.PackageType);
 
-        Mockito.verify(_logger, times(1)).error(isA(String.class));
+        Mockito.verify(_logger, times(1)).error(isA(String.class), Mockito.<Object>any());
     }
 
     @DisplayName("Generate artifact id - unexpected status code")
@@ -121,7 +147,7 @@ public class ComposerArtifactIdBuilderTests {
         Assertions.assertNull(id.Version);
         Assertions.assertEquals("php", id.PackageType);
 
-        Mockito.verify(_logger, times(1)).warn(isA(String.class));
+        Mockito.verify(_logger, times(1)).warn(isA(String.class), Mockito.<Object>any());
     }
 
     @DisplayName("Generate artifact id - unexpected body")
@@ -143,6 +169,6 @@ public class ComposerArtifactIdBuilderTests {
         Assertions.assertNull(id.Version);
         Assertions.assertEquals("php", id.PackageType);
 
-        Mockito.verify(_logger, times(1)).error(isA(String.class));
+        Mockito.verify(_logger, times(1)).error(isA(String.class), Mockito.<Object>any());
     }
 }
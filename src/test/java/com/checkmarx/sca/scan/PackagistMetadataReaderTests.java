@@ -0,0 +1,52 @@
+package com.checkmarx.sca.scan;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.HashMap;
+
+@DisplayName("PackagistMetadataReader")
+public class PackagistMetadataReaderTests {
+
+    private static final String Metadata = "{\"minified\":\"composer/2.0\",\"packages\":{"
+            + "\"other/package\":[{\"version\":\"9.9.9\",\"source\":{\"reference\":\"other\"}}],"
+            + "\"zircote/swagger-php\":["
+            + "{\"name\":\"zircote/swagger-php\",\"version\":\"4.2.15\",\"require\":{\"php\":\">=7.2\"},\"source\":{\"type\":\"git\",\"reference\":\"aaa\"}},"
+            + "{\"version\":\"4.2.14\",\"source\":{\"reference\":\"bbb\"}},"
+            + "{\"version\":\"4.2.13\",\"dist\":{\"reference\":\"ccc\"}}"
+            + "]}}";
+
+    @DisplayName("Read every version of the requested package")
+    @Test
+    public void readAllVersions() throws IOException {
+        var versions = new HashMap<String, String>();
+
+        PackagistMetadataReader.readVersions(new StringReader(Metadata), "zircote/swagger-php", (reference, version) -> {
+            versions.put(reference, version);
+            return true;
+        });
+
+        Assertions.assertEquals(2, versions.size());
+        Assertions.assertEquals("4.2.15", versions.get("aaa"));
+        Assertions.assertEquals("4.2.14", versions.get("bbb"));
+    }
+
+    @DisplayName("Stop reading at the first match")
+    @Test
+    public void stopAtFirstMatch() throws IOException {
+        var truncated = "{\"packages\":{\"zircote/swagger-php\":["
+                + "{\"version\":\"4.2.15\",\"source\":{\"reference\":\"aaa\"}},"
+                + "{\"version\":";
+        var found = new String[1];
+
+        PackagistMetadataReader.readVersions(new StringReader(truncated), "zircote/swagger-php", (reference, version) -> {
+            found[0] = version;
+            return false;
+        });
+
+        Assertions.assertEquals("4.2.15", found[0]);
+    }
+}
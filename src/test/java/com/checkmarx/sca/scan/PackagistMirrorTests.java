@@ -0,0 +1,92 @@
+package com.checkmarx.sca.scan;
+
+import com.checkmarx.sca.PackageManager;
+import com.checkmarx.sca.TestsInjector;
+import com.checkmarx.sca.configuration.PluginConfiguration;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import org.artifactory.repo.RepoPath;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.mockito.Mockito;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
+import static org.mockito.Mockito.*;
+
+@DisplayName("PackagistMirror")
+public class PackagistMirrorTests {
+    private Injector _injector;
+    private Logger _logger;
+
+    @BeforeEach
+    public void beforeEach(@TempDir Path mirrorDirectory) throws IOException {
+        var swaggerDirectory = Files.createDirectories(mirrorDirectory.resolve("p2/zircote"));
+        Files.writeString(swaggerDirectory.resolve("swagger-php.json"),
+                "{\"minified\":\"composer/2.0\",\"packages\":{\"zircote/swagger-php\":[{\"version\":\"4.4.4\",\"source\":{\"url\":\"https://github.com/zircote/swagger-php.git\",\"type\":\"git\",\"reference\":\"fb967b3ef9e311626e7232fa71096763d5f3eec2\"}},{\"version\":\"3.1.0\",\"source\":{\"url\":\"https://github.com/zircote/swagger-php.git\",\"type\":\"git\",\"reference\":\"9d172471e56433b5c7061006b9a766f262a3edfd\"}}]}}");
+
+        var psrDirectory = Files.createDirectories(mirrorDirectory.resolve("p2/psr"));
+        Files.writeString(psrDirectory.resolve("cache.json"),
+                "{\"minified\":\"composer/2.0\",\"packages\":{\"psr/cache\":[{\"version\":\"3.0.0\",\"source\":{\"url\":\"https://github.com/php-fig/cache.git\",\"type\":\"git\",\"reference\":\"aa5030cfa5405eccfdcb1083ce040c2cb8d253bf\"}},{\"version\":\"2.0.0\",\"source\":{\"type\":\"git\",\"reference\":\"213f9dbc5b9bfbc4f8db86d2838dc968752ce13b\"}}]}}");
+
+        Files.writeString(psrDirectory.resolve("broken.json"), "{\"packages\":");
+
+        _logger = Mockito.mock(Logger.class);
+
+        var properties = new Properties();
+        properties.setProperty("packagist.repository", "http://localhost:1");
+        properties.setProperty("packagist.mirror.directory", mirrorDirectory.toString());
+
+        var configuration = new PluginConfiguration(properties, _logger);
+
+        var artifactRisksFiller = Mockito.mock(ArtifactRisksFiller.class);
+        var securityThresholdChecker = Mockito.mock(SecurityThresholdChecker.class);
+
+        _injector = Guice.createInjector(new TestsInjector(_logger, configuration, artifactRisksFiller, securityThresholdChecker));
+    }
+
+    @DisplayName("Generate artifact id from the mirror")
+    @Test
+    public void generateArtifactIdFromMirror() {
+        var repoPath = Mockito.mock(RepoPath.class);
+        when(repoPath.getPath()).thenReturn("zircote/swagger-php/commits/9d172471e56433b5c7061006b9a766f262a3edfd/swagger-php-9d172471e56433b5c7061006b9a766f262a3edfd.zip");
+
+        var id = _injector.getInstance(ComposerArtifactIdBuilder.class).generateArtifactId(repoPath, PackageManager.COMPOSER);
+
+        Assertions.assertEquals("zircote/swagger-php", id.Name);
+        Assertions.assertEquals("3.1.0", id.Version);
+
+        Mockito.verify(_logger, never()).error(isA(String.class));
+        Mockito.verify(_logger, times(1)).warn(contains("Ignoring invalid Packagist mirror file"), Mockito.<Object>argThat(file -> file.toString().contains("broken.json")));
+    }
+
+    @DisplayName("Generate artifact id from the mirror using the repository name")
+    @Test
+    public void generateArtifactIdFromMirrorWithFallback() {
+        var repoPath = Mockito.mock(RepoPath.class);
+        when(repoPath.getPath()).thenReturn("php-fig/cache/commits/213f9dbc5b9bfbc4f8db86d2838dc968752ce13b/cache-213f9dbc5b9bfbc4f8db86d2838dc968752ce13b.zip");
+
+        var id = _injector.getInstance(ComposerArtifactIdBuilder.class).generateArtifactId(repoPath, PackageManager.COMPOSER);
+
+        Assertions.assertEquals("psr/cache", id.Name);
+        Assertions.assertEquals("2.0.0", id.Version);
+    }
+
+    @DisplayName("Extract the repository name from the source url")
+    @ParameterizedTest
+    @CsvSource({
+            "https://github.com/php-fig/cache.git,php-fig/cache",
+            "git@github.com:php-fig/cache.git,php-fig/cache",
+            "https://github.com/Zircote/Swagger-PHP/,zircote/swagger-php",
+            "cache,"
+    })
+    public void getRepositoryName(String sourceUrl, String expected) {
+        Assertions.assertEquals(expected, PackagistMirror.getRepositoryName(sourceUrl));
+    }
+}
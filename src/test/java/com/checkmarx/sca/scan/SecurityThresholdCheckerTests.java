@@ -209,7 +209,7 @@ public class SecurityThresholdCheckerTests {
         Mockito.verify(_logger, never()).error(isA(String.class));
         Mockito.verify(_logger, never()).error(isA(String.class), isA(Exception.class));
 
-        Mockito.verify(_logger, times(1)).warn(Mockito.argThat(s -> s.contains(IGNORE_THRESHOLD)));
+        Mockito.verify(_logger, times(1)).warn(Mockito.<String>argThat(s -> s.contains("Ignoring the security risk threshold")), Mockito.<Object>eq(IGNORE_THRESHOLD), Mockito.<Object>any());
         Mockito.verify(_logger, never()).warn(isA(String.class), isA(Exception.class));
     }
 
@@ -236,8 +236,8 @@ public class SecurityThresholdCheckerTests {
         Mockito.verify(_logger, never()).error(isA(String.class));
         Mockito.verify(_logger, never()).error(isA(String.class), isA(Exception.class));
 
-        Mockito.verify(_logger, times(1)).warn(Mockito.argThat(s -> s.contains("More than one RepoPath")));
-        Mockito.verify(_logger, times(1)).warn(Mockito.argThat(s -> s.contains(IGNORE_THRESHOLD)));
+        Mockito.verify(_logger, times(1)).warn(Mockito.argThat(s -> s.contains("More than one RepoPath")), Mockito.<Object>any());
+        Mockito.verify(_logger, times(1)).warn(Mockito.<String>argThat(s -> s.contains("Ignoring the security risk threshold")), Mockito.<Object>eq(IGNORE_THRESHOLD), Mockito.<Object>any());
         Mockito.verify(_logger, never()).warn(isA(String.class), isA(Exception.class));
     }
 
@@ -131,4 +131,57 @@ public class ComposerFallbackTests {
 
         Assertions.assertNull(actual);
     }
+
+    @DisplayName("Apply Fallback reuses the cached name")
+    @Test
+    public void applyFallbackFromCache() {
+
+        this.wireMockServer.stubFor(
+                WireMock.get("/search.json?q=cache")
+                        .willReturn(ok()
+                                .withBody("{\"results\":[{\"name\":\"psr/cache\",\"repository\":\"https://github.com/php-fig/cache\"}],\"total\":1}"))
+        );
+
+        var composerFallback = _injector.getInstance(ComposerFallback.class);
+
+        Assertions.assertEquals("psr/cache", composerFallback.applyFallback("php-fig/cache"));
+        Assertions.assertEquals("psr/cache", _injector.getInstance(ComposerFallback.class).applyFallback("php-fig/cache"));
+
+        this.wireMockServer.verify(1, WireMock.getRequestedFor(WireMock.urlEqualTo("/search.json?q=cache")));
+    }
+
+    @DisplayName("Apply Fallback caches when no alternative is found")
+    @Test
+    public void applyFallbackCachesMissingAlternative() {
+
+        this.wireMockServer.stubFor(
+                WireMock.get("/search.json?q=cache")
+                        .willReturn(ok()
+                                .withBody("{\"results\":[],\"total\":0}"))
+        );
+
+        var composerFallback = _injector.getInstance(ComposerFallback.class);
+
+        Assertions.assertNull(composerFallback.applyFallback("php-fig/cache"));
+        Assertions.assertNull(composerFallback.applyFallback("php-fig/cache"));
+
+        this.wireMockServer.verify(1, WireMock.getRequestedFor(WireMock.urlEqualTo("/search.json?q=cache")));
+    }
+
+    @DisplayName("Apply Fallback does not cache failed searches")
+    @Test
+    public void applyFallbackDoesNotCacheFailures() {
+
+        this.wireMockServer.stubFor(
+                WireMock.get("/search.json?q=cache")
+                        .willReturn(badRequest())
+        );
+
+        var composerFallback = _injector.getInstance(ComposerFallback.class);
+
+        composerFallback.applyFallback("php-fig/cache");
+        composerFallback.applyFallback("php-fig/cache");
+
+        this.wireMockServer.verify(2, WireMock.getRequestedFor(WireMock.urlEqualTo("/search.json?q=cache")));
+    }
 }
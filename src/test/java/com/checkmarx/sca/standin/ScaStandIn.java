@@ -0,0 +1,205 @@
+package com.checkmarx.sca.standin;
+
+import com.checkmarx.sca.communication.models.ScaResponse;
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.lang.String.format;
+
+// Offline replacement of the Sca API used by the stand-in server and transport.
+// Answers artifact information, aggregated risks, licenses and private dependency suggestions
+// from a fixture dataset, with configurable latency and error injection.
+public class ScaStandIn {
+    private static final String DefaultDataset = "/com/checkmarx/sca/standin/dataset.json";
+
+    private final Map<String, JsonObject> _packages = new ConcurrentHashMap<>();
+    private final AtomicLong _requestsCount = new AtomicLong();
+    private final AtomicLong _suggestionsCount = new AtomicLong();
+
+    private volatile Duration _latency = Duration.ZERO;
+    private volatile Duration _latencyJitter = Duration.ZERO;
+    private volatile double _errorRate = 0;
+    private volatile int _errorStatusCode = 500;
+    private volatile boolean _answerUnknownPackages = false;
+
+    public static ScaStandIn withDefaultDataset() throws IOException {
+        var standIn = new ScaStandIn();
+        standIn.loadDataset(DefaultDataset);
+        return standIn;
+    }
+
+    public void loadDataset(@Nonnull String resourceName) throws IOException {
+        var resource = ScaStandIn.class.getResourceAsStream(resourceName);
+        if (resource == null) {
+            throw new IOException(format("Dataset '%s' not found", resourceName));
+        }
+
+        try (var reader = new InputStreamReader(resource, StandardCharsets.UTF_8)) {
+            var dataset = JsonParser.parseReader(reader).getAsJsonObject();
+            for (var element : dataset.getAsJsonArray("packages")) {
+                var packageData = element.getAsJsonObject();
+                addPackage(packageData);
+            }
+        }
+    }
+
+    public void addPackage(@Nonnull JsonObject packageData) {
+        var key = getKey(packageData.get("type").getAsString(), packageData.get("name").getAsString(), packageData.get("version").getAsString());
+        _packages.put(key, packageData);
+    }
+
+    public ScaStandIn setLatency(@Nonnull Duration latency, @Nonnull Duration jitter) {
+        _latency = latency;
+        _latencyJitter = jitter;
+        return this;
+    }
+
+    public ScaStandIn setErrorRate(double errorRate, int errorStatusCode) {
+        _errorRate = errorRate;
+        _errorStatusCode = errorStatusCode;
+        return this;
+    }
+
+    public ScaStandIn setAnswerUnknownPackages(boolean answerUnknownPackages) {
+        _answerUnknownPackages = answerUnknownPackages;
+        return this;
+    }
+
+    public long getRequestsCount() {
+        return _requestsCount.get();
+    }
+
+    public long getSuggestionsCount() {
+        return _suggestionsCount.get();
+    }
+
+    public Duration nextLatency() {
+        var jitter = _latencyJitter.toNanos();
+        if (jitter <= 0) {
+            return _latency;
+        }
+
+        return _latency.plusNanos(ThreadLocalRandom.current().nextLong(jitter));
+    }
+
+    public ScaResponse handle(@Nonnull String method, @Nonnull String rawPath, String body) {
+        _requestsCount.incrementAndGet();
+
+        if (_errorRate > 0 && ThreadLocalRandom.current().nextDouble() < _errorRate) {
+            return new ScaResponse(_errorStatusCode, "");
+        }
+
+        var segments = rawPath.replaceAll("^/+", "").split("/");
+        for (var i = 0; i < segments.length; i++) {
+            segments[i] = URLDecoder.decode(segments[i], StandardCharsets.UTF_8);
+        }
+
+        if ("GET".equals(method) && segments.length >= 6 && "public".equals(segments[0]) && "packages".equals(segments[1]) && "versions".equals(segments[4])) {
+            var packageData = findPackage(segments[2], segments[3], segments[5]);
+            if (packageData == null) {
+                return new ScaResponse(404, "");
+            }
+
+            if (segments.length == 6) {
+                return ok(getArtifactInfo(packageData));
+            }
+            if (segments.length == 7 && "licenses".equals(segments[6])) {
+                return ok(getLicenses(packageData));
+            }
+        }
+
+        if ("POST".equals(method) && rawPath.endsWith("public/risk-aggregation/aggregated-risks")) {
+            var request = JsonParser.parseString(body).getAsJsonObject();
+            var packageData = findPackage(request.get("packageManager").getAsString(), request.get("packageName").getAsString(), request.get("version").getAsString());
+            if (packageData == null) {
+                return new ScaResponse(404, "");
+            }
+
+            var response = new JsonObject();
+            response.add("packageVulnerabilitiesAggregation", packageData.get("vulnerabilities"));
+            return ok(response);
+        }
+
+        if ("POST".equals(method) && rawPath.endsWith("private-dependencies-repository/dependencies")) {
+            _suggestionsCount.addAndGet(JsonParser.parseString(body).getAsJsonArray().size());
+            return new ScaResponse(200, "");
+        }
+
+        return new ScaResponse(404, "");
+    }
+
+    private JsonObject findPackage(String type, String name, String version) {
+        var packageData = _packages.get(getKey(type, name, version));
+        if (packageData != null || !_answerUnknownPackages) {
+            return packageData;
+        }
+
+        var vulnerabilities = new JsonObject();
+        vulnerabilities.addProperty("vulnerabilitiesCount", 0);
+        vulnerabilities.addProperty("maxRiskSeverity", "None");
+        vulnerabilities.addProperty("maxRiskScore", 0.0);
+        vulnerabilities.addProperty("highRiskCount", 0);
+        vulnerabilities.addProperty("mediumRiskCount", 0);
+        vulnerabilities.addProperty("lowRiskCount", 0);
+
+        var unknownPackage = new JsonObject();
+        unknownPackage.addProperty("type", type);
+        unknownPackage.addProperty("name", name);
+        unknownPackage.addProperty("version", version);
+        unknownPackage.add("vulnerabilities", vulnerabilities);
+        unknownPackage.add("licenses", new JsonArray());
+        return unknownPackage;
+    }
+
+    private JsonObject getArtifactInfo(JsonObject packageData) {
+        var type = packageData.get("type").getAsString();
+        var name = packageData.get("name").getAsString();
+        var version = packageData.get("version").getAsString();
+
+        var artifactInfo = new JsonObject();
+        artifactInfo.addProperty("packageId", format("%s#-#%s#-#%s", type, name, version));
+        artifactInfo.addProperty("legacyPackageId", format("%s-%s-%s", type, name, version));
+        artifactInfo.addProperty("type", type);
+        artifactInfo.addProperty("name", name);
+        artifactInfo.addProperty("version", version);
+        return artifactInfo;
+    }
+
+    private JsonObject getLicenses(JsonObject packageData) {
+        var identifiedLicenses = new JsonArray();
+        for (var license : packageData.getAsJsonArray("licenses")) {
+            var softwareLicense = new JsonObject();
+            softwareLicense.add("name", license);
+
+            var identifiedLicense = new JsonObject();
+            identifiedLicense.add("license", softwareLicense);
+            identifiedLicenses.add(identifiedLicense);
+        }
+
+        var licenses = new JsonObject();
+        licenses.add("identifiedLicenses", identifiedLicenses);
+        return licenses;
+    }
+
+    private static ScaResponse ok(JsonObject body) {
+        return new ScaResponse(200, new Gson().toJson(body));
+    }
+
+    private static String getKey(String type, String name, String version) {
+        return format("%s|%s|%s", type.toLowerCase(Locale.ROOT), name.toLowerCase(Locale.ROOT), version);
+    }
+}
@@ -0,0 +1,66 @@
+package com.checkmarx.sca.standin;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static java.lang.String.format;
+
+// Exposes a ScaStandIn over HTTP, so the plugin can be pointed to it through 'sca.api.url'.
+public class ScaStandInServer implements AutoCloseable {
+    private final ScaStandIn _standIn;
+    private final HttpServer _server;
+    private final ExecutorService _executorService;
+
+    public ScaStandInServer(@Nonnull ScaStandIn standIn, int port) throws IOException {
+        _standIn = standIn;
+        _executorService = Executors.newCachedThreadPool();
+        _server = HttpServer.create(new InetSocketAddress("localhost", port), 0);
+        _server.setExecutor(_executorService);
+        _server.createContext("/", this::handle);
+    }
+
+    public ScaStandInServer start() {
+        _server.start();
+        return this;
+    }
+
+    public String getUrl() {
+        return format("http://localhost:%d/", _server.getAddress().getPort());
+    }
+
+    public ScaStandIn getStandIn() {
+        return _standIn;
+    }
+
+    @Override
+    public void close() {
+        _server.stop(0);
+        _executorService.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            var body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+
+            Thread.sleep(_standIn.nextLatency().toMillis());
+
+            var response = _standIn.handle(exchange.getRequestMethod(), exchange.getRequestURI().getRawPath(), body);
+            var responseBody = response.body() == null ? new byte[0] : response.body().getBytes(StandardCharsets.UTF_8);
+
+            exchange.getResponseHeaders().add("Content-Type", "application/json; charset=UTF-8");
+            exchange.sendResponseHeaders(response.statusCode(), responseBody.length == 0 ? -1 : responseBody.length);
+            if (responseBody.length > 0) {
+                exchange.getResponseBody().write(responseBody);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.checkmarx.sca.standin;
+
+import com.checkmarx.sca.TestsInjector;
+import com.checkmarx.sca.communication.AccessControlClient;
+import com.checkmarx.sca.communication.ScaHttpClient;
+import com.checkmarx.sca.communication.exceptions.UnexpectedResponseCodeException;
+import com.checkmarx.sca.communication.models.AuthenticationHeader;
+import com.checkmarx.sca.configuration.PluginConfiguration;
+import com.checkmarx.sca.models.ArtifactId;
+import com.checkmarx.sca.scan.ArtifactRisksFiller;
+import com.checkmarx.sca.scan.SecurityThresholdChecker;
+import com.google.inject.Guice;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+
+@DisplayName("ScaStandIn")
+public class ScaStandInTests {
+
+    @DisplayName("Serve the dataset through the embedded server")
+    @Test
+    public void serveDatasetThroughServer() throws IOException, ExecutionException, InterruptedException {
+        try (var server = new ScaStandInServer(ScaStandIn.withDefaultDataset(), 0).start()) {
+            var scaHttpClient = createScaHttpClient(server.getUrl());
+
+            var artifactInfo = scaHttpClient.getArtifactInformation("npm", "lodash", "0.2.1");
+            var riskAggregation = scaHttpClient.getRiskAggregationOfArtifact(artifactInfo.getPackageType(), artifactInfo.getName(), artifactInfo.getVersion());
+
+            Assertions.assertEquals("Npm-lodash-0.2.1", artifactInfo.getId());
+            Assertions.assertEquals(151, riskAggregation.getVulnerabilitiesAggregation().getHighRiskCount());
+            Assertions.assertEquals(List.of("MIT"), riskAggregation.getLicenses());
+        }
+    }
+
+    @DisplayName("Serve the dataset through the in-process transport")
+    @Test
+    public void serveDatasetThroughTransport() throws IOException, ExecutionException, InterruptedException {
+        var standIn = ScaStandIn.withDefaultDataset();
+        var scaHttpClient = createScaHttpClient("http://localhost:1/");
+        scaHttpClient.setTransport(new ScaStandInTransport(standIn));
+
+        var artifactInfo = scaHttpClient.getArtifactInformation("python", "google_parser", "0.0.135");
+        var suggested = scaHttpClient.suggestPrivatePackage(new ArtifactId("Npm", "private-package", "1.0.0"));
+
+        Assertions.assertEquals("Python-google-parser-0.0.135", artifactInfo.getId());
+        Assertions.assertTrue(suggested);
+        Assertions.assertEquals(1, standIn.getSuggestionsCount());
+    }
+
+    @DisplayName("Inject errors in the responses")
+    @Test
+    public void injectErrors() throws IOException {
+        var standIn = ScaStandIn.withDefaultDataset().setErrorRate(1, 503);
+        var scaHttpClient = createScaHttpClient("http://localhost:1/");
+        scaHttpClient.setTransport(new ScaStandInTransport(standIn));
+
+        var exception = Assertions.assertThrows(UnexpectedResponseCodeException.class, () -> scaHttpClient.getArtifactInformation("npm", "lodash", "0.2.1"));
+
+        Assertions.assertEquals(503, exception.StatusCode);
+    }
+
+    private ScaHttpClient createScaHttpClient(String apiUrl) {
+        var logger = Mockito.mock(Logger.class);
+        var accessControlClient = Mockito.mock(AccessControlClient.class);
+        Mockito.when(accessControlClient.GetAuthorizationHeader()).thenReturn(new AuthenticationHeader<>("Authorization", "Bearer token"));
+
+        var properties = new Properties();
+        properties.setProperty("sca.api.url", apiUrl);
+
+        var configuration = new PluginConfiguration(properties, logger);
+
+        var appInjector = new TestsInjector(logger, configuration, Mockito.mock(ArtifactRisksFiller.class), Mockito.mock(SecurityThresholdChecker.class));
+        appInjector.setAccessControlClient(accessControlClient);
+        return Guice.createInjector(appInjector).getInstance(ScaHttpClient.class);
+    }
+}
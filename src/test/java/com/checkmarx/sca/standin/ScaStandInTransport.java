@@ -0,0 +1,60 @@
+package com.checkmarx.sca.standin;
+
+import com.checkmarx.sca.communication.models.ScaResponse;
+import com.checkmarx.sca.communication.transport.IScaTransport;
+
+import javax.annotation.Nonnull;
+import java.net.http.HttpRequest;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+// In-process transport that answers the ScaHttpClient requests with a ScaStandIn, without any socket.
+public class ScaStandInTransport implements IScaTransport {
+    private final ScaStandIn _standIn;
+
+    public ScaStandInTransport(@Nonnull ScaStandIn standIn) {
+        _standIn = standIn;
+    }
+
+    @Override
+    public CompletableFuture<ScaResponse> sendAsync(@Nonnull HttpRequest request) {
+        var body = readBody(request);
+        var latency = _standIn.nextLatency();
+        var executor = CompletableFuture.delayedExecutor(latency.toNanos(), TimeUnit.NANOSECONDS);
+
+        return CompletableFuture.supplyAsync(() -> _standIn.handle(request.method(), request.uri().getRawPath(), body), executor);
+    }
+
+    private static String readBody(HttpRequest request) {
+        var publisher = request.bodyPublisher();
+        if (publisher.isEmpty()) {
+            return "";
+        }
+
+        var body = new StringBuilder();
+        publisher.get().subscribe(new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(ByteBuffer item) {
+                body.append(StandardCharsets.UTF_8.decode(item));
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        });
+
+        return body.toString();
+    }
+}
@@ -14,18 +14,30 @@ import com.google.inject.AbstractModule;
 import com.google.inject.Guice;
 import com.google.inject.Injector;
 import org.artifactory.fs.FileLayoutInfo;
+import org.artifactory.repo.LocalRepositoryConfiguration;
+import org.artifactory.repo.RemoteRepositoryConfiguration;
 import org.artifactory.repo.RepoPath;
 import org.artifactory.repo.Repositories;
 import org.artifactory.repo.RepositoryConfiguration;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import org.slf4j.Logger;
+
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Properties;
 import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isA;
 import static org.mockito.Mockito.*;
 
@@ -55,14 +67,136 @@ public class PrivatePackageSuggestionHandlerTests {
         localRepos.add(repoPath);
 
         privatePackagesSuggestionHandler.suggestPrivatePackage(repoPath, localRepos);
+        _injector.getInstance(SuggestionQueue.class).flush();
+
         var expectedCount = 1;
         PrivatePackageSuggested(client, expectedCount);
-        verify(_client, times(1)).suggestPrivatePackage(isA(ArtifactId.class));
+        verify(_client, times(1)).suggestPrivatePackages(anyList());
         verify(artifactBuilder, atLeast(1)).getArtifactId(isA(FileLayoutInfo.class), isA(RepoPath.class), isA(PackageManager.class));
     }
 
+    @Test
+    @DisplayName("Only artifacts of local repositories not yet suggested are candidates")
+    public void checkSuggestionCandidates() throws ExecutionException, InterruptedException {
+        var repositories = Mockito.mock(Repositories.class);
+        when(repositories.getRepositoryConfiguration("npm-local")).thenReturn(Mockito.mock(LocalRepositoryConfiguration.class));
+        when(repositories.getRepositoryConfiguration("npm-remote")).thenReturn(Mockito.mock(RemoteRepositoryConfiguration.class));
+        when(repositories.getRepositoryConfiguration("npm-remote-cache")).thenReturn(null);
+        var properties = Mockito.mock(org.artifactory.md.Properties.class);
+        when(properties.containsKey(PrivatePackageSuggestionHandler.SUGGESTED_KEY)).thenReturn(true);
+        when(repositories.setProperty(isA(RepoPath.class), isA(String.class), isA(String.class))).thenReturn(properties);
+
+        var suggestionHandler = new PrivatePackageSuggestionHandler(repositories, true);
+        var suggestionQueue = Mockito.mock(SuggestionQueue.class);
+        suggestionHandler.setSuggestionQueue(suggestionQueue);
+
+        var localPath = createRepoPath("npm-local", "lodash/-/lodash-0.2.1.tgz");
+        var otherLocalPath = createRepoPath("npm-local", "express/-/express-4.18.1.tgz");
+
+        Assertions.assertTrue(suggestionHandler.isSuggestionCandidate(localPath));
+        Assertions.assertTrue(suggestionHandler.isSuggestionCandidate(otherLocalPath));
+        Assertions.assertFalse(suggestionHandler.isSuggestionCandidate(createRepoPath("npm-remote", "lodash/-/lodash-0.2.1.tgz")));
+        Assertions.assertFalse(suggestionHandler.isSuggestionCandidate(createRepoPath("npm-remote-cache", "lodash/-/lodash-0.2.1.tgz")));
+        verify(repositories, times(1)).getRepositoryConfiguration("npm-local");
+
+        var listener = ArgumentCaptor.forClass(Consumer.class);
+        verify(suggestionQueue).setSuggestedListener(listener.capture());
+        listener.getValue().accept(new PendingSuggestion(new ArtifactId("npm", "lodash", "0.2.1"), localPath));
+
+        Assertions.assertFalse(suggestionHandler.isSuggestionCandidate(localPath));
+        Assertions.assertTrue(suggestionHandler.isSuggestionCandidate(otherLocalPath));
+    }
+
+    @Test
+    @DisplayName("Mark the accepted paths on the next hook call")
+    public void markAcceptedPathsOnHookThread() {
+        var repositories = Mockito.mock(Repositories.class);
+        var properties = Mockito.mock(org.artifactory.md.Properties.class);
+        when(properties.containsKey(PrivatePackageSuggestionHandler.SUGGESTED_KEY)).thenReturn(true);
+        when(repositories.setProperty(isA(RepoPath.class), isA(String.class), isA(String.class))).thenReturn(properties);
+
+        var suggestionHandler = new PrivatePackageSuggestionHandler(repositories, true);
+        var suggestionQueue = Mockito.mock(SuggestionQueue.class);
+        suggestionHandler.setSuggestionQueue(suggestionQueue);
+
+        var localPath = createRepoPath("npm-local", "lodash/-/lodash-0.2.1.tgz");
+        var listener = ArgumentCaptor.forClass(Consumer.class);
+        verify(suggestionQueue).setSuggestedListener(listener.capture());
+        listener.getValue().accept(new PendingSuggestion(new ArtifactId("npm", "lodash", "0.2.1"), localPath));
+
+        verify(repositories, never()).setProperty(isA(RepoPath.class), isA(String.class), isA(String.class));
+
+        suggestionHandler.suggestPrivatePackage(createRepoPath("npm-local", "express/-/express-4.18.1.tgz"), new ArrayList<>());
+
+        verify(repositories, times(1)).setProperty(localPath, PrivatePackageSuggestionHandler.SUGGESTED_KEY, "true");
+    }
+
+    @Test
+    @DisplayName("Skip the paths and coordinates left in the outbox and the coordinates already accepted")
+    public void skipKnownSuggestions(@TempDir Path tempDir) {
+        var repositories = Mockito.mock(Repositories.class);
+        var repoConfiguration = Mockito.mock(LocalRepositoryConfiguration.class);
+        when(repoConfiguration.getPackageType()).thenReturn("npm");
+        when(repositories.getRepositoryConfiguration("npm-local")).thenReturn(repoConfiguration);
+        var properties = Mockito.mock(org.artifactory.md.Properties.class);
+        when(properties.containsKey(PrivatePackageSuggestionHandler.SUGGESTED_KEY)).thenReturn(true);
+        when(repositories.setProperty(isA(RepoPath.class), isA(String.class), isA(String.class))).thenReturn(properties);
+
+        var queuedPath = createRepoPath("npm-local", "lodash/-/lodash-0.2.1.tgz");
+        var acceptedPath = createRepoPath("npm-local", "express/-/express-4.18.1.tgz");
+        var queuedCopy = createRepoPath("npm-local", "copies/lodash-0.2.1.tgz");
+        var acceptedCopy = createRepoPath("npm-local", "copies/express-4.18.1.tgz");
+        var queuedId = new ArtifactId("npm", "lodash", "0.2.1");
+        var acceptedId = new ArtifactId("npm", "express", "4.18.1");
+
+        var artifactIdBuilder = Mockito.mock(ArtifactIdBuilder.class);
+        when(artifactIdBuilder.getArtifactId(any(), eq(queuedCopy), any())).thenReturn(queuedId);
+        when(artifactIdBuilder.getArtifactId(any(), eq(acceptedCopy), any())).thenReturn(acceptedId);
+
+        var suggestionHandler = new PrivatePackageSuggestionHandler(repositories, true);
+        var suggestionQueue = Mockito.mock(SuggestionQueue.class);
+        Guice.createInjector(new AbstractModule() {
+            @Override public void configure() {
+                bind(Logger.class).toInstance(Mockito.mock(Logger.class));
+                // Providers, so the members of the mocks are not injected.
+                bind(ArtifactIdBuilder.class).toProvider(() -> artifactIdBuilder);
+                bind(SuggestionQueue.class).toProvider(() -> suggestionQueue);
+            }
+        }).injectMembers(suggestionHandler);
+
+        var outbox = new SuggestionOutbox(tempDir.resolve("outbox.jsonl"), Mockito.mock(Logger.class));
+        outbox.add(List.of(new PendingSuggestion(queuedId, queuedPath)));
+        suggestionHandler.trackQueuedSuggestions(outbox);
+
+        var listener = ArgumentCaptor.forClass(Consumer.class);
+        verify(suggestionQueue).setSuggestedListener(listener.capture());
+        listener.getValue().accept(new PendingSuggestion(acceptedId, acceptedPath));
+
+        Assertions.assertFalse(suggestionHandler.isSuggestionCandidate(queuedPath));
+        Assertions.assertFalse(suggestionHandler.isSuggestionCandidate(acceptedPath));
+        Assertions.assertTrue(suggestionHandler.isSuggestionCandidate(queuedCopy));
+
+        var nonVirtualPaths = new ArrayList<>(List.of(queuedCopy, acceptedCopy));
+        suggestionHandler.suggestPrivatePackage(queuedCopy, nonVirtualPaths);
+        suggestionHandler.suggestPrivatePackage(acceptedCopy, nonVirtualPaths);
+        suggestionHandler.markSuggestedPaths();
+
+        verify(suggestionQueue, never()).enqueue(any(), any());
+        verify(repositories, never()).setProperty(queuedCopy, PrivatePackageSuggestionHandler.SUGGESTED_KEY, "true");
+        verify(repositories, times(1)).setProperty(acceptedCopy, PrivatePackageSuggestionHandler.SUGGESTED_KEY, "true");
+        Assertions.assertFalse(suggestionHandler.isSuggestionCandidate(acceptedCopy));
+        outbox.close();
+    }
+
+    private static RepoPath createRepoPath(String repoKey, String path) {
+        var repoPath = Mockito.mock(RepoPath.class);
+        when(repoPath.getRepoKey()).thenReturn(repoKey);
+        when(repoPath.getPath()).thenReturn(path);
+        return repoPath;
+    }
+
     private static void PrivatePackageSuggested(ScaHttpClient client, int expectedCount) throws ExecutionException, InterruptedException {
-        Mockito.verify(client, expectedCount <= 0? never(): expectedCount == Integer.MAX_VALUE? atLeast(1): times(expectedCount)).suggestPrivatePackage(isA(ArtifactId.class));
+        Mockito.verify(client, expectedCount <= 0? never(): expectedCount == Integer.MAX_VALUE? atLeast(1): times(expectedCount)).suggestPrivatePackages(anyList());
     }
 
     private Injector createAppInjectorForTests() throws ExecutionException, InterruptedException {
@@ -94,7 +228,7 @@ public class PrivatePackageSuggestionHandlerTests {
 
         _client = Mockito.mock(ScaHttpClient.class);
 
-        Mockito.when(_client.suggestPrivatePackage(isA(ArtifactId.class))).thenReturn(true);
+        Mockito.when(_client.suggestPrivatePackages(anyList())).thenReturn(true);
 
         var suggestionInjector = new AbstractModule() {
             @Override public void configure(){
@@ -0,0 +1,119 @@
+package com.checkmarx.sca.suggestion;
+
+import com.checkmarx.sca.models.ArtifactId;
+import org.artifactory.repo.RepoPath;
+import org.artifactory.repo.RepoPathFactory;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+@DisplayName("SuggestionOutbox")
+public class SuggestionOutboxTests {
+    private Logger _logger;
+
+    @BeforeEach
+    public void beforeEach() {
+        _logger = Mockito.mock(Logger.class);
+    }
+
+    @DisplayName("Append the changes and load the remaining suggestions")
+    @Test
+    public void appendAndLoad(@TempDir Path directory) throws IOException {
+        var file = directory.resolve("outbox.jsonl");
+        var lodash = createSuggestion("lodash", "0.2.1");
+        var express = createSuggestion("express", "4.18.1");
+
+        var outbox = new SuggestionOutbox(file, _logger);
+        outbox.add(List.of(lodash));
+        outbox.add(List.of(express));
+        outbox.remove(List.of(lodash));
+        outbox.close();
+
+        Assertions.assertEquals(3, Files.readAllLines(file).size());
+        Assertions.assertEquals(1, new SuggestionOutbox(file, _logger).size());
+    }
+
+    @DisplayName("Only hand out failed suggestions for a retry")
+    @Test
+    public void peekFailedSuggestions(@TempDir Path directory) {
+        var outbox = new SuggestionOutbox(directory.resolve("outbox.jsonl"), _logger);
+        var lodash = createSuggestion("lodash", "0.2.1");
+
+        outbox.add(List.of(lodash));
+        Assertions.assertTrue(outbox.peek(10).isEmpty());
+
+        outbox.keepForRetry(List.of(lodash, createSuggestion("express", "4.18.1")));
+        outbox.add(List.of(createSuggestion("react", "18.2.0")));
+
+        try (MockedStatic<RepoPathFactory> repoPathFactory = Mockito.mockStatic(RepoPathFactory.class)) {
+            repoPathFactory.when(() -> RepoPathFactory.create(anyString(), anyString()))
+                    .thenAnswer(invocation -> Mockito.mock(RepoPath.class));
+
+            Assertions.assertEquals(List.of("lodash", "express"), outbox.peek(10).stream().map(suggestion -> suggestion.getArtifactId().Name).collect(Collectors.toList()));
+        }
+        Assertions.assertEquals(3, outbox.size());
+        outbox.close();
+    }
+
+    @DisplayName("Compact the file once it holds twice as many lines as needed")
+    @Test
+    public void compactFile(@TempDir Path directory) throws IOException {
+        var file = directory.resolve("outbox.jsonl");
+        var outbox = new SuggestionOutbox(file, _logger);
+        var remaining = createSuggestion("lodash", "0.2.1");
+        outbox.add(List.of(remaining));
+
+        for (var index = 0; index < 1_000; index++) {
+            var suggestion = createSuggestion("package-" + index, "1.0.0");
+            outbox.add(List.of(suggestion));
+            outbox.remove(List.of(suggestion));
+        }
+        outbox.close();
+
+        Assertions.assertTrue(Files.readAllLines(file).size() < 2_000);
+        Assertions.assertEquals(1, new SuggestionOutbox(file, _logger).size());
+    }
+
+    @DisplayName("Drop the oldest suggestions above the max size")
+    @Test
+    public void dropOldestAboveMaxSize(@TempDir Path directory) {
+        var file = directory.resolve("outbox.jsonl");
+        var outbox = new SuggestionOutbox(file, _logger, 2);
+        outbox.add(List.of(createSuggestion("lodash", "0.2.1"), createSuggestion("express", "4.18.1")));
+        outbox.add(List.of(createSuggestion("react", "18.2.0")));
+        outbox.close();
+
+        Assertions.assertEquals(2, outbox.size());
+        Mockito.verify(_logger).warn("The suggestion outbox is full, {} pending suggestions were dropped.", 1);
+
+        var reloadedOutbox = new SuggestionOutbox(file, _logger, 2);
+        try (MockedStatic<RepoPathFactory> repoPathFactory = Mockito.mockStatic(RepoPathFactory.class)) {
+            repoPathFactory.when(() -> RepoPathFactory.create(anyString(), anyString()))
+                    .thenAnswer(invocation -> Mockito.mock(RepoPath.class));
+
+            Assertions.assertEquals(List.of("express", "react"), reloadedOutbox.peek(10).stream().map(suggestion -> suggestion.getArtifactId().Name).collect(Collectors.toList()));
+        }
+        reloadedOutbox.close();
+    }
+
+    private static PendingSuggestion createSuggestion(String name, String version) {
+        var repoPath = Mockito.mock(RepoPath.class);
+        when(repoPath.getRepoKey()).thenReturn("npm-local");
+        when(repoPath.getPath()).thenReturn(String.format("%s/-/%s-%s.tgz", name, name, version));
+        return new PendingSuggestion(new ArtifactId("Npm", name, version), repoPath);
+    }
+}
@@ -0,0 +1,199 @@
+package com.checkmarx.sca.suggestion;
+
+import com.checkmarx.sca.communication.ScaHttpClient;
+import com.checkmarx.sca.configuration.PluginConfiguration;
+import com.checkmarx.sca.models.ArtifactId;
+import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+import org.artifactory.repo.RepoPath;
+import org.artifactory.repo.RepoPathFactory;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+import org.slf4j.Logger;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@DisplayName("SuggestionQueue")
+public class SuggestionQueueTests {
+    private ScaHttpClient _scaHttpClient;
+    private Logger _logger;
+
+    @BeforeEach
+    public void beforeEach() throws ExecutionException, InterruptedException {
+        _logger = Mockito.mock(Logger.class);
+        _scaHttpClient = Mockito.mock(ScaHttpClient.class);
+        when(_scaHttpClient.suggestPrivatePackages(anyList())).thenReturn(true);
+    }
+
+    @DisplayName("Send a batch when it is full")
+    @Test
+    public void sendFullBatch() throws ExecutionException, InterruptedException {
+        var suggestionQueue = createSuggestionQueue("2", "60000");
+        var suggested = new CountDownLatch(2);
+        suggestionQueue.setSuggestedListener(suggestion -> suggested.countDown());
+
+        suggestionQueue.enqueue(new ArtifactId("Npm", "lodash", "0.2.1"), createRepoPath("lodash/-/lodash-0.2.1.tgz"));
+        suggestionQueue.enqueue(new ArtifactId("Npm", "express", "4.18.1"), createRepoPath("express/-/express-4.18.1.tgz"));
+
+        Assertions.assertTrue(suggested.await(5, TimeUnit.SECONDS));
+        verify(_scaHttpClient, times(1)).suggestPrivatePackages(argThat(artifactIds -> artifactIds.size() == 2));
+        Assertions.assertEquals(0, suggestionQueue.getPendingCount());
+    }
+
+    @DisplayName("Send a partial batch after the flush interval")
+    @Test
+    public void sendPartialBatchAfterInterval() throws ExecutionException, InterruptedException {
+        var suggestionQueue = createSuggestionQueue("50", "10");
+        var suggested = new CountDownLatch(1);
+        suggestionQueue.setSuggestedListener(suggestion -> suggested.countDown());
+
+        suggestionQueue.enqueue(new ArtifactId("Npm", "lodash", "0.2.1"), createRepoPath("lodash/-/lodash-0.2.1.tgz"));
+
+        Assertions.assertTrue(suggested.await(5, TimeUnit.SECONDS));
+        verify(_scaHttpClient, times(1)).suggestPrivatePackages(argThat(artifactIds -> artifactIds.size() == 1));
+    }
+
+    @DisplayName("Do not mark the packages when the suggestion fails")
+    @Test
+    public void doNotMarkWhenSuggestionFails() throws ExecutionException, InterruptedException {
+        when(_scaHttpClient.suggestPrivatePackages(anyList())).thenThrow(new ExecutionException(new RuntimeException("Test Exception")));
+        var suggestionQueue = createSuggestionQueue("50", "60000");
+        var suggested = new CountDownLatch(1);
+        suggestionQueue.setSuggestedListener(suggestion -> suggested.countDown());
+
+        suggestionQueue.enqueue(new ArtifactId("Npm", "lodash", "0.2.1"), createRepoPath("lodash/-/lodash-0.2.1.tgz"));
+        suggestionQueue.flush();
+
+        Assertions.assertEquals(1, suggested.getCount());
+        verify(_logger, times(1)).warn(eq("Failed to publish private package suggestion"), isA(ExecutionException.class));
+    }
+
+    @DisplayName("Retry failed suggestions from the outbox")
+    @Test
+    public void retryFailedSuggestionsFromOutbox(@TempDir Path directory) throws ExecutionException, InterruptedException {
+        when(_scaHttpClient.suggestPrivatePackages(anyList()))
+                .thenThrow(new ExecutionException(new RuntimeException("Test Exception")))
+                .thenReturn(true);
+
+        var outboxFile = directory.resolve("outbox.jsonl");
+        var suggestionQueue = createSuggestionQueue("50", "60000");
+        var suggestedPaths = new ArrayList<String>();
+        suggestionQueue.setSuggestedListener(suggestion -> suggestedPaths.add(suggestion.getRepoPath().getPath()));
+        suggestionQueue.useOutbox(new SuggestionOutbox(outboxFile, _logger));
+
+        suggestionQueue.enqueue(new ArtifactId("Npm", "lodash", "0.2.1"), createRepoPath("lodash/-/lodash-0.2.1.tgz"));
+        suggestionQueue.flush();
+
+        Assertions.assertTrue(suggestedPaths.isEmpty());
+        Assertions.assertEquals(1, new SuggestionOutbox(outboxFile, _logger).size());
+
+        try (MockedStatic<RepoPathFactory> repoPathFactory = Mockito.mockStatic(RepoPathFactory.class)) {
+            repoPathFactory.when(() -> RepoPathFactory.create(anyString(), anyString()))
+                    .thenAnswer(invocation -> createRepoPath(invocation.getArgument(1)));
+
+            suggestionQueue.drainOutbox();
+        }
+
+        Assertions.assertEquals(List.of("lodash/-/lodash-0.2.1.tgz"), suggestedPaths);
+        Assertions.assertEquals(0, new SuggestionOutbox(outboxFile, _logger).size());
+        verify(_scaHttpClient, times(2)).suggestPrivatePackages(argThat(artifactIds -> artifactIds.size() == 1 && "lodash".equals(artifactIds.get(0).Name)));
+    }
+
+    @DisplayName("Keep the queued suggestions in the outbox until they are accepted")
+    @Test
+    public void keepQueuedSuggestionsInOutbox(@TempDir Path directory) throws ExecutionException, InterruptedException {
+        var outboxFile = directory.resolve("outbox.jsonl");
+        var suggestionQueue = createSuggestionQueue("50", "60000");
+        suggestionQueue.useOutbox(new SuggestionOutbox(outboxFile, _logger));
+
+        var outboxSizeWhileSending = new ArrayList<Integer>();
+        when(_scaHttpClient.suggestPrivatePackages(anyList())).thenAnswer(invocation -> {
+            outboxSizeWhileSending.add(new SuggestionOutbox(outboxFile, _logger).size());
+            return true;
+        });
+
+        suggestionQueue.enqueue(new ArtifactId("Npm", "lodash", "0.2.1"), createRepoPath("lodash/-/lodash-0.2.1.tgz"));
+        suggestionQueue.flush();
+
+        Assertions.assertEquals(List.of(1), outboxSizeWhileSending);
+        Assertions.assertEquals(0, new SuggestionOutbox(outboxFile, _logger).size());
+    }
+
+    @DisplayName("Queue a path only once until its batch was sent")
+    @Test
+    public void queuePathOnce() throws ExecutionException, InterruptedException {
+        var suggestionQueue = createSuggestionQueue("50", "60000");
+
+        suggestionQueue.enqueue(new ArtifactId("Npm", "lodash", "0.2.1"), createRepoPath("lodash/-/lodash-0.2.1.tgz"));
+        suggestionQueue.enqueue(new ArtifactId("Npm", "lodash", "0.2.1"), createRepoPath("lodash/-/lodash-0.2.1.tgz"));
+        suggestionQueue.enqueue(new ArtifactId("Npm", "express", "4.18.1"), createRepoPath("express/-/express-4.18.1.tgz"));
+
+        Assertions.assertEquals(2, suggestionQueue.getPendingCount());
+
+        suggestionQueue.flush();
+        suggestionQueue.enqueue(new ArtifactId("Npm", "lodash", "0.2.1"), createRepoPath("lodash/-/lodash-0.2.1.tgz"));
+
+        Assertions.assertEquals(1, suggestionQueue.getPendingCount());
+        verify(_scaHttpClient, times(1)).suggestPrivatePackages(argThat(artifactIds -> artifactIds.size() == 2));
+    }
+
+    @DisplayName("Send the pending suggestions on close")
+    @Test
+    public void sendPendingSuggestionsOnClose() throws ExecutionException, InterruptedException {
+        var suggestionQueue = createSuggestionQueue("50", "60000");
+        var suggestedPaths = new ArrayList<String>();
+        suggestionQueue.setSuggestedListener(suggestion -> suggestedPaths.add(suggestion.getRepoPath().getPath()));
+
+        suggestionQueue.enqueue(new ArtifactId("Npm", "lodash", "0.2.1"), createRepoPath("lodash/-/lodash-0.2.1.tgz"));
+        suggestionQueue.close();
+
+        Assertions.assertEquals(List.of("lodash/-/lodash-0.2.1.tgz"), suggestedPaths);
+        Assertions.assertEquals(0, suggestionQueue.getPendingCount());
+
+        suggestionQueue.enqueue(new ArtifactId("Npm", "express", "4.18.1"), createRepoPath("express/-/express-4.18.1.tgz"));
+
+        Assertions.assertEquals(List.of("lodash/-/lodash-0.2.1.tgz", "express/-/express-4.18.1.tgz"), suggestedPaths);
+        verify(_scaHttpClient, times(2)).suggestPrivatePackages(anyList());
+    }
+
+    private static RepoPath createRepoPath(String path) {
+        var repoPath = Mockito.mock(RepoPath.class);
+        when(repoPath.getRepoKey()).thenReturn("npm-local");
+        when(repoPath.getPath()).thenReturn(path);
+        return repoPath;
+    }
+
+    private SuggestionQueue createSuggestionQueue(String batchSize, String flushInterval) {
+        var properties = new Properties();
+        properties.setProperty("sca.suggestion.batch-size", batchSize);
+        properties.setProperty("sca.suggestion.flush-interval-ms", flushInterval);
+
+        var configuration = new PluginConfiguration(properties, _logger);
+
+        var injector = Guice.createInjector(new AbstractModule() {
+            @Override
+            protected void configure() {
+                bind(Logger.class).toInstance(_logger);
+                bind(PluginConfiguration.class).toInstance(configuration);
+                bind(ScaHttpClient.class).toInstance(_scaHttpClient);
+            }
+        });
+
+        return injector.getInstance(SuggestionQueue.class);
+    }
+}
@@ -0,0 +1,86 @@
+package com.checkmarx.sca.traffic;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Collectors;
+
+@DisplayName("TrafficRecorder")
+public class TrafficRecorderTests {
+    @TempDir
+    Path _directory;
+
+    private Logger _logger;
+
+    @BeforeEach
+    public void beforeEach() {
+        _logger = Mockito.mock(Logger.class);
+    }
+
+    @DisplayName("Write hook calls as tab separated events")
+    @Test
+    public void writeEvents() throws IOException {
+        var file = _directory.resolve("cxsca-traffic.tsv");
+        var recorder = new TrafficRecorder(file, _logger, 100, 1024 * 1024, null);
+
+        recorder.record(TrafficEvent.DownloadHook, "npm-remote", "npm", "lodash/-/lodash-0.2.1.tgz");
+        recorder.record(TrafficEvent.UploadHook, "npm-local", "npm", "internal/-/internal-1.0.0.tgz");
+        recorder.close();
+
+        var events = Files.readAllLines(file).stream().map(TrafficEvent::parse).collect(Collectors.toList());
+        Assertions.assertEquals(2, events.size());
+
+        Assertions.assertEquals(TrafficEvent.DownloadHook, events.get(0).getHook());
+        Assertions.assertEquals("npm-remote", events.get(0).getRepoKey());
+        Assertions.assertEquals("npm", events.get(0).getPackageType());
+        Assertions.assertEquals("lodash/-/lodash-0.2.1.tgz", events.get(0).getPath());
+        Assertions.assertTrue(events.get(0).getTimeMillis() > 0);
+        Assertions.assertEquals(TrafficEvent.UploadHook, events.get(1).getHook());
+    }
+
+    @DisplayName("Anonymize names while keeping versions and extensions")
+    @Test
+    public void anonymizeEvents() throws IOException {
+        var file = _directory.resolve("cxsca-traffic.tsv");
+        var recorder = new TrafficRecorder(file, _logger, 100, 1024 * 1024, new TrafficAnonymizer("salt"));
+
+        recorder.record(TrafficEvent.DownloadHook, "npm-remote", "npm", "lodash/-/lodash-0.2.1.tgz");
+        recorder.record(TrafficEvent.DownloadHook, "npm-remote", "npm", "lodash/-/lodash-4.17.21.tgz");
+        recorder.close();
+
+        var events = Files.readAllLines(file).stream().map(TrafficEvent::parse).collect(Collectors.toList());
+        Assertions.assertEquals(2, events.size());
+
+        var path = events.get(0).getPath();
+        Assertions.assertFalse(path.contains("lodash"));
+        Assertions.assertTrue(path.matches("[a-z]{8}/-/[a-z]{8}-0\\.2\\.1\\.tgz"), path);
+        Assertions.assertEquals(path.substring(0, 8), events.get(1).getPath().substring(0, 8));
+        Assertions.assertEquals(events.get(0).getRepoKey(), events.get(1).getRepoKey());
+        Assertions.assertNotEquals("npm-remote", events.get(0).getRepoKey());
+        Assertions.assertEquals("npm", events.get(0).getPackageType());
+    }
+
+    @DisplayName("Stop recording when the trace reaches its maximum size")
+    @Test
+    public void stopWhenFull() throws IOException {
+        var file = _directory.resolve("cxsca-traffic.tsv");
+        var recorder = new TrafficRecorder(file, _logger, 100, 10, null);
+
+        recorder.record(TrafficEvent.DownloadHook, "npm-remote", "npm", "lodash/-/lodash-0.2.1.tgz");
+        Mockito.verify(_logger, Mockito.timeout(5000)).info(Mockito.startsWith("Traffic recording stopped"), Mockito.eq((Object) file));
+
+        Assertions.assertFalse(recorder.isRecording());
+        recorder.record(TrafficEvent.DownloadHook, "npm-remote", "npm", "lodash/-/lodash-4.17.21.tgz");
+        recorder.close();
+
+        Assertions.assertEquals(1, Files.readAllLines(file).size());
+    }
+}